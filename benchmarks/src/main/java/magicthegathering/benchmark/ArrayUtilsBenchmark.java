@@ -0,0 +1,113 @@
+package magicthegathering.benchmark;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.LandCard;
+import magicthegathering.impl.ArrayUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the static array methods.
+ *
+ * @author Marek Sabo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayUtilsBenchmark {
+
+    @Param({"14", "56", "224"})
+    private int deckSize;
+
+    private Card[] cards;
+    private CreatureCard[] creatures;
+
+    /**
+     * Generate the deck, every second card is on the table.
+     */
+    @Setup
+    public void setUp() {
+        cards = Decks.create(deckSize, new Random(deckSize));
+        for (int i = 0; i < cards.length; i += 2) {
+            cards[i].putOnTable();
+        }
+        creatures = ArrayUtils.filterCreatures(cards);
+    }
+
+    @Benchmark
+    public LandCard[] filterLands() {
+        return ArrayUtils.filterLands(cards);
+    }
+
+    @Benchmark
+    public CreatureCard[] filterCreatures() {
+        return ArrayUtils.filterCreatures(cards);
+    }
+
+    @Benchmark
+    public Card[] filterInHand() {
+        return ArrayUtils.filterInHand(cards);
+    }
+
+    @Benchmark
+    public Card[] filterOnTable() {
+        return ArrayUtils.filterOnTable(cards);
+    }
+
+    /**
+     * Worst case, creatures do not contain any duplicate.
+     *
+     * @return false
+     */
+    @Benchmark
+    public boolean hasDuplicatesExceptNull() {
+        return ArrayUtils.hasDuplicatesExceptNull(creatures);
+    }
+
+    /**
+     * Removing reorders the array, so every call gets its own copy of the cards.
+     * This is cheap compared to the removal, see {@link Level#Invocation} for the caveats.
+     */
+    @State(Scope.Thread)
+    public static class FreshCards {
+
+        private Card[] cards;
+
+        /**
+         * @param benchmark benchmark whose cards are copied
+         */
+        @Setup(Level.Invocation)
+        public void copy(ArrayUtilsBenchmark benchmark) {
+            cards = benchmark.cards.clone();
+        }
+    }
+
+    /**
+     * Worst case, the last card is removed, so the whole array is searched.
+     *
+     * @param freshCards copy of the cards
+     * @return array without the card
+     */
+    @Benchmark
+    public Card[] removeCard(FreshCards freshCards) {
+        return ArrayUtils.removeCard(cards[cards.length - 1], freshCards.cards);
+    }
+
+}
@@ -0,0 +1,71 @@
+package magicthegathering.benchmark;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.LandCardType;
+import magicthegathering.game.ManaType;
+import magicthegathering.game.Player;
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.LandCardImpl;
+
+import java.util.Random;
+
+/**
+ * Builds decks of arbitrary size for the benchmarks.
+ * Lands and creatures keep the ratio of {@link Game#LAND_COUNT} and {@link Game#CREATURE_COUNT},
+ * lands come first like in {@link magicthegathering.game.Generator}.
+ *
+ * @author Marek Sabo
+ */
+final class Decks {
+
+    private static final int MAX_POWER = 8;
+    private static final int MAX_TOUGHNESS = 5;
+    private static final int MAX_MANA = 3;
+
+    private Decks() {
+    }
+
+    /**
+     * Create deck of given size.
+     *
+     * @param size   number of cards
+     * @param random source of randomness
+     * @return generated cards
+     */
+    static Card[] create(int size, Random random) {
+        int landCount = Math.max(1, size * Game.LAND_COUNT / Game.TOTAL_CARD_AMOUNT);
+        Card[] cards = new Card[size];
+        LandCardType[] types = LandCardType.values();
+        for (int i = 0; i < landCount; i++) {
+            cards[i] = new LandCardImpl(types[random.nextInt(types.length)]);
+        }
+        for (int i = landCount; i < size; i++) {
+            ManaType[] cost = new ManaType[random.nextInt(MAX_MANA) + 1];
+            for (int j = 0; j < cost.length; j++) {
+                cost[j] = ((LandCard) cards[random.nextInt(landCount)]).getManaType();
+            }
+            cards[i] = new CreatureCardImpl("Creature " + i, cost,
+                    random.nextInt(MAX_POWER) + 1, random.nextInt(MAX_TOUGHNESS) + 1);
+        }
+        return cards;
+    }
+
+    /**
+     * Put all player's cards on the table, creatures are ready to attack.
+     *
+     * @param player player with cards in hand
+     */
+    static void putEverythingOnTable(Player player) {
+        for (LandCard land : player.getLandsInHand()) {
+            player.putLandOnTable(land);
+        }
+        for (CreatureCard creature : player.getCreaturesInHand()) {
+            creature.putOnTable();
+        }
+        player.prepareAllCreatures();
+    }
+
+}
@@ -0,0 +1,107 @@
+package magicthegathering.benchmark;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.Player;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of attack and block validation and of the damage evaluation.
+ * Both players have all their cards on the table, every creature of the current player attacks
+ * and the second player blocks with as many creatures as possible.
+ *
+ * @author Marek Sabo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({"14", "56", "224"})
+    private int deckSize;
+
+    private Card[] firstDeck;
+    private Card[] secondDeck;
+    private Player first;
+    private Player second;
+    private Game game;
+    private CreatureCard[] attacking;
+    private CreatureCard[] blocking;
+
+    /**
+     * Generate decks of both players and choose attacking and blocking creatures.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(deckSize);
+        firstDeck = Decks.create(deckSize, random);
+        secondDeck = Decks.create(deckSize, random);
+        first = new PlayerImpl("First");
+        second = new PlayerImpl("Second");
+        game = new GameImpl(first, second);
+        first.initCards(firstDeck);
+        second.initCards(secondDeck);
+        Decks.putEverythingOnTable(first);
+        Decks.putEverythingOnTable(second);
+
+        attacking = first.getCreaturesOnTable();
+        CreatureCard[] defenders = second.getCreaturesOnTable();
+        blocking = new CreatureCard[attacking.length];
+        System.arraycopy(defenders, 0, blocking, 0, Math.min(defenders.length, blocking.length));
+    }
+
+    /**
+     * Damage evaluation destroys creatures, so the players get their cards back before every call.
+     * This is cheap compared to the evaluation, see {@link Level#Invocation} for the caveats.
+     */
+    @State(Scope.Thread)
+    public static class FreshPlayers {
+
+        /**
+         * @param benchmark benchmark whose players are reset
+         */
+        @Setup(Level.Invocation)
+        public void reset(GameBenchmark benchmark) {
+            benchmark.first.initCards(benchmark.firstDeck);
+            benchmark.second.initCards(benchmark.secondDeck);
+            benchmark.second.subtractLives(benchmark.second.getLife() - Player.INIT_LIVES);
+        }
+    }
+
+    @Benchmark
+    public boolean isCreaturesAttackValid() {
+        return game.isCreaturesAttackValid(attacking);
+    }
+
+    @Benchmark
+    public boolean isCreaturesBlockValid() {
+        return game.isCreaturesBlockValid(attacking, blocking);
+    }
+
+    @Benchmark
+    public Game performBlockAndDamage(FreshPlayers freshPlayers) {
+        game.performBlockAndDamage(attacking, blocking);
+        return game;
+    }
+
+}
@@ -0,0 +1,78 @@
+package magicthegathering.benchmark;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.Player;
+import magicthegathering.impl.PlayerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of paying mana for creatures.
+ * All lands of the player are on the table, creatures are in hand.
+ *
+ * @author Marek Sabo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+
+    @Param({"14", "56", "224"})
+    private int deckSize;
+
+    private Player player;
+    private CreatureCard[] creatures;
+    private int next;
+
+    /**
+     * Generate the deck and put all the lands on the table.
+     */
+    @Setup
+    public void setUp() {
+        player = new PlayerImpl("Benchmark");
+        player.initCards(Decks.create(deckSize, new Random(deckSize)));
+        for (LandCard land : player.getLandsInHand()) {
+            player.putLandOnTable(land);
+        }
+        creatures = player.getCreaturesInHand();
+    }
+
+    private CreatureCard nextCreature() {
+        next = next + 1 == creatures.length ? 0 : next + 1;
+        return creatures[next];
+    }
+
+    @Benchmark
+    public boolean hasManaForCreature() {
+        return player.hasManaForCreature(nextCreature());
+    }
+
+    /**
+     * Lands are untapped before every payment, so the untapping is part of the measurement.
+     *
+     * @return player
+     */
+    @Benchmark
+    public Player tapManaForCreature() {
+        player.untapAllCards();
+        player.tapManaForCreature(nextCreature());
+        return player;
+    }
+
+}
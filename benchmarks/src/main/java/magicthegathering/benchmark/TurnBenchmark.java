@@ -0,0 +1,109 @@
+package magicthegathering.benchmark;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.Player;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a whole turn played the same way as in the text user interface.
+ * The player puts the first land from hand on the table, buys every creature he can afford,
+ * attacks with all ready creatures and the opponent blocks with his untapped creatures in order.
+ * When the game ends, a new one is generated, its cost is amortized into the turns.
+ *
+ * @author Marek Sabo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmark {
+
+    private static final int MAX_TURNS = 100;
+
+    @Param({"14", "56", "224"})
+    private int deckSize;
+
+    private Random random;
+    private Game game;
+    private int turns;
+
+    /**
+     * Prepare first game.
+     */
+    @Setup
+    public void setUp() {
+        random = new Random(deckSize);
+        newGame();
+    }
+
+    private void newGame() {
+        Player first = new PlayerImpl("First");
+        Player second = new PlayerImpl("Second");
+        first.initCards(Decks.create(deckSize, random));
+        second.initCards(Decks.create(deckSize, random));
+        game = new GameImpl(first, second);
+        turns = 0;
+    }
+
+    @Benchmark
+    public Player turn() {
+        if (game.getCurrentPlayer().isDead() || turns == MAX_TURNS) {
+            newGame();
+        }
+        game.prepareCurrentPlayerForTurn();
+        Player player = game.getCurrentPlayer();
+
+        LandCard[] lands = player.getLandsInHand();
+        if (lands.length != 0) {
+            player.putLandOnTable(lands[0]);
+        }
+        for (CreatureCard creature : player.getCreaturesInHand()) {
+            player.putCreatureOnTable(creature);
+        }
+        attackAndBlock();
+
+        game.changePlayer();
+        turns++;
+        return player;
+    }
+
+    private void attackAndBlock() {
+        CreatureCard[] attacking = Arrays.stream(game.getCurrentPlayer().getCreaturesOnTable())
+                .filter(c -> !c.isTapped() && !c.hasSummoningSickness())
+                .toArray(CreatureCard[]::new);
+        if (attacking.length == 0 || !game.isCreaturesAttackValid(attacking)) {
+            return;
+        }
+        game.performAttack(attacking);
+
+        CreatureCard[] blocking = Arrays.stream(game.getSecondPlayer().getCreaturesOnTable())
+                .filter(c -> !c.isTapped())
+                .limit(attacking.length)
+                .toArray(CreatureCard[]::new);
+        blocking = Arrays.copyOf(blocking, attacking.length);
+        if (game.isCreaturesBlockValid(attacking, blocking)) {
+            game.performBlockAndDamage(attacking, blocking);
+        }
+    }
+
+}
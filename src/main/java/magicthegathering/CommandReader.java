@@ -0,0 +1,193 @@
+package magicthegathering;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the commands of the text user interface and of the clients of the game server line by line.
+ * The input is read in large blocks and the numbers are parsed right from the line buffer without
+ * regular expressions or substrings, so scripted games are not slowed down by the input.
+ *
+ * @author Zuzana Wolfova
+ */
+public final class CommandReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_NUMBERS = 16;
+
+    private final Reader in;
+    private final int maxLine;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private int[] numbers = new int[MAX_NUMBERS];
+    private int position;
+    private int limit;
+
+    /**
+     * Constructor.
+     *
+     * @param in source of the commands, it is read in blocks, so it does not need to be buffered
+     */
+    public CommandReader(Reader in) {
+        this(in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor of the reader of untrusted input.
+     *
+     * @param in      source of the commands, it is read in blocks, so it does not need to be buffered
+     * @param maxLine maximal number of characters of a line
+     */
+    public CommandReader(Reader in, int maxLine) {
+        this.in = in;
+        this.maxLine = maxLine;
+    }
+
+    /**
+     * Find out whether there is another line, waits for the input if there is none yet.
+     *
+     * @return true if the next read gets a line
+     * @throws UncheckedIOException if the input cannot be read
+     */
+    public boolean hasMoreLines() {
+        return position < limit || fill();
+    }
+
+    /**
+     * Read the next line.
+     *
+     * @return line without the line separator
+     * @throws NoSuchElementException if there are no more lines
+     * @throws UncheckedIOException if the input cannot be read or the line is too long
+     */
+    public String readLine() {
+        nextLine();
+        return line.toString();
+    }
+
+    /**
+     * Read the line with one number.
+     *
+     * @param blank value returned for empty line
+     * @return the number
+     * @throws NumberFormatException if the line is not one number
+     * @throws NoSuchElementException if there are no more lines
+     */
+    public int readInt(int blank) {
+        nextLine();
+        int count = parseLine();
+        if (count == 0) {
+            return blank;
+        }
+        if (count > 1) {
+            throw new NumberFormatException("More than one number: " + line);
+        }
+        return numbers[0];
+    }
+
+    /**
+     * Read the line with whitespace separated numbers.
+     *
+     * @return the numbers, empty for empty line
+     * @throws NumberFormatException if the line contains something else than numbers
+     * @throws NoSuchElementException if there are no more lines
+     */
+    public int[] readInts() {
+        nextLine();
+        return parseInts();
+    }
+
+    /**
+     * Parse the line returned by the last read as whitespace separated numbers.
+     *
+     * @return the numbers, empty for empty line
+     * @throws NumberFormatException if the line contains something else than numbers
+     */
+    public int[] parseInts() {
+        int count = parseLine();
+        return Arrays.copyOf(numbers, count);
+    }
+
+    private int parseLine() {
+        int count = 0;
+        int i = 0;
+        while (i < line.length()) {
+            if (Character.isWhitespace(line.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+                end++;
+            }
+            if (count == numbers.length) {
+                numbers = Arrays.copyOf(numbers, 2 * count);
+            }
+            numbers[count++] = parseInt(i, end);
+            i = end;
+        }
+        return count;
+    }
+
+    private int parseInt(int start, int end) {
+        boolean negative = line.charAt(start) == '-';
+        int i = negative || line.charAt(start) == '+' ? start + 1 : start;
+        if (i == end) {
+            throw invalidNumber(start, end);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(line.charAt(i), 10);
+            value = 10 * value + digit;
+            if (digit < 0 || value > (long) Integer.MAX_VALUE + 1) {
+                throw invalidNumber(start, end);
+            }
+        }
+        if (!negative && value > Integer.MAX_VALUE) {
+            throw invalidNumber(start, end);
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private NumberFormatException invalidNumber(int start, int end) {
+        return new NumberFormatException("not a number " + line.substring(start, end));
+    }
+
+    private void nextLine() {
+        line.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                if (line.length() == 0) {
+                    throw new NoSuchElementException("No more commands");
+                }
+                return;
+            }
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (line.length() == maxLine) {
+                throw new UncheckedIOException(new IOException("Line is longer than " + maxLine + " characters"));
+            }
+            line.append(c);
+        }
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+    }
+
+    private boolean fill() {
+        try {
+            int read = in.read(buffer);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -1,15 +1,31 @@
 package magicthegathering;
 
-import magicthegathering.game.Card;
+import magicthegathering.ai.MctsStrategy;
 import magicthegathering.game.CreatureCard;
 import magicthegathering.game.Game;
+import magicthegathering.game.Generator;
 import magicthegathering.game.LandCard;
+import magicthegathering.game.PhaseInput;
 import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
 import magicthegathering.impl.GameImpl;
 import magicthegathering.impl.PlayerImpl;
-
+import magicthegathering.journal.GameJournal;
+import magicthegathering.journal.JournaledGame;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.Scanner;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is the main class containing text user interface and logic for the game.
@@ -18,63 +34,142 @@ import java.util.Scanner;
  */
 public class MagicTheGathering {
 
-    private static final int SKIP = -42;
-    private static final int NULL_CREATURE = -1;
-
-    private static final Scanner READER = new Scanner(System.in);
+    private static final String BOT_OPTION = "--bot";
+    private static final String JOURNAL_OPTION = "--journal";
+    private static final String COMPACT_OPTION = "--compact";
+    private static final String SCRIPT_OPTION = "--script";
+    private static final String STANDARD_INPUT = "-";
+    private static final String SEED_OPTION = "--seed";
+    private static final long BOT_SEED_INDEX = 0xB07L;
+    private static final int SEEDED_BOT_PLAYOUTS = 200;
+    private static final long SEEDED_BOT_BUDGET_MILLIS = 60_000;
+
+    private static Renderer screen;
+    private static CommandReader reader;
+    private static boolean scripted;
+    private static Long seed;
     private static Game game;
+    private static Player bot;
+    private static Strategy botStrategy;
 
     /**
-     * @param args the command line arguments
+     * @param args the command line arguments, {@value #BOT_OPTION} means playing against the computer,
+     *             {@value #JOURNAL_OPTION} followed by a file means writing the games into the journal,
+     *             {@value #COMPACT_OPTION} means the machine-readable output for bot front-ends,
+     *             {@value #SCRIPT_OPTION} followed by a file, or - for the standard input, means playing
+     *             the games recorded in the file one after another without prompts,
+     *             {@value #SEED_OPTION} followed by a number means dealing the cards of every game from the seed,
+     *             the bot is seeded from it too and decides by a fixed number of playouts, so the games repeat
+     * @throws IOException if the journal or the script cannot be read or written
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        List<String> options = Arrays.asList(args);
+        screen = new Renderer(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8),
+                options.contains(COMPACT_OPTION));
+        String journalFile = optionValue(args, JOURNAL_OPTION);
+        String script = optionValue(args, SCRIPT_OPTION);
+        scripted = script != null;
+        String seedValue = optionValue(args, SEED_OPTION);
+        seed = seedValue == null ? null : Long.valueOf(seedValue);
+
+        try (GameJournal journal = journalFile == null ? null : new GameJournal(Paths.get(journalFile));
+             Reader in = script == null || STANDARD_INPUT.equals(script)
+                     ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                     : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8)) {
+            reader = new CommandReader(in);
+            if (scripted) {
+                playScript(options.contains(BOT_OPTION), journal);
+            } else {
+                playGame(options.contains(BOT_OPTION), journal);
+            }
+        }
+    }
 
-        System.out.println("Welcome to Magic the Gathering!");
-        System.out.println("Empty line means skipping the action.");
+    private static String optionValue(String[] args, String option) {
+        int index = Arrays.asList(args).indexOf(option) + 1;
+        return index > 0 && index < args.length ? args[index] : null;
+    }
 
-        Player[] players = getPlayersName();
-        game = new GameImpl(players[0], players[1]);
-        game.initGame();
+    private static void playScript(boolean withBot, GameJournal journal) {
+        long start = System.nanoTime();
+        int games = 0;
+        try {
+            while (reader.hasMoreLines()) {
+                playGame(withBot, journal);
+                games++;
+            }
+        } catch (NoSuchElementException e) {
+            screen.flush();
+            System.err.println("Script ended in the middle of the game " + (games + 1));
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.err.println("Played " + games + " games in " + millis + " ms");
+    }
+
+    private static void playGame(boolean withBot, GameJournal journal) {
+        screen.say("Welcome to Magic the Gathering!");
+        screen.say("Empty line means skipping the action.");
+
+        Player[] players = withBot ? getPlayerAndBot() : getPlayersName();
+        game = journal == null ? new GameImpl(players[0], players[1])
+                : new JournaledGame(players[0], players[1], journal);
+        if (seed == null) {
+            game.initGame();
+        } else {
+            game.initGame(seed);
+        }
+        if (bot != null) {
+            bot = game.getSecondPlayer();
+        }
 
         while (!isPlayerDead()) {
             playTurn();
             game.changePlayer();
         }
 
-        System.out.println("Player " + game.getSecondPlayer() + " has won.");
+        Player winner = game.getSecondPlayer();
+        screen.event("WINNER", winner.getName(), "Player " + winner + " has won.");
+        screen.flush();
+    }
+
+    private static void ask(String tag, String question) {
+        if (!scripted) {
+            screen.prompt(tag, question);
+        }
     }
 
     private static Player[] getPlayersName() {
         Player[] players = new Player[2];
         for (int i = 0; i < players.length; i++) {
-            System.out.println("Enter name for player " + (i + 1));
-            players[i] = new PlayerImpl(READER.nextLine());
+            ask("NAME", "Enter name for player " + (i + 1));
+            players[i] = new PlayerImpl(reader.readLine());
         }
         return players;
     }
 
+    private static Player[] getPlayerAndBot() {
+        ask("NAME", "Enter your name");
+        bot = new PlayerImpl("Bot");
+        botStrategy = seed == null ? new MctsStrategy(System.nanoTime())
+                : new MctsStrategy(Generator.deriveSeed(seed, BOT_SEED_INDEX), SEEDED_BOT_BUDGET_MILLIS,
+                SEEDED_BOT_PLAYOUTS);
+        return new Player[] {new PlayerImpl(reader.readLine()), bot};
+    }
+
+    private static boolean isBotOnTurn() {
+        return game.getCurrentPlayer() == bot;
+    }
+
     private static boolean isPlayerDead() {
         return game.getCurrentPlayer().isDead();
     }
 
     private static void playTurn() {
-
-        System.out.println();
-        System.out.println("Turn of Player " + game.getCurrentPlayer().getName() + " with life "
-                + game.getCurrentPlayer().getLife() + " begins.");
-        System.out.println("===========================================================");
-        System.out.println();
+        screen.turn(game.getCurrentPlayer());
         game.prepareCurrentPlayerForTurn();
 
-        System.out.println("Your hand:");
-        System.out.println();
-        Arrays.stream(game.getCurrentPlayer().getCardsInHand()).forEach(System.out::println);
-        System.out.println();
-
-        System.out.println("Your table:");
-        System.out.println();
-        Arrays.stream(game.getCurrentPlayer().getCardsOnTable()).forEach(System.out::println);
-        System.out.println();
+        screen.cards("HAND", "Your hand:", game.getCurrentPlayer().getCardsInHandView());
+        screen.cards("TABLE", "Your table:", game.getCurrentPlayer().getCardsOnTableView());
 
         putLandOnTable();
         buyCreatures();
@@ -82,39 +177,49 @@ public class MagicTheGathering {
     }
 
     private static void putLandOnTable() {
-        System.out.println("Phase 1 - putting land on the table");
-        System.out.println("===================================");
-        System.out.println();
+        screen.phase("LAND", "Phase 1 - putting land on the table");
 
-        LandCard[] landsInHand = game.getCurrentPlayer().getLandsInHand();
-        printCardsWithIndexes(landsInHand);
-
-        System.out.println("Which land you want to put on the table?");
-
-        int landIndex = readIntLine();
-        if (landIndex < 0 || landIndex >= landsInHand.length) {
-            System.out.println("Invalid index, skipping.");
+        if (isBotOnTurn()) {
+            LandCard land = botStrategy.chooseLand(game);
+            screen.card("LAND", "Land put on the table: ", land);
+            if (land != null) {
+                game.getCurrentPlayer().putLandOnTable(land);
+            }
             return;
         }
 
-        game.getCurrentPlayer().putLandOnTable(landsInHand[landIndex]);
+        screen.options(game.getCurrentPlayer().getLandsInHand());
+        ask("LAND", "Which land you want to put on the table?");
+
+        try {
+            LandCard land = PhaseInput.land(game.getCurrentPlayer(), reader.readInts());
+            if (land != null) {
+                game.getCurrentPlayer().putLandOnTable(land);
+            }
+        } catch (IllegalArgumentException e) {
+            screen.error("Invalid choice: " + e.getMessage() + ", skipping.");
+        }
     }
 
     private static void buyCreatures() {
-        System.out.println("Phase 2 - putting creatures on the table");
-        System.out.println("========================================");
-        System.out.println();
+        screen.phase("BUY", "Phase 2 - putting creatures on the table");
+
+        if (isBotOnTurn()) {
+            buyCreaturesByBot();
+            return;
+        }
 
         CreatureCard[] creaturesInHand = game.getCurrentPlayer().getCreaturesInHand();
 
-        System.out.println("Lands on table:");
-        Arrays.stream(game.getCurrentPlayer().getLandsOnTable()).forEach(System.out::println);
-        System.out.println();
-        System.out.println("Creatures in hand:");
-        printCardsWithIndexes(creaturesInHand);
+        screen.cards("LANDS", "Lands on table:", game.getCurrentPlayer().getLandsOnTableView());
+        screen.say("Creatures in hand:");
+        screen.options(creaturesInHand);
+        screen.say("Strongest creatures you can pay: "
+                + Arrays.toString(game.getCurrentPlayer().planCreaturePurchase(CreatureCard::getTotalCost)));
+        screen.blank();
 
         while (true) {
-            System.out.println("Type creature number you want to put on the table:");
+            ask("BUY", "Type creature number you want to put on the table:");
             int creatureIndex = readIntLine();
 
             if (creatureIndex < 0 || creatureIndex >= creaturesInHand.length) break;
@@ -122,9 +227,17 @@ public class MagicTheGathering {
             boolean put = game.getCurrentPlayer().putCreatureOnTable(creaturesInHand[creatureIndex]);
 
             if (put) {
-                System.out.println("Creature was put on table.");
+                screen.event("CREATURE", creaturesInHand[creatureIndex], "Creature was put on table.");
             } else {
-                System.out.println("Creature could not be put on table!");
+                screen.error("Creature could not be put on table!");
+            }
+        }
+    }
+
+    private static void buyCreaturesByBot() {
+        for (CreatureCard creature : botStrategy.chooseCreatures(game)) {
+            if (game.getCurrentPlayer().putCreatureOnTable(creature)) {
+                screen.card("CREATURE", "Creature put on the table: ", creature);
             }
         }
     }
@@ -135,13 +248,11 @@ public class MagicTheGathering {
     }
 
     private static CreatureCard[] performAttack() {
-        System.out.println("Phase 3.1 - choosing which creatures will attack");
-        System.out.println("================================================");
-        System.out.println();
+        screen.phase("ATTACK", "Phase 3.1 - choosing which creatures will attack");
 
         CreatureCard[] attackingCreatures = pickCreaturesForAttack();
         while (!game.isCreaturesAttackValid(attackingCreatures)) {
-            System.out.println("Invalid attack, try again.");
+            screen.error("Invalid attack, try again.");
             attackingCreatures = pickCreaturesForAttack();
         }
 
@@ -150,106 +261,63 @@ public class MagicTheGathering {
     }
 
     private static void performBlock(CreatureCard[] attackingCreatures) {
-        System.out.println("Phase 3.2 - choosing which creatures will block");
-        System.out.println("Note: -1 represents that creature is not blocked");
-        System.out.println("================================================");
-        System.out.println();
+        screen.phase("BLOCK", "Phase 3.2 - choosing which creatures will block");
+        screen.say("Note: -1 represents that creature is not blocked");
+        screen.blank();
 
         if (attackingCreatures.length == 0) {
-            System.out.println("Skipping action.");
+            screen.say("Skipping action.");
             return;
         }
 
         CreatureCard[] blockingCreatures = pickCreaturesForBlock(attackingCreatures);
         while (!game.isCreaturesBlockValid(attackingCreatures, blockingCreatures)) {
-            System.out.println("Invalid block, try again.");
+            screen.error("Invalid block, try again.");
             blockingCreatures = pickCreaturesForBlock(attackingCreatures);
         }
 
-        printBlock(attackingCreatures, blockingCreatures);
+        screen.block(attackingCreatures, blockingCreatures);
         game.performBlockAndDamage(attackingCreatures, blockingCreatures);
     }
 
-    private static void printBlock(CreatureCard[] attackingCreatures, CreatureCard[] blockingCreatures) {
-        System.out.println("Block: ");
-        for (int i = 0; i < attackingCreatures.length; i++) {
-            String blockingOne = blockingCreatures[i] == null ? "PLAYER" : blockingCreatures[i].toString();
-            System.out.println(attackingCreatures[i] + " -> " + blockingOne);
-        }
-    }
-
     private static CreatureCard[] pickCreaturesForAttack() {
-        return pickCreaturesFor(true);
+        if (isBotOnTurn()) {
+            return botStrategy.chooseAttackers(game);
+        }
+        return pickCreaturesFor(true, new CreatureCard[0]);
     }
 
     private static CreatureCard[] pickCreaturesForBlock(CreatureCard[] attackingCreatures) {
-        CreatureCard[] blockCreatures = pickCreaturesFor(false);
-        if (blockCreatures.length == 0) {
-            blockCreatures = new CreatureCard[attackingCreatures.length];
+        if (game.getSecondPlayer() == bot) {
+            return botStrategy.chooseBlockers(game, attackingCreatures);
         }
-        return blockCreatures;
+        return pickCreaturesFor(false, attackingCreatures);
     }
 
-    private static CreatureCard[] pickCreaturesFor(boolean isAttack) {
+    private static CreatureCard[] pickCreaturesFor(boolean isAttack, CreatureCard[] attackingCreatures) {
         String action = isAttack ? "attack" : "block";
         Player playersCreatures = isAttack ? game.getCurrentPlayer() : game.getSecondPlayer();
 
-        CreatureCard[] creaturesOnTable = playersCreatures.getCreaturesOnTable();
-
-        if (creaturesOnTable.length == 0) {
-            System.out.println("Skipping action.");
-            return new CreatureCard[0];
+        if (playersCreatures.getCreaturesOnTableView().isEmpty()) {
+            screen.say("Skipping action.");
+            return isAttack ? new CreatureCard[0] : new CreatureCard[attackingCreatures.length];
         }
 
-        return processActionInput(creaturesOnTable, action);
-    }
-
-    private static CreatureCard[] processActionInput(CreatureCard[] creaturesOnTable, String action) {
         while (true) {
-            System.out.println("Choose creatures for " + action + " (whitespace separated numbers):");
-            printCardsWithIndexes(creaturesOnTable);
-
-            String answer = READER.nextLine();
-
-            String[] creaturesForAction = answer.split("\\s+");
-            CreatureCard[] creatures = new CreatureCard[creaturesForAction.length];
-            int i;
-            for (i = 0; i < creaturesForAction.length; i++) {
-                int index = parseInt(creaturesForAction[i]);
-                if (index >= 0 && index < creaturesOnTable.length) {
-                    creatures[i] = creaturesOnTable[index];
-                } else {
-                    if (index == SKIP) {
-                        return new CreatureCard[0];
-                    } else if (index == NULL_CREATURE) {
-                        creatures[i] = null;
-                    } else {
-                        System.out.println("Invalid index " + index + ", try again");
-                        break;
-                    }
-                }
-            }
-            if (i == creaturesForAction.length) {
-                return creatures;
+            screen.options(playersCreatures.getCreaturesOnTable());
+            ask(action.toUpperCase(), "Choose creatures for " + action + " (whitespace separated numbers):");
+            try {
+                int[] indexes = reader.readInts();
+                return isAttack ? PhaseInput.attackers(game, indexes)
+                        : PhaseInput.blockers(game, attackingCreatures, indexes);
+            } catch (IllegalArgumentException e) {
+                screen.error("Invalid " + action + ": " + e.getMessage() + ", try again.");
             }
         }
     }
 
     private static int readIntLine() throws NumberFormatException {
-        return parseInt(READER.nextLine());
-
-    }
-
-    private static int parseInt(String inputString) throws NumberFormatException {
-        if (inputString.trim().isEmpty()) return SKIP;
-        return Integer.parseInt(inputString);
-    }
-
-    private static void printCardsWithIndexes(Card[] cards) {
-        for (int i = 0; i < cards.length; i++) {
-            System.out.println(i + ": " + cards[i]);
-        }
-        System.out.println();
+        return reader.readInt(PhaseInput.SKIP);
     }
 
 }
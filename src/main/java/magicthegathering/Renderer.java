@@ -0,0 +1,276 @@
+package magicthegathering;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.ManaType;
+import magicthegathering.game.Player;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Renders the screens of the text user interface. The lines of one screen are collected
+ * in a reused buffer and written by {@link #flush()} at once, which is called before waiting
+ * for the input. The compact format is meant for bot front-ends: explanations are left out
+ * and every line is a tag followed by space separated fields, prompts are {@code ? TAG}.
+ * Cards are {@code L TYPE FLAGS} and {@code C POWER TOUGHNESS COST FLAGS NAME}, where the cost lists
+ * the amounts of the {@link ManaType mana types} separated by commas and the flags are {@code S}
+ * for summoning sickness and {@code T} for tapped card or {@code -} if there is none.
+ *
+ * @author Zuzana Wolfova
+ */
+final class Renderer {
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final char UNDERLINE = '=';
+    private static final int TURN_UNDERLINE = 59;
+    private static final ManaType[] MANA_TYPES = ManaType.values();
+
+    private final Writer out;
+    private final boolean compact;
+    private final StringBuilder screen = new StringBuilder(INITIAL_CAPACITY);
+
+    /**
+     * Constructor.
+     *
+     * @param out     output of the screens, it is flushed after every screen
+     * @param compact true for the machine-readable format
+     */
+    Renderer(Writer out, boolean compact) {
+        this.out = out;
+        this.compact = compact;
+    }
+
+    /**
+     * Add text for the human player, left out in the compact format.
+     *
+     * @param text line of text
+     */
+    void say(String text) {
+        if (!compact) {
+            screen.append(text).append('\n');
+        }
+    }
+
+    /**
+     * Add empty line, left out in the compact format.
+     */
+    void blank() {
+        say("");
+    }
+
+    /**
+     * Add information which has a value for bots.
+     *
+     * @param tag   tag of the compact line
+     * @param value fields of the compact line
+     * @param text  text of the line
+     */
+    void event(String tag, String value, String text) {
+        if (compact) {
+            screen.append(tag).append(' ').append(value).append('\n');
+        } else {
+            screen.append(text).append('\n');
+        }
+    }
+
+    /**
+     * Add card which has a value for bots, the text format shows only the text.
+     *
+     * @param tag  tag of the compact line
+     * @param card card of the compact line
+     * @param text text of the line
+     */
+    void event(String tag, Card card, String text) {
+        if (compact) {
+            card(tag, "", card);
+        } else {
+            say(text);
+        }
+    }
+
+    /**
+     * Add header of the turn.
+     *
+     * @param player player on turn
+     */
+    void turn(Player player) {
+        if (compact) {
+            screen.append("TURN ").append(player.getLife()).append(' ').append(player.getName()).append('\n');
+            return;
+        }
+        screen.append("\nTurn of Player ").append(player.getName()).append(" with life ").append(player.getLife())
+                .append(" begins.\n");
+        underline(TURN_UNDERLINE);
+        screen.append('\n');
+    }
+
+    /**
+     * Add header of the phase.
+     *
+     * @param tag   tag of the phase
+     * @param title title of the phase
+     */
+    void phase(String tag, String title) {
+        if (compact) {
+            screen.append("PHASE ").append(tag).append('\n');
+            return;
+        }
+        screen.append(title).append('\n');
+        underline(title.length());
+        screen.append('\n');
+    }
+
+    private void underline(int length) {
+        for (int i = 0; i < length; i++) {
+            screen.append(UNDERLINE);
+        }
+        screen.append('\n');
+    }
+
+    /**
+     * Add list of the cards.
+     *
+     * @param tag   tag of the compact lines
+     * @param title title of the list
+     * @param cards cards to list
+     */
+    void cards(String tag, String title, Iterable<? extends Card> cards) {
+        say(title);
+        blank();
+        for (Card card : cards) {
+            card(tag, "", card);
+        }
+        blank();
+    }
+
+    /**
+     * Add cards with the indexes by which the player chooses them.
+     *
+     * @param cards cards to choose from
+     */
+    void options(Card[] cards) {
+        for (int i = 0; i < cards.length; i++) {
+            screen.append(i).append(compact ? " " : ": ");
+            appendCard(cards[i]);
+            screen.append('\n');
+        }
+        blank();
+    }
+
+    /**
+     * Add line about one card.
+     *
+     * @param tag  tag of the compact line
+     * @param text text preceding the card
+     * @param card the card, null is rendered as null
+     */
+    void card(String tag, String text, Card card) {
+        if (compact) {
+            screen.append(tag).append(' ');
+        } else {
+            screen.append(text);
+        }
+        appendCard(card);
+        screen.append('\n');
+    }
+
+    /**
+     * Add the blocking creatures of the attackers.
+     *
+     * @param attacking attacking creatures
+     * @param blocking  blocking creatures, null means the creature is not blocked
+     */
+    void block(CreatureCard[] attacking, CreatureCard[] blocking) {
+        say("Block: ");
+        for (int i = 0; i < attacking.length; i++) {
+            if (compact) {
+                card("ATTACKER", "", attacking[i]);
+                screen.append("BLOCKER ");
+            } else {
+                appendCard(attacking[i]);
+                screen.append(" -> ");
+            }
+            if (blocking[i] == null) {
+                screen.append("PLAYER");
+            } else {
+                appendCard(blocking[i]);
+            }
+            screen.append('\n');
+        }
+    }
+
+    /**
+     * Add question and write the screen, the answer is read next.
+     *
+     * @param tag  tag of the compact prompt
+     * @param text question
+     */
+    void prompt(String tag, String text) {
+        event("?", tag, text);
+        flush();
+    }
+
+    /**
+     * Add message about invalid input.
+     *
+     * @param text message
+     */
+    void error(String text) {
+        event("ERR", text, text);
+    }
+
+    /**
+     * Write the screen and clear the buffer.
+     *
+     * @throws UncheckedIOException if the output cannot be written
+     */
+    void flush() {
+        try {
+            out.append(screen);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        screen.setLength(0);
+    }
+
+    private void appendCard(Card card) {
+        if (!compact || card == null) {
+            screen.append(card);
+        } else if (card instanceof CreatureCard) {
+            appendCreature((CreatureCard) card);
+        } else {
+            screen.append("L ").append(((LandCard) card).getLandType()).append(' ');
+            appendFlags(false, card.isTapped());
+        }
+    }
+
+    private void appendCreature(CreatureCard creature) {
+        screen.append("C ").append(creature.getPower()).append(' ').append(creature.getToughness()).append(' ');
+        for (ManaType mana : MANA_TYPES) {
+            if (mana.ordinal() != 0) {
+                screen.append(',');
+            }
+            screen.append(creature.getSpecialCost(mana));
+        }
+        screen.append(' ');
+        appendFlags(creature.hasSummoningSickness(), creature.isTapped());
+        screen.append(' ').append(creature.getName());
+    }
+
+    private void appendFlags(boolean sick, boolean tapped) {
+        if (!sick && !tapped) {
+            screen.append('-');
+        }
+        if (sick) {
+            screen.append('S');
+        }
+        if (tapped) {
+            screen.append('T');
+        }
+    }
+
+}
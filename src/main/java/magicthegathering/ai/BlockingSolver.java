@@ -0,0 +1,201 @@
+package magicthegathering.ai;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.Player;
+
+import java.util.Arrays;
+
+/**
+ * Finds the best block of the defending player. Every attacker is blocked by at most one creature,
+ * so the block is an assignment of attackers to blockers or to the player himself, which is solved exactly
+ * by the Hungarian method in O(n^3) time for n attackers and blockers. Criteria of the objective
+ * are combined into one cost by weights large enough to keep their order.
+ *
+ * @author Marek Sabo
+ */
+public final class BlockingSolver {
+
+    /**
+     * What the defender cares about, the criteria in the given order.
+     */
+    public enum Objective {
+
+        /**
+         * Lose as few lives as possible, then as few creatures as possible, then destroy most attackers.
+         */
+        MIN_LIFE_LOST,
+
+        /**
+         * Destroy most attackers, then lose as few creatures as possible, then as few lives as possible.
+         */
+        MAX_TRADES
+    }
+
+    private BlockingSolver() {
+    }
+
+    /**
+     * Find the best block of the second player of the game by his untapped creatures.
+     * If the block of the objective kills the defender although another block saves him,
+     * the block losing least lives is returned.
+     *
+     * @param game      game in progress
+     * @param attacking attacking creatures
+     * @param objective objective of the defender
+     * @return blocking creatures, the same length as attacking creatures, null means not blocked
+     */
+    public static CreatureCard[] solve(Game game, CreatureCard[] attacking, Objective objective) {
+        Player defender = game.getSecondPlayer();
+        CreatureCard[] untapped = Creatures.untapped(defender);
+        CreatureCard[] blocking = solve(attacking, untapped, objective);
+        if (objective != Objective.MIN_LIFE_LOST && lifeLost(attacking, blocking) >= defender.getLife()) {
+            blocking = solve(attacking, untapped, Objective.MIN_LIFE_LOST);
+        }
+        return blocking;
+    }
+
+    /**
+     * Find the best block.
+     *
+     * @param attacking attacking creatures
+     * @param blockers  creatures which can block
+     * @param objective objective of the defender
+     * @return blocking creatures, the same length as attacking creatures, null means not blocked
+     */
+    public static CreatureCard[] solve(CreatureCard[] attacking, CreatureCard[] blockers, Objective objective) {
+        int n = attacking.length;
+        int columns = blockers.length + n;
+        long[][] cost = new long[n][columns];
+        long[] weights = weights(objective, attacking, blockers.length);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < blockers.length; j++) {
+                cost[i][j] = blockCost(attacking[i], blockers[j], weights);
+            }
+            Arrays.fill(cost[i], blockers.length, columns, weights[0] * attacking[i].getPower());
+        }
+
+        int[] assigned = assign(cost, columns);
+        CreatureCard[] blocking = new CreatureCard[n];
+        for (int i = 0; i < n; i++) {
+            if (assigned[i] < blockers.length) {
+                blocking[i] = blockers[assigned[i]];
+            }
+        }
+        return blocking;
+    }
+
+    /**
+     * Count lives lost by the defender.
+     *
+     * @param attacking attacking creatures
+     * @param blocking  blocking creatures, null means not blocked
+     * @return sum of power of the unblocked attackers
+     */
+    public static int lifeLost(CreatureCard[] attacking, CreatureCard[] blocking) {
+        int lost = 0;
+        for (int i = 0; i < attacking.length; i++) {
+            if (blocking[i] == null) {
+                lost += attacking[i].getPower();
+            }
+        }
+        return lost;
+    }
+
+    /**
+     * Get weights of lost life, lost blocker and destroyed attacker. Every weight is greater than
+     * the largest possible sum of the less important criteria.
+     */
+    private static long[] weights(Objective objective, CreatureCard[] attacking, int blockers) {
+        int blocks = Math.min(attacking.length, blockers);
+        if (objective == Objective.MIN_LIFE_LOST) {
+            long blockerLost = attacking.length + 1;
+            return new long[] {blockerLost * (blocks + 1), blockerLost, -1};
+        }
+        long blockerLost = lifeLost(attacking, new CreatureCard[attacking.length]) + 1;
+        return new long[] {1, blockerLost, -blockerLost * (blocks + 1)};
+    }
+
+    private static long blockCost(CreatureCard attacker, CreatureCard blocker, long[] weights) {
+        if (!Creatures.blockerSurvives(attacker, blocker)) {
+            return weights[1];
+        }
+        return Creatures.attackerDies(attacker, blocker) ? weights[2] : 0;
+    }
+
+    /**
+     * Hungarian method for the rectangular matrix with at most as many rows as columns.
+     *
+     * @param cost    cost of assigning the row to the column
+     * @param columns number of columns
+     * @return column assigned to every row
+     */
+    private static int[] assign(long[][] cost, int columns) {
+        int n = cost.length;
+        long[] u = new long[n + 1];
+        long[] v = new long[columns + 1];
+        int[] row = new int[columns + 1];
+        int[] way = new int[columns + 1];
+        for (int i = 1; i <= n; i++) {
+            row[0] = i;
+            for (int column = augment(cost, u, v, row, way); column != 0; column = way[column]) {
+                row[column] = row[way[column]];
+            }
+        }
+        int[] assigned = new int[n];
+        for (int j = 1; j <= columns; j++) {
+            if (row[j] != 0) {
+                assigned[row[j] - 1] = j - 1;
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * Find the shortest augmenting path from the row row[0] to a free column, keeping the potentials feasible.
+     * The path can be followed back by the way array.
+     *
+     * @return free column at the end of the path
+     */
+    private static int augment(long[][] cost, long[] u, long[] v, int[] row, int[] way) {
+        long[] min = new long[v.length];
+        boolean[] used = new boolean[v.length];
+        Arrays.fill(min, Long.MAX_VALUE);
+        int column = 0;
+        do {
+            used[column] = true;
+            int i = row[column];
+            long delta = Long.MAX_VALUE;
+            int next = 0;
+            for (int j = 1; j < v.length; j++) {
+                if (used[j]) {
+                    continue;
+                }
+                long reduced = cost[i - 1][j - 1] - u[i] - v[j];
+                if (reduced < min[j]) {
+                    min[j] = reduced;
+                    way[j] = column;
+                }
+                if (min[j] < delta) {
+                    delta = min[j];
+                    next = j;
+                }
+            }
+            updatePotentials(u, v, row, used, min, delta);
+            column = next;
+        } while (row[column] != 0);
+        return column;
+    }
+
+    private static void updatePotentials(long[] u, long[] v, int[] row, boolean[] used, long[] min, long delta) {
+        for (int j = 0; j < v.length; j++) {
+            if (used[j]) {
+                u[row[j]] += delta;
+                v[j] -= delta;
+            } else {
+                min[j] -= delta;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package magicthegathering.ai;
+
+import magicthegathering.game.CardView;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Player;
+
+/**
+ * Helper methods for choosing creatures, shared by the strategies.
+ *
+ * @author Marek Sabo
+ */
+final class Creatures {
+
+    private Creatures() {
+    }
+
+    /**
+     * Get player's creatures on the table which are able to attack.
+     *
+     * @param player player
+     * @return untapped creatures on the table without summoning sickness
+     */
+    static CreatureCard[] ready(Player player) {
+        CardView<CreatureCard> creatures = player.getCreaturesOnTableView();
+        int count = 0;
+        for (CreatureCard creature : creatures) {
+            if (isReady(creature)) {
+                count++;
+            }
+        }
+        CreatureCard[] ready = new CreatureCard[count];
+        int i = 0;
+        for (CreatureCard creature : creatures) {
+            if (isReady(creature)) {
+                ready[i++] = creature;
+            }
+        }
+        return ready;
+    }
+
+    private static boolean isReady(CreatureCard creature) {
+        return !creature.isTapped() && !creature.hasSummoningSickness();
+    }
+
+    /**
+     * Get player's creatures on the table which are able to block.
+     *
+     * @param player player
+     * @return untapped creatures on the table
+     */
+    static CreatureCard[] untapped(Player player) {
+        CardView<CreatureCard> creatures = player.getCreaturesOnTableView();
+        int count = 0;
+        for (CreatureCard creature : creatures) {
+            if (!creature.isTapped()) {
+                count++;
+            }
+        }
+        CreatureCard[] untapped = new CreatureCard[count];
+        int i = 0;
+        for (CreatureCard creature : creatures) {
+            if (!creature.isTapped()) {
+                untapped[i++] = creature;
+            }
+        }
+        return untapped;
+    }
+
+    /**
+     * Check whether the blocker survives the block.
+     * Attacker destroys the blocker first, the blocker can destroy attacker only if it survives.
+     *
+     * @param attacker attacking creature
+     * @param blocker blocking creature
+     * @return true if the blocker survives the block
+     */
+    static boolean blockerSurvives(CreatureCard attacker, CreatureCard blocker) {
+        return attacker.getPower() < blocker.getToughness() || attacker.getPower() == 0;
+    }
+
+    /**
+     * Check whether the blocker destroys the attacker.
+     *
+     * @param attacker attacking creature
+     * @param blocker blocking creature
+     * @return true if the attacker is destroyed by the block
+     */
+    static boolean attackerDies(CreatureCard attacker, CreatureCard blocker) {
+        return blockerSurvives(attacker, blocker)
+                && blocker.getPower() >= attacker.getToughness() && blocker.getPower() != 0;
+    }
+
+}
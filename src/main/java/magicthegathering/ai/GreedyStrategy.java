@@ -0,0 +1,63 @@
+package magicthegathering.ai;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
+
+/**
+ * Simple deterministic strategy. It puts on the table the land most needed by creatures in hand,
+ * buys creatures of the highest total power and toughness it can pay, attacks with everything
+ * and blocks to destroy most attackers without losing creatures, unless the attack would kill the player,
+ * see {@link BlockingSolver}. Cards in hand are read into reused buffers, so the strategy is not thread-safe.
+ *
+ * @author Marek Sabo
+ */
+public class GreedyStrategy implements Strategy {
+
+    private CreatureCard[] creatures = new CreatureCard[Game.CREATURE_COUNT];
+    private LandCard[] lands = new LandCard[Game.LAND_COUNT];
+
+    @Override
+    public LandCard chooseLand(Game game) {
+        Player player = game.getCurrentPlayer();
+        int creatureCount = player.getCreaturesInHand(creatures);
+        if (creatureCount > creatures.length) {
+            creatures = player.getCreaturesInHand();
+        }
+        int landCount = player.getLandsInHand(lands);
+        if (landCount > lands.length) {
+            lands = player.getLandsInHand();
+        }
+        LandCard best = null;
+        int bestDemand = -1;
+        for (int i = 0; i < landCount; i++) {
+            int demand = 0;
+            for (int j = 0; j < creatureCount; j++) {
+                demand += creatures[j].getSpecialCost(lands[i].getManaType());
+            }
+            if (demand > bestDemand) {
+                best = lands[i];
+                bestDemand = demand;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public CreatureCard[] chooseCreatures(Game game) {
+        return game.getCurrentPlayer().planCreaturePurchase(CreatureCard::getTotalCost);
+    }
+
+    @Override
+    public CreatureCard[] chooseAttackers(Game game) {
+        return Creatures.ready(game.getCurrentPlayer());
+    }
+
+    @Override
+    public CreatureCard[] chooseBlockers(Game game, CreatureCard[] attackingCreatures) {
+        return BlockingSolver.solve(game, attackingCreatures, BlockingSolver.Objective.MAX_TRADES);
+    }
+
+}
@@ -0,0 +1,582 @@
+package magicthegathering.ai;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.GameSnapshot;
+import magicthegathering.game.Generator;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.ManaType;
+import magicthegathering.game.PackedMana;
+import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
+import magicthegathering.simulation.GameRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Strategy making decisions by Monte Carlo tree search. The tree spans the decisions of both players,
+ * so the blocks of the opponent answering an attack and the decisions of the following turns are nodes
+ * below the candidate moves. The candidate moves of a decision are lands of distinct mana types, maximal
+ * affordable sets of creatures, subsets of attackers and assignments of blockers. Every iteration descends
+ * the tree choosing the moves by UCB1 of the deciding player, adds the first position which is not in the tree
+ * and plays the rest of the game by random decisions; the result updates the statistics of all the positions
+ * on the way. Iterations run until the time or iteration budget is spent.
+ * Playouts are played on the {@link Game#getPlayoutGame() playout game} of the given game, its snapshot
+ * is restored after every iteration.
+ * <p>
+ * Nodes are keyed by the Zobrist hash of the position salted by the decision, since the hash does not contain
+ * the phase of the turn, so a position reached by different orders of moves is one node. The statistics of
+ * the positions, the visits and the mean reward of the player on turn, are kept in a {@link TranspositionTable},
+ * the candidates of the nodes are kept by the strategy. Both stay for the later decisions, so a decision starts
+ * from the subtree searched by the previous decisions of the turn. The hash identifies cards by their slots,
+ * so the strategy and its table are meant for one game. The most visited candidate is chosen, the first
+ * candidate is the choice of {@link GreedyStrategy}, so it is chosen when the budget does not allow any
+ * iteration and the table knows none of the candidates.
+ *
+ * @author Marek Sabo
+ */
+public class MctsStrategy implements Strategy {
+
+    /**
+     * Default time budget of one decision in milliseconds.
+     */
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+
+    /**
+     * Default maximal number of playouts of one decision.
+     */
+    public static final int DEFAULT_MAX_PLAYOUTS = 10_000;
+
+    private static final int PLAYOUT_TURNS = 40;
+    private static final int MAX_PATH = 4 * PLAYOUT_TURNS;
+    private static final int MAX_CANDIDATES = 64;
+    private static final int MAX_ALL_SUBSETS = Integer.numberOfTrailingZeros(MAX_CANDIDATES);
+    private static final int MAX_ENUMERATED = 12;
+    private static final int MAX_NODES = 1 << 13;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int TABLE_CAPACITY = 1 << 14;
+    private static final int VALUE_SCALE = 1 << 20;
+
+    /**
+     * Decisions of the turn in the order they are made, null stands for the end of the game.
+     */
+    private enum Decision {
+        LAND, CREATURES, ATTACK, BLOCK;
+
+        private final long salt = Generator.deriveSeed(0xDEC1DEL, ordinal());
+    }
+
+    private static final long END = Generator.deriveSeed(0xDEC1DEL, Decision.values().length);
+
+    private final GreedyStrategy greedy = new GreedyStrategy();
+    private final SplittableRandom random;
+    private final long budgetNanos;
+    private final int maxPlayouts;
+    private final TranspositionTable table;
+    private final Map<Long, Node> tree = new HashMap<>();
+    private final long[] pathKeys = new long[MAX_PATH];
+    private final Player[] pathOwners = new Player[MAX_PATH];
+    private int pathLength;
+    // attackers of the block which is decided next
+    private CreatureCard[] attacking;
+
+    /**
+     * Constructor. Create strategy with the default budget.
+     *
+     * @param seed seed of the playouts
+     */
+    public MctsStrategy(long seed) {
+        this(seed, DEFAULT_BUDGET_MILLIS, DEFAULT_MAX_PLAYOUTS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param seed         seed of the playouts
+     * @param budgetMillis time budget of one decision in milliseconds
+     * @param maxPlayouts  maximal number of playouts of one decision
+     */
+    public MctsStrategy(long seed, long budgetMillis, int maxPlayouts) {
+        this(seed, budgetMillis, maxPlayouts, new TranspositionTable(TABLE_CAPACITY));
+    }
+
+    /**
+     * Constructor. Create strategy sharing the statistics of the positions with other strategies
+     * searching the same game, for example with the strategy of the opponent.
+     *
+     * @param seed         seed of the playouts
+     * @param budgetMillis time budget of one decision in milliseconds
+     * @param maxPlayouts  maximal number of playouts of one decision
+     * @param table        statistics of the positions of the game
+     */
+    public MctsStrategy(long seed, long budgetMillis, int maxPlayouts, TranspositionTable table) {
+        if (budgetMillis <= 0 || maxPlayouts <= 0) {
+            throw new IllegalArgumentException("Budget must be positive");
+        }
+        this.random = new SplittableRandom(seed);
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.maxPlayouts = maxPlayouts;
+        this.table = table;
+    }
+
+    /**
+     * Get number of the positions kept in the tree for the later decisions.
+     *
+     * @return number of the nodes of the tree
+     */
+    int getTreeSize() {
+        return tree.size();
+    }
+
+    @Override
+    public LandCard chooseLand(Game game) {
+        return (LandCard) search(game.getPlayoutGame(), Decision.LAND, null);
+    }
+
+    @Override
+    public CreatureCard[] chooseCreatures(Game game) {
+        return (CreatureCard[]) search(game.getPlayoutGame(), Decision.CREATURES, null);
+    }
+
+    @Override
+    public CreatureCard[] chooseAttackers(Game game) {
+        // candidates are subsets of the ready creatures, so the attack is never skipped as invalid
+        return (CreatureCard[]) search(game.getPlayoutGame(), Decision.ATTACK, null);
+    }
+
+    @Override
+    public CreatureCard[] chooseBlockers(Game game, CreatureCard[] attackingCreatures) {
+        return (CreatureCard[]) search(game.getPlayoutGame(), Decision.BLOCK, attackingCreatures);
+    }
+
+    /**
+     * Search the tree below the position of the decision. The node of the position is taken from the tree
+     * if an earlier search added it, the tree is cleared when it is full, the table keeps the statistics.
+     *
+     * @param game      game in the position of the decision
+     * @param decision  decision made in the position
+     * @param attackers attacking creatures if the decision is the block
+     * @return the most visited candidate
+     */
+    private Object search(Game game, Decision decision, CreatureCard[] attackers) {
+        if (tree.size() >= MAX_NODES) {
+            tree.clear();
+        }
+        attacking = attackers;
+        Node root = root(game, decision);
+        if (root.moves.size() > 1) {
+            long deadline = System.nanoTime() + budgetNanos;
+            Strategy playout = new RandomStrategy(random.nextLong());
+            GameSnapshot start = game.snapshot();
+            for (int playouts = 0; playouts < maxPlayouts && System.nanoTime() - deadline < 0; playouts++) {
+                try {
+                    iterate(game, root, playout);
+                } finally {
+                    game.restore(start);
+                    attacking = attackers;
+                }
+            }
+        }
+        Object best = root.moves.get(root.mostVisited(table));
+        return decision == Decision.BLOCK ? align((CreatureCard[]) best, root.attacking, attackers) : best;
+    }
+
+    private Node root(Game game, Decision decision) {
+        long key = key(game, decision);
+        Node root = tree.get(key);
+        // the node of the block is valid for the same attackers only
+        if (root == null || decision == Decision.BLOCK && !isPermutation(root.attacking, attacking)) {
+            root = expand(game, decision);
+            tree.put(key, root);
+        }
+        return root;
+    }
+
+    /**
+     * One iteration of the search: select the candidates from the root down the tree, add the first position
+     * out of the tree, play the rest of the game out and update the statistics of the positions on the path.
+     */
+    private void iterate(Game game, Node root, Strategy playout) {
+        pathLength = 0;
+        Node node = root;
+        while (node != null && pathLength < MAX_PATH) {
+            int i = node.select(table);
+            if (node.decision == Decision.BLOCK) {
+                attacking = node.attacking;
+            }
+            Decision next = play(game, node.decision, node.moves.get(i));
+            pathKeys[pathLength] = node.keys[i];
+            pathOwners[pathLength++] = game.getCurrentPlayer();
+            if (next == null) {
+                break;
+            }
+            node = tree.get(node.keys[i]);
+            if (node == null) {
+                if (tree.size() < MAX_NODES) {
+                    tree.put(pathKeys[pathLength - 1], expand(game, next));
+                }
+                rollout(game, next, playout);
+            }
+        }
+        backpropagate(game);
+    }
+
+    /**
+     * Create the node of the position, the positions after its candidates are hashed one by one.
+     */
+    private Node expand(Game game, Decision decision) {
+        Node node = new Node(decision, candidates(game, decision), decision == Decision.BLOCK ? attacking : null);
+        Player decider = decision == Decision.BLOCK ? game.getSecondPlayer() : game.getCurrentPlayer();
+        CreatureCard[] attackers = attacking;
+        GameSnapshot position = game.snapshot();
+        for (int i = 0; i < node.keys.length; i++) {
+            try {
+                Decision next = play(game, decision, node.moves.get(i));
+                node.keys[i] = key(game, next);
+                node.sameSide[i] = game.getCurrentPlayer() == decider;
+            } finally {
+                game.restore(position);
+                attacking = attackers;
+            }
+        }
+        return node;
+    }
+
+    private List<Object> candidates(Game game, Decision decision) {
+        switch (decision) {
+            case LAND:
+                return new ArrayList<>(lands(game));
+            case CREATURES:
+                return new ArrayList<>(affordableSets(game));
+            case ATTACK:
+                return new ArrayList<>(subsets(Creatures.ready(game.getCurrentPlayer())));
+            default:
+                return new ArrayList<>(assignments(game, attacking));
+        }
+    }
+
+    /**
+     * Play the rest of the game by random decisions, at most {@link #PLAYOUT_TURNS} turns.
+     */
+    private void rollout(Game game, Decision decision, Strategy playout) {
+        Decision next = decision;
+        int turns = 0;
+        while (next != null && turns < PLAYOUT_TURNS) {
+            next = play(game, next, randomMove(game, next, playout));
+            if (next == Decision.LAND) {
+                turns++;
+            }
+        }
+    }
+
+    private Object randomMove(Game game, Decision decision, Strategy playout) {
+        switch (decision) {
+            case LAND:
+                return playout.chooseLand(game);
+            case CREATURES:
+                return playout.chooseCreatures(game);
+            case ATTACK:
+                return playout.chooseAttackers(game);
+            default:
+                return playout.chooseBlockers(game, attacking);
+        }
+    }
+
+    /**
+     * Play the move of the decision and the steps of the game following it up to the next decision.
+     *
+     * @return the next decision, null if the game is over
+     */
+    private Decision play(Game game, Decision decision, Object move) {
+        switch (decision) {
+            case LAND:
+                GameRunner.putLandOnTable(game, (LandCard) move);
+                return Decision.CREATURES;
+            case CREATURES:
+                GameRunner.buyCreatures(game, (CreatureCard[]) move);
+                return Decision.ATTACK;
+            case ATTACK:
+                attacking = GameRunner.attack(game, (CreatureCard[]) move);
+                return attacking.length == 0 ? endTurn(game) : Decision.BLOCK;
+            default:
+                GameRunner.block(game, attacking, (CreatureCard[]) move);
+                return endTurn(game);
+        }
+    }
+
+    private static Decision endTurn(Game game) {
+        if (game.getCurrentPlayer().isDead() || game.getSecondPlayer().isDead()) {
+            return null;
+        }
+        game.changePlayer();
+        game.prepareCurrentPlayerForTurn();
+        return Decision.LAND;
+    }
+
+    /**
+     * Add the reward of the iteration to the mean rewards of the positions on the path, every position
+     * keeps the reward of the player on turn in it.
+     */
+    private void backpropagate(Game game) {
+        Player current = game.getCurrentPlayer();
+        Player second = game.getSecondPlayer();
+        for (int i = 0; i < pathLength; i++) {
+            double reward = pathOwners[i] == current ? reward(current, second) : reward(second, current);
+            long entry = table.probe(pathKeys[i]);
+            double mean = (double) TranspositionTable.value(entry) / VALUE_SCALE;
+            int visits = Math.min(TranspositionTable.depth(entry) + 1, TranspositionTable.MAX_DEPTH);
+            table.store(pathKeys[i], visits, (int) Math.round((mean + (reward - mean) / visits) * VALUE_SCALE));
+        }
+    }
+
+    private static long key(Game game, Decision decision) {
+        return game.getZobristHash() ^ (decision == null ? END : decision.salt);
+    }
+
+    /**
+     * Reward of the finished playout, 1 for win, 0 for loss, unfinished game is scored by the difference of lives.
+     */
+    private static double reward(Player me, Player opponent) {
+        if (me.isDead()) {
+            return 0;
+        }
+        if (opponent.isDead()) {
+            return 1;
+        }
+        double reward = 0.5 + (me.getLife() - opponent.getLife()) / (2.0 * Player.INIT_LIVES);
+        return Math.max(0, Math.min(1, reward));
+    }
+
+    private static boolean isPermutation(CreatureCard[] cards, CreatureCard[] other) {
+        return cards.length == other.length && align(cards, cards, other) != null;
+    }
+
+    /**
+     * Reorder the blockers of the attackers to the other order of the same attackers.
+     *
+     * @return blockers in the order of the other attackers, null if the attackers differ
+     */
+    private static CreatureCard[] align(CreatureCard[] blocking, CreatureCard[] attackers, CreatureCard[] other) {
+        CreatureCard[] aligned = new CreatureCard[other.length];
+        for (int i = 0; i < other.length; i++) {
+            int j = 0;
+            while (j < attackers.length && attackers[j] != other[i]) {
+                j++;
+            }
+            if (j == attackers.length) {
+                return null;
+            }
+            aligned[i] = blocking[j];
+        }
+        return aligned;
+    }
+
+    /**
+     * Find lands of distinct mana types in hand, the first one is chosen by {@link GreedyStrategy}.
+     * The only candidate is null, skipping the action, if there is no land in hand.
+     */
+    private List<LandCard> lands(Game game) {
+        LandCard best = greedy.chooseLand(game);
+        if (best == null) {
+            return Collections.singletonList(null);
+        }
+        List<LandCard> candidates = new ArrayList<>();
+        candidates.add(best);
+        boolean[] seen = new boolean[ManaType.values().length];
+        seen[best.getManaType().ordinal()] = true;
+        for (LandCard land : game.getCurrentPlayer().getLandsInHandView()) {
+            if (!seen[land.getManaType().ordinal()]) {
+                seen[land.getManaType().ordinal()] = true;
+                candidates.add(land);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Find sets of creatures in hand which can be paid together and cannot be extended by another creature.
+     * Creatures of every set are ordered from the most expensive, the set of the highest total cost is the first.
+     * Only the {@link #MAX_ENUMERATED} most expensive creatures are considered.
+     */
+    private List<CreatureCard[]> affordableSets(Game game) {
+        CreatureCard[] creatures = game.getCurrentPlayer().getCreaturesInHand();
+        Arrays.sort(creatures, Comparator.comparingInt(CreatureCard::getTotalCost).reversed());
+        int count = Math.min(creatures.length, MAX_ENUMERATED);
+        long mana = game.getCurrentPlayer().calculateUntappedMana();
+        List<CreatureCard[]> candidates = new ArrayList<>();
+        for (int set = (1 << count) - 1; set >= 0; set--) {
+            long cost = cost(creatures, set);
+            if (PackedMana.covers(mana, cost) && isMaximal(creatures, count, set, cost, mana)) {
+                candidates.add(select(creatures, set));
+            }
+        }
+        candidates.sort(Comparator.comparingInt(MctsStrategy::totalCost).reversed());
+        return candidates.subList(0, Math.min(candidates.size(), MAX_CANDIDATES));
+    }
+
+    private static boolean isMaximal(CreatureCard[] creatures, int count, int set, long cost, long mana) {
+        for (int i = 0; i < count; i++) {
+            if ((set & 1 << i) == 0 && PackedMana.covers(mana, cost + creatures[i].getPackedCost())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long cost(CreatureCard[] creatures, int set) {
+        long cost = PackedMana.EMPTY;
+        for (int rest = set; rest != 0; rest &= rest - 1) {
+            cost += creatures[Integer.numberOfTrailingZeros(rest)].getPackedCost();
+        }
+        return cost;
+    }
+
+    private static CreatureCard[] select(CreatureCard[] creatures, int set) {
+        CreatureCard[] selected = new CreatureCard[Integer.bitCount(set)];
+        int i = 0;
+        for (int rest = set; rest != 0; rest &= rest - 1) {
+            selected[i++] = creatures[Integer.numberOfTrailingZeros(rest)];
+        }
+        return selected;
+    }
+
+    private static int totalCost(CreatureCard[] creatures) {
+        return Arrays.stream(creatures).mapToInt(CreatureCard::getTotalCost).sum();
+    }
+
+    /**
+     * Find subsets of the creatures, all of them if there are at most {@link #MAX_CANDIDATES},
+     * that is at most {@link #MAX_ALL_SUBSETS} creatures, random ones otherwise.
+     * The first subset contains all the creatures.
+     */
+    private List<CreatureCard[]> subsets(CreatureCard[] creatures) {
+        List<CreatureCard[]> candidates = new ArrayList<>();
+        if (creatures.length <= MAX_ALL_SUBSETS) {
+            for (int set = (1 << creatures.length) - 1; set >= 0; set--) {
+                candidates.add(select(creatures, set));
+            }
+            return candidates;
+        }
+        Set<List<CreatureCard>> seen = new HashSet<>();
+        candidates.add(creatures);
+        candidates.add(new CreatureCard[0]);
+        for (int attempt = 0; attempt < MAX_CANDIDATES * 4 && candidates.size() < MAX_CANDIDATES; attempt++) {
+            CreatureCard[] subset = Arrays.stream(creatures).filter(c -> random.nextBoolean())
+                    .toArray(CreatureCard[]::new);
+            if (seen.add(Arrays.asList(subset)) && subset.length != 0 && subset.length != creatures.length) {
+                candidates.add(subset);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Find assignments of the untapped creatures of the second player to the attackers.
+     * The first ones are the best blocks of the {@link BlockingSolver} objectives and no block, the rest are random.
+     */
+    private List<CreatureCard[]> assignments(Game game, CreatureCard[] attacking) {
+        CreatureCard[] untapped = Creatures.untapped(game.getSecondPlayer());
+        List<CreatureCard[]> candidates = new ArrayList<>();
+        Set<List<CreatureCard>> seen = new HashSet<>();
+        for (CreatureCard[] blocking : Arrays.asList(greedy.chooseBlockers(game, attacking),
+                BlockingSolver.solve(game, attacking, BlockingSolver.Objective.MIN_LIFE_LOST),
+                new CreatureCard[attacking.length])) {
+            if (seen.add(Arrays.asList(blocking))) {
+                candidates.add(blocking);
+            }
+        }
+        for (int attempt = 0; attempt < MAX_CANDIDATES * 4 && candidates.size() < MAX_CANDIDATES; attempt++) {
+            CreatureCard[] blocking = randomAssignment(attacking.length, untapped);
+            if (seen.add(Arrays.asList(blocking))) {
+                candidates.add(blocking);
+            }
+        }
+        return candidates;
+    }
+
+    private CreatureCard[] randomAssignment(int attackers, CreatureCard[] untapped) {
+        CreatureCard[] blocking = new CreatureCard[attackers];
+        boolean[] used = new boolean[untapped.length];
+        for (int i = 0; i < attackers; i++) {
+            int j = random.nextInt(untapped.length + 1) - 1;
+            if (j >= 0 && !used[j]) {
+                used[j] = true;
+                blocking[i] = untapped[j];
+            }
+        }
+        return blocking;
+    }
+
+    /**
+     * Class Node keeps the candidates of the decision made in one position and the keys of the positions
+     * after them, under which their statistics are stored in the table.
+     */
+    private static final class Node {
+
+        private final Decision decision;
+        private final List<Object> moves;
+        private final CreatureCard[] attacking;
+        private final long[] keys;
+        // true if the deciding player is on turn after the candidate, so the table keeps the rewards of the decider
+        private final boolean[] sameSide;
+
+        Node(Decision decision, List<Object> moves, CreatureCard[] attacking) {
+            this.decision = decision;
+            this.moves = moves;
+            this.attacking = attacking;
+            this.keys = new long[moves.size()];
+            this.sameSide = new boolean[moves.size()];
+        }
+
+        private int visits(TranspositionTable table, int candidate) {
+            return TranspositionTable.depth(table.probe(keys[candidate]));
+        }
+
+        /**
+         * Select the candidate by UCB1 of the deciding player, unvisited candidates first.
+         */
+        int select(TranspositionTable table) {
+            int total = 0;
+            for (int i = 0; i < keys.length; i++) {
+                int visits = visits(table, i);
+                if (visits == 0) {
+                    return i;
+                }
+                total += visits;
+            }
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < keys.length; i++) {
+                long entry = table.probe(keys[i]);
+                double mean = (double) TranspositionTable.value(entry) / VALUE_SCALE;
+                double score = (sameSide[i] ? mean : 1 - mean)
+                        + EXPLORATION * Math.sqrt(Math.log(total) / TranspositionTable.depth(entry));
+                if (score > bestScore) {
+                    best = i;
+                    bestScore = score;
+                }
+            }
+            return best;
+        }
+
+        int mostVisited(TranspositionTable table) {
+            int best = 0;
+            for (int i = 1; i < keys.length; i++) {
+                if (visits(table, i) > visits(table, best)) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package magicthegathering.ai;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.Strategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Strategy making random legal decisions.
+ *
+ * @author Marek Sabo
+ */
+public class RandomStrategy implements Strategy {
+
+    private final SplittableRandom random;
+
+    /**
+     * Constructor.
+     *
+     * @param seed seed of the random decisions
+     */
+    public RandomStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public LandCard chooseLand(Game game) {
+        LandCard[] lands = game.getCurrentPlayer().getLandsInHand();
+        return lands.length == 0 ? null : lands[random.nextInt(lands.length)];
+    }
+
+    @Override
+    public CreatureCard[] chooseCreatures(Game game) {
+        return randomSubset(game.getCurrentPlayer().getCreaturesInHand());
+    }
+
+    @Override
+    public CreatureCard[] chooseAttackers(Game game) {
+        return randomSubset(Creatures.ready(game.getCurrentPlayer()));
+    }
+
+    @Override
+    public CreatureCard[] chooseBlockers(Game game, CreatureCard[] attackingCreatures) {
+        CreatureCard[] untapped = Creatures.untapped(game.getSecondPlayer());
+        shuffle(untapped);
+        CreatureCard[] blocking = new CreatureCard[attackingCreatures.length];
+        int used = 0;
+        for (int i = 0; i < blocking.length && used < untapped.length; i++) {
+            if (random.nextBoolean()) {
+                blocking[i] = untapped[used++];
+            }
+        }
+        return blocking;
+    }
+
+    private CreatureCard[] randomSubset(CreatureCard[] creatures) {
+        return Arrays.stream(creatures).filter(c -> random.nextBoolean()).toArray(CreatureCard[]::new);
+    }
+
+    private void shuffle(CreatureCard[] creatures) {
+        for (int i = creatures.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            CreatureCard creature = creatures[i];
+            creatures[i] = creatures[j];
+            creatures[j] = creature;
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package magicthegathering.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size table of values of searched positions keyed by {@link magicthegathering.game.Game#getZobristHash()},
+ * shared by search threads without locks. Every entry is a pair of longs: the data (value and depth of the search)
+ * and the hash xor the data. Entry written by two threads at once can be torn, but then the xor does not match
+ * the hash and the entry is missed, so a probe never returns value of another position. Position replaces
+ * the entry of another position only if it was searched at least as deep.
+ *
+ * @author Marek Sabo
+ */
+public final class TranspositionTable {
+
+    /**
+     * Result of the probe of a position which is not in the table.
+     */
+    public static final long MISS = 0;
+
+    /**
+     * Maximal depth of the search.
+     */
+    public static final int MAX_DEPTH = 0xFFFF;
+
+    private static final long VALID = 1L << 48;
+    private static final int DEPTH_SHIFT = 32;
+
+    private final AtomicLongArray entries;
+    private final int mask;
+
+    /**
+     * Constructor. Create empty table.
+     *
+     * @param capacity minimal number of entries, it is rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive or larger than 2^29
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("Capacity must be from 1 to 2^29, was " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size == capacity ? size : size << 1;
+        this.entries = new AtomicLongArray(2 * size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Get number of entries.
+     *
+     * @return capacity of the table
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Find the entry of the position.
+     *
+     * @param hash hash of the position
+     * @return entry to be read by {@link #value(long)} and {@link #depth(long)}, {@link #MISS} if not found
+     */
+    public long probe(long hash) {
+        int index = 2 * ((int) hash & mask);
+        long data = entries.get(index + 1);
+        if (data == MISS || (entries.get(index) ^ data) != hash) {
+            return MISS;
+        }
+        return data;
+    }
+
+    /**
+     * Store value of the position unless the table keeps a deeper search of another position.
+     *
+     * @param hash  hash of the position
+     * @param depth depth of the search, from 0 to {@link #MAX_DEPTH}
+     * @param value value of the position
+     * @return true if the entry was written
+     * @throws IllegalArgumentException if the depth is out of range
+     */
+    public boolean store(long hash, int depth, int value) {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be from 0 to " + MAX_DEPTH + ", was " + depth);
+        }
+        int index = 2 * ((int) hash & mask);
+        long old = entries.get(index + 1);
+        if (old != MISS && (entries.get(index) ^ old) != hash && depth(old) > depth) {
+            return false;
+        }
+        long data = VALID | (long) depth << DEPTH_SHIFT | value & 0xFFFFFFFFL;
+        entries.set(index, hash ^ data);
+        entries.set(index + 1, data);
+        return true;
+    }
+
+    /**
+     * Remove all the entries. Concurrent stores may survive.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, MISS);
+        }
+    }
+
+    /**
+     * Get value of the found entry.
+     *
+     * @param entry entry returned by {@link #probe(long)}
+     * @return stored value
+     */
+    public static int value(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Get depth of the search of the found entry.
+     *
+     * @param entry entry returned by {@link #probe(long)}
+     * @return stored depth
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+}
@@ -9,30 +9,193 @@ public abstract class AbstractCard implements Card {
 
     private boolean tapped = false;
     private boolean isOnTable = false;
+    private CardListener listener;
+    private CardStates states;
+    private int slot;
+    private CardRegistry registry;
+    private int registryId = CardRegistry.NONE;
+
+    /**
+     * Set listener which is notified about changes of the card state.
+     *
+     * @param listener listener, null stops the notifications
+     */
+    public void setListener(CardListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Get listener which is notified about changes of the card state.
+     *
+     * @return listener or null
+     */
+    public CardListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Remember id of the card given by the registry.
+     *
+     * @param registry registry of the cards of the game
+     * @param id id of the card in the registry
+     */
+    public void setRegistryId(CardRegistry registry, int id) {
+        this.registry = registry;
+        this.registryId = id;
+    }
+
+    /**
+     * Get registry which registered the card last.
+     *
+     * @return registry or null
+     */
+    public CardRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Get id of the card in the registry, see {@link #getRegistry()}.
+     *
+     * @return id, {@link CardRegistry#NONE} if the card was not registered
+     */
+    public int getRegistryId() {
+        return registryId;
+    }
+
+    /**
+     * Keep the state of the card in given packed states instead of the card itself.
+     * Current state of the card is copied into the slot.
+     *
+     * @param states packed states
+     * @param slot slot of the card, lower than {@link CardStates#CAPACITY}
+     */
+    public void bindStates(CardStates states, int slot) {
+        boolean wasTapped = isTapped();
+        boolean wasOnTable = isOnTable();
+        this.states = states;
+        this.slot = slot;
+        states.clear(CardStates.bit(slot));
+        if (wasTapped) {
+            states.tap(CardStates.bit(slot));
+        }
+        if (wasOnTable) {
+            states.putOnTable(CardStates.bit(slot));
+        }
+    }
+
+    /**
+     * Keep the state of the card in the card itself again.
+     * Current state from the packed states is copied into the card.
+     */
+    public void unbindStates() {
+        if (states == null) {
+            return;
+        }
+        this.tapped = isTapped();
+        this.isOnTable = isOnTable();
+        this.states = null;
+    }
+
+    /**
+     * Get packed states holding the state of this card.
+     *
+     * @return packed states, null if the card holds its state itself
+     */
+    public CardStates getStates() {
+        return states;
+    }
+
+    /**
+     * Remember position of the card among the cards of its player, so the player need not look it up.
+     * The packed states use the slot too, see {@link #bindStates(CardStates, int)}.
+     *
+     * @param slot position of the card among the initial cards of the player
+     */
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Get position of the card among the cards of its player, it is also the slot in the packed states.
+     *
+     * @return slot set by {@link #setSlot(int)} or {@link #bindStates(CardStates, int)}
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Set the state of the card back to the saved one, used when the saved state of the player is restored.
+     * Unlike {@link #putOnTable()} the card can return to the hand, the listener is not notified.
+     *
+     * @param onTable true if the card is on the table
+     * @param tapped true if the card is tapped
+     */
+    public void restoreState(boolean onTable, boolean tapped) {
+        if (states == null) {
+            this.isOnTable = onTable;
+            this.tapped = tapped;
+            return;
+        }
+        long bit = CardStates.bit(slot);
+        states.restore(onTable ? states.getOnTable() | bit : states.getOnTable() & ~bit,
+                tapped ? states.getTapped() | bit : states.getTapped() & ~bit,
+                states.getSummoningSickness());
+    }
 
     @Override
     public void tap() {
-        this.tapped = true;
+        if (isTapped()) {
+            return;
+        }
+        if (states != null) {
+            states.tap(CardStates.bit(slot));
+        } else {
+            this.tapped = true;
+        }
+        if (listener != null) {
+            listener.cardTapped(this);
+        }
     }
 
     @Override
     public void untap() {
-        this.tapped = false;
+        if (!isTapped()) {
+            return;
+        }
+        if (states != null) {
+            states.untap(CardStates.bit(slot));
+        } else {
+            this.tapped = false;
+        }
+        if (listener != null) {
+            listener.cardUntapped(this);
+        }
     }
 
     @Override
     public boolean isTapped() {
-        return this.tapped;
+        return states != null ? (states.getTapped() & CardStates.bit(slot)) != 0 : this.tapped;
     }
 
     @Override
     public boolean isOnTable() {
-        return this.isOnTable;
+        return states != null ? (states.getOnTable() & CardStates.bit(slot)) != 0 : this.isOnTable;
     }
 
     @Override
     public void putOnTable() {
-        this.isOnTable = true;
+        if (isOnTable()) {
+            return;
+        }
+        if (states != null) {
+            states.putOnTable(CardStates.bit(slot));
+        } else {
+            this.isOnTable = true;
+        }
+        if (listener != null) {
+            listener.cardPutOnTable(this);
+        }
     }
 
 }
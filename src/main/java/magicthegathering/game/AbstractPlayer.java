@@ -0,0 +1,85 @@
+package magicthegathering.game;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Abstract player implementing common player methods.
+ *
+ * @author Marek Sabo
+ */
+public abstract class AbstractPlayer implements Player {
+
+    private final String name;
+    private int lives;
+    private int deals;
+
+    /**
+     * Constructor. Create new player with {@link Player#INIT_LIVES} lives.
+     *
+     * @param name name of the player
+     */
+    protected AbstractPlayer(String name) {
+        this.name = name;
+        this.lives = INIT_LIVES;
+    }
+
+    @Override
+    public String toString() {
+        return getName() + "(" + getLife() + ")";
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getLife() {
+        return lives;
+    }
+
+    @Override
+    public void subtractLives(int lives) {
+        this.lives = getLife() - lives;
+    }
+
+    @Override
+    public boolean isDead() {
+        return getLife() <= 0;
+    }
+
+    @Override
+    public int getDeals() {
+        return deals;
+    }
+
+    /**
+     * Count the deal of the cards, called by {@link #initCards(Card[])}.
+     */
+    protected void dealt() {
+        deals++;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return getCardsZobristHash() ^ Zobrist.life(getLife());
+    }
+
+    /**
+     * Get {@link Zobrist} hash of the states of player's cards.
+     *
+     * @return xor of the keys of the flags of all the cards
+     */
+    protected abstract long getCardsZobristHash();
+
+    @Override
+    public int calculateUntappedLands(int[] buffer) {
+        return PackedMana.unpack(calculateUntappedMana(), buffer);
+    }
+
+    @Override
+    public CreatureCard[] planCreaturePurchase(ToIntFunction<? super CreatureCard> value) {
+        return PurchasePlanner.plan(calculateUntappedMana(), getCreaturesInHand(), value);
+    }
+
+}
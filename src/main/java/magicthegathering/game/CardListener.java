@@ -0,0 +1,38 @@
+package magicthegathering.game;
+
+/**
+ * Listener notified about changes of card state.
+ *
+ * @author Marek Sabo
+ */
+public interface CardListener {
+
+    /**
+     * Called after the card was put on the table.
+     *
+     * @param card card which was put on the table
+     */
+    void cardPutOnTable(Card card);
+
+    /**
+     * Called after the untapped card was tapped.
+     *
+     * @param card tapped card
+     */
+    void cardTapped(Card card);
+
+    /**
+     * Called after the tapped card was untapped.
+     *
+     * @param card untapped card
+     */
+    void cardUntapped(Card card);
+
+    /**
+     * Called after summoning sickness of the creature was set or unset.
+     *
+     * @param creature changed creature
+     */
+    void summoningSicknessChanged(CreatureCard creature);
+
+}
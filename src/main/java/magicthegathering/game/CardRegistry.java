@@ -0,0 +1,156 @@
+package magicthegathering.game;
+
+import java.util.Arrays;
+
+/**
+ * Registry giving every card of the game a dense id from 0 to {@link #size()} - 1.
+ * Card, its kind and its owner are found by the id in constant time, the id of the card
+ * is kept by the card itself, so all the cards must extend {@link AbstractCard}.
+ * Card belongs to one registry at a time, registering it again moves it to the new registry.
+ *
+ * @author Marek Sabo
+ */
+public final class CardRegistry {
+
+    /**
+     * Id of no card, for example of not blocked attacker.
+     */
+    public static final int NONE = -1;
+
+    private final Card[] cards;
+    private final Player[] owners;
+    private final boolean[] creatures;
+
+    /**
+     * Constructor. Register all the cards of the players, in hand and on the table.
+     * Cards of the first player get the lowest ids.
+     *
+     * @param first  first player
+     * @param second second player
+     * @throws IllegalArgumentException if a card does not extend {@link AbstractCard}
+     */
+    public CardRegistry(Player first, Player second) {
+        Card[][] parts = {first.getCardsInHand(), first.getCardsOnTable(),
+            second.getCardsInHand(), second.getCardsOnTable()};
+        int size = 0;
+        for (Card[] part : parts) {
+            size += part.length;
+        }
+        cards = new Card[size];
+        owners = new Player[size];
+        creatures = new boolean[size];
+
+        int id = 0;
+        for (int i = 0; i < parts.length; i++) {
+            for (Card card : parts[i]) {
+                register(card, id++, i < 2 ? first : second);
+            }
+        }
+    }
+
+    private void register(Card card, int id, Player owner) {
+        if (!(card instanceof AbstractCard)) {
+            throw new IllegalArgumentException("Card " + card + " does not extend AbstractCard");
+        }
+        ((AbstractCard) card).setRegistryId(this, id);
+        cards[id] = card;
+        owners[id] = owner;
+        creatures[id] = card instanceof CreatureCard;
+    }
+
+    /**
+     * Get number of registered cards.
+     *
+     * @return number of cards, ids are lower
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * Check whether the id belongs to a creature.
+     *
+     * @param id id of the card, can be out of range
+     * @return true if the id is valid and the card is a creature
+     */
+    public boolean isCreature(int id) {
+        return id >= 0 && id < cards.length && creatures[id];
+    }
+
+    /**
+     * Get card by its id.
+     *
+     * @param id id of the card
+     * @return card, null for {@link #NONE}
+     */
+    public Card getCard(int id) {
+        return id == NONE ? null : cards[id];
+    }
+
+    /**
+     * Get creature by its id.
+     *
+     * @param id id of the creature
+     * @return creature, null for {@link #NONE}
+     */
+    public CreatureCard getCreature(int id) {
+        return (CreatureCard) getCard(id);
+    }
+
+    /**
+     * Get owner of the card.
+     *
+     * @param id id of the card
+     * @return player who owned the card when it was registered
+     */
+    public Player getOwner(int id) {
+        return owners[id];
+    }
+
+    /**
+     * Get id of the card.
+     *
+     * @param card card, can be null
+     * @return id of the card, {@link #NONE} for null or a card of another registry
+     */
+    public int idOf(Card card) {
+        if (!(card instanceof AbstractCard) || ((AbstractCard) card).getRegistry() != this) {
+            return NONE;
+        }
+        return ((AbstractCard) card).getRegistryId();
+    }
+
+    /**
+     * Get ids of the cards.
+     *
+     * @param cards cards, can contain null
+     * @return new array of ids, see {@link #idOf(Card)}
+     */
+    public int[] idsOf(Card[] cards) {
+        int[] ids = new int[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            ids[i] = idOf(cards[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Get creatures by their ids.
+     *
+     * @param ids ids of the creatures, can contain {@link #NONE}
+     * @return new array of creatures, {@link #NONE} means null
+     */
+    public CreatureCard[] creaturesOf(int[] ids) {
+        CreatureCard[] result = new CreatureCard[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = getCreature(ids[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CardRegistry" + Arrays.toString(cards);
+    }
+
+}
@@ -0,0 +1,138 @@
+package magicthegathering.game;
+
+/**
+ * Tapped, on table and summoning sickness flags of up to {@link #CAPACITY} cards packed in bit masks.
+ * Every card bound to the states by {@link AbstractCard#bindStates(CardStates, int)} owns one bit (slot)
+ * in every mask, so the flags of many cards can be changed or queried by a single bitwise operation.
+ *
+ * @author Marek Sabo
+ */
+public final class CardStates {
+
+    /**
+     * Maximal number of cards.
+     */
+    public static final int CAPACITY = Long.SIZE;
+
+    private long onTable;
+    private long tapped;
+    private long summoningSickness;
+    private long zobristHash;
+
+    /**
+     * Get mask of cards on the table.
+     *
+     * @return bit mask of slots
+     */
+    public long getOnTable() {
+        return onTable;
+    }
+
+    /**
+     * Get mask of tapped cards.
+     *
+     * @return bit mask of slots
+     */
+    public long getTapped() {
+        return tapped;
+    }
+
+    /**
+     * Get mask of creatures with summoning sickness.
+     *
+     * @return bit mask of slots
+     */
+    public long getSummoningSickness() {
+        return summoningSickness;
+    }
+
+    /**
+     * Get xor of the {@link Zobrist} keys of all the set flags, it is updated by every change of the flags.
+     *
+     * @return Zobrist hash of the flags
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    /**
+     * Put cards on the table.
+     *
+     * @param mask bit mask of slots
+     */
+    public void putOnTable(long mask) {
+        restore(onTable | mask, tapped, summoningSickness);
+    }
+
+    /**
+     * Tap cards.
+     *
+     * @param mask bit mask of slots
+     */
+    public void tap(long mask) {
+        restore(onTable, tapped | mask, summoningSickness);
+    }
+
+    /**
+     * Untap cards.
+     *
+     * @param mask bit mask of slots
+     */
+    public void untap(long mask) {
+        restore(onTable, tapped & ~mask, summoningSickness);
+    }
+
+    /**
+     * Set summoning sickness of creatures.
+     *
+     * @param mask bit mask of slots
+     */
+    public void setSummoningSickness(long mask) {
+        restore(onTable, tapped, summoningSickness | mask);
+    }
+
+    /**
+     * Unset summoning sickness of creatures.
+     *
+     * @param mask bit mask of slots
+     */
+    public void unsetSummoningSickness(long mask) {
+        restore(onTable, tapped, summoningSickness & ~mask);
+    }
+
+    /**
+     * Clear all the flags of cards.
+     *
+     * @param mask bit mask of slots
+     */
+    public void clear(long mask) {
+        restore(onTable & ~mask, tapped & ~mask, summoningSickness & ~mask);
+    }
+
+    /**
+     * Set all the flags of cards at once.
+     *
+     * @param onTable bit mask of slots of cards on the table
+     * @param tapped bit mask of slots of tapped cards
+     * @param summoningSickness bit mask of slots of creatures with summoning sickness
+     */
+    public void restore(long onTable, long tapped, long summoningSickness) {
+        zobristHash ^= Zobrist.keys(this.onTable ^ onTable, Zobrist.ON_TABLE)
+                ^ Zobrist.keys(this.tapped ^ tapped, Zobrist.TAPPED)
+                ^ Zobrist.keys(this.summoningSickness ^ summoningSickness, Zobrist.SUMMONING_SICKNESS);
+        this.onTable = onTable;
+        this.tapped = tapped;
+        this.summoningSickness = summoningSickness;
+    }
+
+    /**
+     * Get bit mask of one slot.
+     *
+     * @param slot slot of the card
+     * @return bit mask with one bit set
+     */
+    public static long bit(int slot) {
+        return 1L << slot;
+    }
+
+}
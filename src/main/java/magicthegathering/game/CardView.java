@@ -0,0 +1,57 @@
+package magicthegathering.game;
+
+import java.util.Iterator;
+
+/**
+ * Read-only view of the cards of one zone of a player, backed directly by the storage of the player,
+ * so it follows the changes of the zone and nothing is copied. The view is meant for callers which need
+ * only the number of the cards, membership or a single pass, the arrays of {@link Player} are snapshots.
+ * The order of the cards is the order of the array returned by the matching method of {@link Player}.
+ * The iterator is fail-fast: it throws {@link java.util.ConcurrentModificationException} if a card enters
+ * or leaves the zone during the iteration. Tapping the cards does not change the zone.
+ *
+ * @param <T> kind of the cards
+ * @author Marek Sabo
+ */
+public interface CardView<T extends Card> extends Iterable<T> {
+
+    /**
+     * Get number of the cards in the zone.
+     *
+     * @return number of the cards
+     */
+    int size();
+
+    /**
+     * Check whether the zone is empty.
+     *
+     * @return true if there are no cards in the zone
+     */
+    boolean isEmpty();
+
+    /**
+     * Get card on the given position.
+     *
+     * @param index position of the card
+     * @return the card
+     * @throws IndexOutOfBoundsException if the index is not less than the size or is negative
+     */
+    T get(int index);
+
+    /**
+     * Check whether the card is in the zone.
+     *
+     * @param card searched card, compared by identity
+     * @return true if the card is in the zone
+     */
+    boolean contains(Card card);
+
+    /**
+     * Iterate over the cards of the zone, removal is not supported.
+     *
+     * @return fail-fast iterator
+     */
+    @Override
+    Iterator<T> iterator();
+
+}
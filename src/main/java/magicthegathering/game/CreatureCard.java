@@ -23,6 +23,13 @@ public interface CreatureCard extends Card {
      */
     int getSpecialCost(ManaType mana);
 
+    /**
+     * Get costs for all the mana types packed by {@link PackedMana}.
+     *
+     * @return packed cost
+     */
+    long getPackedCost();
+
     /**
      * Get name of the creature.
      *
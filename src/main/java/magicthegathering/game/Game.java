@@ -27,6 +27,48 @@ public interface Game {
      */
     void initGame();
 
+    /**
+     * Generates player's cards from the seed, the same seed always gives the same cards.
+     *
+     * @param seed seed of the cards
+     */
+    void initGame(long seed);
+
+    /**
+     * Save state of the game: lives, zones and states of the cards and the current player.
+     * The cards are not copied, so the snapshot is cheap and can be restored many times.
+     *
+     * @return saved state
+     */
+    GameSnapshot snapshot();
+
+    /**
+     * Restore the saved state of the game. Only the cards whose state changed since the snapshot are touched.
+     *
+     * @param snapshot state saved by {@link #snapshot()} of this game
+     * @throws IllegalArgumentException if the snapshot was not created by this game
+     *                                  or the cards of the players were initialized again
+     */
+    void restore(GameSnapshot snapshot);
+
+    /**
+     * Get {@link Zobrist} hash of the state of the game, combining the hashes of the players
+     * and the player on turn. It takes constant time, so search engines can use it as the key
+     * of a transposition table.
+     *
+     * @return hash equal for equal states of the game
+     */
+    long getZobristHash();
+
+    /**
+     * Get the game on which search strategies play their playouts. Games recording the calls of the engine
+     * return the game they wrap, so the playouts are not recorded. Both games share the state,
+     * a move made on one of them is seen by the other.
+     *
+     * @return game sharing the state with this game
+     */
+    Game getPlayoutGame();
+
     /**
      * Set (pick) next player.
      */
@@ -88,4 +130,48 @@ public interface Game {
      */
     void performBlockAndDamage(CreatureCard[] attackingCreatures, CreatureCard[] blockingCreatures);
 
+    /**
+     * Get registry of the cards of both players. It is created from their cards when it is first needed
+     * after the cards were dealt, by {@link #initGame()} or by {@link Player#initCards(Card[])}.
+     *
+     * @return registry of the cards
+     */
+    CardRegistry getCardRegistry();
+
+    /**
+     * Perform attack by ids of the creatures, see {@link #performAttack(CreatureCard[])}.
+     *
+     * @param creatures ids of creatures which are going to attack
+     */
+    void performAttack(int[] creatures);
+
+    /**
+     * Checks attack given by ids of the creatures, see {@link #isCreaturesAttackValid(CreatureCard[])}.
+     * Unknown ids make the attack invalid.
+     *
+     * @param attackingCreatures ids of attacking creatures
+     * @return true if all creatures are able to attack
+     */
+    boolean isCreaturesAttackValid(int[] attackingCreatures);
+
+    /**
+     * Checks block given by ids of the creatures, see {@link #isCreaturesBlockValid(CreatureCard[], CreatureCard[])}.
+     * {@link CardRegistry#NONE} represents that creature is not going to be blocked,
+     * unknown ids make the block invalid.
+     *
+     * @param attackingCreatures ids of attacking creatures
+     * @param blockingCreatures ids of blocking creatures
+     * @return true if the block does not break any rules
+     */
+    boolean isCreaturesBlockValid(int[] attackingCreatures, int[] blockingCreatures);
+
+    /**
+     * Evaluates the block given by ids of the creatures,
+     * see {@link #performBlockAndDamage(CreatureCard[], CreatureCard[])}.
+     *
+     * @param attackingCreatures ids of attacking creatures
+     * @param blockingCreatures ids of blocking creatures, {@link CardRegistry#NONE} means not blocked
+     */
+    void performBlockAndDamage(int[] attackingCreatures, int[] blockingCreatures);
+
 }
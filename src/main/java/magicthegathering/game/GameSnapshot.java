@@ -0,0 +1,39 @@
+package magicthegathering.game;
+
+/**
+ * Saved state of the game, see {@link Game#snapshot()}.
+ *
+ * @author Marek Sabo
+ */
+public final class GameSnapshot {
+
+    private final Player currentPlayer;
+    private final PlayerSnapshot first;
+    private final PlayerSnapshot second;
+
+    /**
+     * Constructor.
+     *
+     * @param currentPlayer player on turn
+     * @param first         saved state of the first player
+     * @param second        saved state of the second player
+     */
+    public GameSnapshot(Player currentPlayer, PlayerSnapshot first, PlayerSnapshot second) {
+        this.currentPlayer = currentPlayer;
+        this.first = first;
+        this.second = second;
+    }
+
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public PlayerSnapshot getFirst() {
+        return first;
+    }
+
+    public PlayerSnapshot getSecond() {
+        return second;
+    }
+
+}
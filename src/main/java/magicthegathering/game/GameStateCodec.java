@@ -0,0 +1,223 @@
+package magicthegathering.game;
+
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.LandCardImpl;
+import magicthegathering.impl.PlayerImpl;
+
+import java.util.Arrays;
+
+/**
+ * Canonical binary encoding of the game state in {@link #SIZE} bytes. The player on turn is encoded first,
+ * then the second player. Player is encoded as his life (2 bytes) followed by {@link Game#TOTAL_CARD_AMOUNT}
+ * card codes (3 bytes each) sorted in descending order, so the order of the cards in zones does not matter,
+ * empty codes stand for destroyed or missing cards. Card code holds bits:
+ * <ul>
+ * <li>0-1 kind: 0 no card, 1 land, 2 creature</li>
+ * <li>2-4 on the table, tapped, summoning sickness</li>
+ * <li>5-7 land type of the land</li>
+ * <li>5-14 cost of the creature, 2 bits for every mana type in the (ordinal) order</li>
+ * <li>15-18 power and 19-22 toughness of the creature</li>
+ * </ul>
+ * Names of the players and creatures are not encoded.
+ *
+ * @author Marek Sabo
+ */
+public final class GameStateCodec {
+
+    /**
+     * Size of the encoded state in bytes.
+     */
+    public static final int SIZE = 2 * (2 + 3 * Game.TOTAL_CARD_AMOUNT);
+
+    private static final int LAND = 1;
+    private static final int CREATURE = 2;
+    private static final int ON_TABLE = 1 << 2;
+    private static final int TAPPED = 1 << 3;
+    private static final int SICK = 1 << 4;
+    private static final int FIELD_SHIFT = 5;
+    private static final int COST_BITS = 2;
+    private static final int STAT_BITS = 4;
+    private static final int POWER_SHIFT = FIELD_SHIFT + COST_BITS * ManaType.values().length;
+    private static final int TOUGHNESS_SHIFT = POWER_SHIFT + STAT_BITS;
+
+    private static final ManaType[] MANA_TYPES = ManaType.values();
+    private static final LandCardType[] LAND_TYPES = LandCardType.values();
+
+    private GameStateCodec() {
+    }
+
+    /**
+     * Encode the state of the game.
+     *
+     * @param game encoded game
+     * @return new array of {@link #SIZE} bytes
+     * @throws IllegalArgumentException if a player has more than {@link Game#TOTAL_CARD_AMOUNT} cards
+     *                                  or a creature costs more than 3 mana of one type or has power
+     *                                  or toughness out of range 0-15
+     */
+    public static byte[] encode(Game game) {
+        byte[] state = new byte[SIZE];
+        encode(game, state, 0);
+        return state;
+    }
+
+    /**
+     * Encode the state of the game into the given array, see {@link #encode(Game)}.
+     *
+     * @param game   encoded game
+     * @param target array of at least offset + {@link #SIZE} bytes
+     * @param offset position of the state in the array
+     */
+    public static void encode(Game game, byte[] target, int offset) {
+        int next = encodePlayer(game.getCurrentPlayer(), target, offset);
+        encodePlayer(game.getSecondPlayer(), target, next);
+    }
+
+    private static int encodePlayer(Player player, byte[] target, int offset) {
+        CardView<Card> hand = player.getCardsInHandView();
+        CardView<Card> table = player.getCardsOnTableView();
+        if (hand.size() + table.size() > Game.TOTAL_CARD_AMOUNT) {
+            throw new IllegalArgumentException("Player " + player + " has too many cards to encode");
+        }
+        int[] codes = new int[Game.TOTAL_CARD_AMOUNT];
+        int count = 0;
+        for (Card card : hand) {
+            codes[count++] = encodeCard(card);
+        }
+        for (Card card : table) {
+            codes[count++] = encodeCard(card);
+        }
+        Arrays.sort(codes);
+
+        int position = offset;
+        target[position++] = (byte) (player.getLife() >> Byte.SIZE);
+        target[position++] = (byte) player.getLife();
+        for (int i = codes.length - 1; i >= 0; i--) {
+            target[position++] = (byte) (codes[i] >> 2 * Byte.SIZE);
+            target[position++] = (byte) (codes[i] >> Byte.SIZE);
+            target[position++] = (byte) codes[i];
+        }
+        return position;
+    }
+
+    /**
+     * Encode one card.
+     *
+     * @param card encoded card
+     * @return code of the card
+     */
+    static int encodeCard(Card card) {
+        int code = (card.isOnTable() ? ON_TABLE : 0) | (card.isTapped() ? TAPPED : 0);
+        if (card instanceof LandCard) {
+            return code | LAND | ((LandCard) card).getLandType().ordinal() << FIELD_SHIFT;
+        }
+        CreatureCard creature = (CreatureCard) card;
+        code |= CREATURE | (creature.hasSummoningSickness() ? SICK : 0);
+        for (ManaType mana : MANA_TYPES) {
+            code |= field(creature.getSpecialCost(mana), COST_BITS) << FIELD_SHIFT + COST_BITS * mana.ordinal();
+        }
+        code |= field(creature.getPower(), STAT_BITS) << POWER_SHIFT;
+        return code | field(creature.getToughness(), STAT_BITS) << TOUGHNESS_SHIFT;
+    }
+
+    private static int field(int value, int bits) {
+        if (value < 0 || value >= 1 << bits) {
+            throw new IllegalArgumentException("Value " + value + " does not fit into " + bits + " bits");
+        }
+        return value;
+    }
+
+    /**
+     * Create new game in the encoded state. The current player of the game is the first encoded player.
+     *
+     * @param state  encoded state
+     * @param offset position of the state in the array
+     * @return new game with new players and cards
+     */
+    public static Game decode(byte[] state, int offset) {
+        Player current = decodePlayer("First", state, offset);
+        Player second = decodePlayer("Second", state, offset + SIZE / 2);
+        return new GameImpl(current, second);
+    }
+
+    private static Player decodePlayer(String name, byte[] state, int offset) {
+        Player player = new PlayerImpl(name);
+        short life = (short) ((state[offset] & 0xFF) << Byte.SIZE | state[offset + 1] & 0xFF);
+        player.subtractLives(Player.INIT_LIVES - life);
+        Card[] cards = new Card[Game.TOTAL_CARD_AMOUNT];
+        int count = 0;
+        for (int i = 0; i < cards.length; i++) {
+            int position = offset + 2 + 3 * i;
+            int code = (state[position] & 0xFF) << 2 * Byte.SIZE | (state[position + 1] & 0xFF) << Byte.SIZE
+                    | state[position + 2] & 0xFF;
+            if (code != 0) {
+                cards[count++] = decodeCard(code, count);
+            }
+        }
+        player.initCards(Arrays.copyOf(cards, count));
+        return player;
+    }
+
+    private static Card decodeCard(int code, int index) {
+        Card card;
+        if ((code & (LAND | CREATURE)) == LAND) {
+            card = new LandCardImpl(LAND_TYPES[code >> FIELD_SHIFT & 0x7]);
+        } else {
+            card = decodeCreature(code, index);
+        }
+        if ((code & ON_TABLE) != 0) {
+            card.putOnTable();
+        }
+        if ((code & TAPPED) != 0) {
+            card.tap();
+        }
+        return card;
+    }
+
+    private static CreatureCard decodeCreature(int code, int index) {
+        ManaType[] cost = new ManaType[0];
+        for (ManaType mana : MANA_TYPES) {
+            int amount = code >> FIELD_SHIFT + COST_BITS * mana.ordinal() & (1 << COST_BITS) - 1;
+            int from = cost.length;
+            cost = Arrays.copyOf(cost, from + amount);
+            Arrays.fill(cost, from, cost.length, mana);
+        }
+        CreatureCard creature = new CreatureCardImpl("Creature " + index, cost,
+                code >> POWER_SHIFT & (1 << STAT_BITS) - 1, code >> TOUGHNESS_SHIFT & (1 << STAT_BITS) - 1);
+        if ((code & SICK) != 0) {
+            creature.setSummoningSickness();
+        }
+        return creature;
+    }
+
+    /**
+     * Compute 64-bit hash of the encoded state. Equal states have equal hashes.
+     *
+     * @param state  encoded state
+     * @param offset position of the state in the array
+     * @return hash of the state
+     */
+    public static long hash(byte[] state, int offset) {
+        long hash = SIZE;
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            long word = 0;
+            for (int j = i; j < Math.min(i + Long.BYTES, SIZE); j++) {
+                word = word << Byte.SIZE | state[offset + j] & 0xFF;
+            }
+            hash = Generator.deriveSeed(hash ^ word, i);
+        }
+        return hash;
+    }
+
+    /**
+     * Compute 64-bit hash of the game state, see {@link #hash(byte[], int)}.
+     *
+     * @param game hashed game
+     * @return hash of the encoded state
+     */
+    public static long hash(Game game) {
+        return hash(encode(game), 0);
+    }
+
+}
@@ -3,8 +3,8 @@ package magicthegathering.game;
 import magicthegathering.impl.CreatureCardImpl;
 import magicthegathering.impl.LandCardImpl;
 
-import java.security.SecureRandom;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static magicthegathering.game.Game.CREATURE_COUNT;
 import static magicthegathering.game.Game.LAND_COUNT;
@@ -12,6 +12,8 @@ import static magicthegathering.game.Game.TOTAL_CARD_AMOUNT;
 
 /**
  * Class used for generating cards.
+ * Generator has no shared state, the cards depend only on the given seed or random source,
+ * so it can be used from many threads at once and the same seed always gives the same cards.
  *
  * @author Marek Sabo, Zuzana Wolfova
  */
@@ -21,8 +23,14 @@ public class Generator {
     private static final int CREATURE_MAX_POWER_TOUGHNESS = 5;
     private static final int CREATURE_MAX_MANA = 3;
 
-    private static final Random RANDOM = new SecureRandom();
-    private static LandCard[] lands = new LandCard[LAND_COUNT];
+    /**
+     * Number of profiles of the generated cards, see {@link #profileOf(Card[])}.
+     */
+    public static final int PROFILE_COUNT = ManaType.values().length * 3;
+
+    private static final String[] STRENGTH_LEVELS = {"weak", "average", "strong"};
+    private static final int WEAK_STRENGTH = 40;
+    private static final int STRONG_STRENGTH = 50;
 
     /**
      * Method used for generating {@link Game#TOTAL_CARD_AMOUNT} cards.
@@ -31,41 +39,111 @@ public class Generator {
      * @return generated lands and creatures
      */
     public static Card[] generateCards() {
+        return generateCards(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Generate cards from the seed, see {@link #generateCards()}.
+     *
+     * @param seed seed of the cards
+     * @return generated lands and creatures
+     */
+    public static Card[] generateCards(long seed) {
+        return generateCards(new SplittableRandom(seed));
+    }
+
+    /**
+     * Generate cards using the random source, see {@link #generateCards()}.
+     * The random source must not be used by other threads at the same time, use {@link SplittableRandom#split()}.
+     *
+     * @param random random source
+     * @return generated lands and creatures
+     */
+    public static Card[] generateCards(SplittableRandom random) {
         Card[] cards = new Card[TOTAL_CARD_AMOUNT];
+        LandCard[] lands = new LandCard[LAND_COUNT];
 
         for (int i = 0; i < LAND_COUNT; i++) {
-            lands[i] = generateLand();
+            lands[i] = generateLand(random);
             cards[i] = lands[i];
         }
 
         for (int i = 0; i < CREATURE_COUNT; i++) {
-            cards[i + LAND_COUNT] = generateCreature("Creature " + i);
+            cards[i + LAND_COUNT] = generateCreature("Creature " + i, lands, random);
         }
 
         return cards;
     }
 
+    /**
+     * Derive seed of the sub-task (game, player, ...) from the parent seed.
+     * It is the SplitMix64 finalizer, so neighbouring indexes get unrelated seeds
+     * and the seed does not depend on the order or thread in which the sub-tasks run.
+     *
+     * @param seed  parent seed
+     * @param index index of the sub-task
+     * @return derived seed
+     */
+    public static long deriveSeed(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 
-    private static LandCard generateLand() {
+    private static LandCard generateLand(SplittableRandom random) {
         return new LandCardImpl(LandCardType.values()[
-                RANDOM.nextInt(LandCardType.values().length)
+                random.nextInt(LandCardType.values().length)
                 ]);
     }
 
-    private static CreatureCard generateCreature(String name) {
+    private static CreatureCard generateCreature(String name, LandCard[] lands, SplittableRandom random) {
         return new CreatureCardImpl(name,
-                generateCreatureManaCost(),
-                RANDOM.nextInt(CREATURE_MAX_POWER_STRENGTH) + 1,
-                RANDOM.nextInt(CREATURE_MAX_POWER_TOUGHNESS) + 1);
+                generateCreatureManaCost(lands, random),
+                random.nextInt(CREATURE_MAX_POWER_STRENGTH) + 1,
+                random.nextInt(CREATURE_MAX_POWER_TOUGHNESS) + 1);
     }
 
-    private static ManaType[] generateCreatureManaCost() {
-        ManaType[] creatureManaCost = new ManaType[RANDOM.nextInt(CREATURE_MAX_MANA) + 1];
+    private static ManaType[] generateCreatureManaCost(LandCard[] lands, SplittableRandom random) {
+        ManaType[] creatureManaCost = new ManaType[random.nextInt(CREATURE_MAX_MANA) + 1];
         for (int y = 0; y < creatureManaCost.length; y++) {
-            creatureManaCost[y] = lands[RANDOM.nextInt(lands.length)].getManaType();
+            creatureManaCost[y] = lands[random.nextInt(lands.length)].getManaType();
         }
         return creatureManaCost;
     }
 
+    /**
+     * Get profile of the generated cards: number of distinct mana types of the lands
+     * and strength of the creatures (sum of power and toughness) compared to the expected one.
+     *
+     * @param cards cards generated by this generator, possibly already played
+     * @return profile from 0 to {@link #PROFILE_COUNT} - 1
+     */
+    public static int profileOf(Card[] cards) {
+        boolean[] types = new boolean[ManaType.values().length];
+        int colours = 0;
+        int strength = 0;
+        for (Card card : cards) {
+            if (card instanceof LandCard && !types[((LandCard) card).getManaType().ordinal()]) {
+                types[((LandCard) card).getManaType().ordinal()] = true;
+                colours++;
+            } else if (card instanceof CreatureCard) {
+                strength += ((CreatureCard) card).getPower() + ((CreatureCard) card).getToughness();
+            }
+        }
+        int level = strength < WEAK_STRENGTH ? 0 : strength <= STRONG_STRENGTH ? 1 : 2;
+        return Math.max(colours - 1, 0) * STRENGTH_LEVELS.length + level;
+    }
+
+    /**
+     * Describe the profile of the cards, see {@link #profileOf(Card[])}.
+     *
+     * @param profile profile of the cards
+     * @return for example "2 colours, strong"
+     */
+    public static String describeProfile(int profile) {
+        int colours = profile / STRENGTH_LEVELS.length + 1;
+        return colours + " colours, " + STRENGTH_LEVELS[profile % STRENGTH_LEVELS.length];
+    }
 
 }
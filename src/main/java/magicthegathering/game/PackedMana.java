@@ -0,0 +1,144 @@
+package magicthegathering.game;
+
+/**
+ * Amounts of all the mana types packed into one long, every mana type has its own {@link #LANE_BITS} bits lane
+ * in the {@link ManaType#ordinal()} order. The highest bit of every lane is a guard bit which is always zero,
+ * so lanes can be added and compared all at once by ordinary arithmetic.
+ * One lane can hold at most {@link #MAX_AMOUNT} mana.
+ *
+ * @author Marek Sabo
+ */
+public final class PackedMana {
+
+    /**
+     * Number of bits of one lane, including the guard bit.
+     */
+    public static final int LANE_BITS = 12;
+
+    /**
+     * Maximal amount of one mana type.
+     */
+    public static final int MAX_AMOUNT = (1 << (LANE_BITS - 1)) - 1;
+
+    /**
+     * No mana at all.
+     */
+    public static final long EMPTY = 0L;
+
+    private static final ManaType[] MANA_TYPES = ManaType.values();
+    private static final long GUARDS = guards();
+
+    private PackedMana() {
+    }
+
+    private static long guards() {
+        long guards = 0;
+        for (int i = 0; i < MANA_TYPES.length; i++) {
+            guards |= 1L << (i * LANE_BITS + LANE_BITS - 1);
+        }
+        return guards;
+    }
+
+    /**
+     * Get one mana of the given type.
+     *
+     * @param mana mana type
+     * @return packed mana
+     */
+    public static long of(ManaType mana) {
+        return 1L << (mana.ordinal() * LANE_BITS);
+    }
+
+    /**
+     * Pack mana, every element of the array means one mana.
+     *
+     * @param mana array of mana types
+     * @return packed mana
+     */
+    public static long pack(ManaType[] mana) {
+        long packed = EMPTY;
+        for (ManaType type : mana) {
+            packed += of(type);
+        }
+        return packed;
+    }
+
+    /**
+     * Pack amounts of mana.
+     *
+     * @param amounts amount for every mana type in the (ordinal) order: WHITE, RED, GREEN, BLUE, BLACK
+     * @return packed mana
+     * @throws IllegalArgumentException if some amount is negative or greater than {@link #MAX_AMOUNT}
+     */
+    public static long pack(int[] amounts) {
+        long packed = EMPTY;
+        for (int i = 0; i < MANA_TYPES.length; i++) {
+            if (amounts[i] < 0 || amounts[i] > MAX_AMOUNT) {
+                throw new IllegalArgumentException("Amount of " + MANA_TYPES[i] + " mana " + amounts[i]
+                        + " is not between 0 and " + MAX_AMOUNT);
+            }
+            packed |= (long) amounts[i] << (i * LANE_BITS);
+        }
+        return packed;
+    }
+
+    /**
+     * Get amount of one mana type.
+     *
+     * @param packed packed mana
+     * @param mana mana type
+     * @return amount of the mana
+     */
+    public static int amount(long packed, ManaType mana) {
+        return (int) (packed >>> (mana.ordinal() * LANE_BITS)) & MAX_AMOUNT;
+    }
+
+    /**
+     * Unpack amounts of mana.
+     *
+     * @param packed packed mana
+     * @return array of amounts in the (ordinal) order: WHITE, RED, GREEN, BLUE, BLACK
+     */
+    public static int[] unpack(long packed) {
+        int[] amounts = new int[MANA_TYPES.length];
+        for (ManaType mana : MANA_TYPES) {
+            amounts[mana.ordinal()] = amount(packed, mana);
+        }
+        return amounts;
+    }
+
+    /**
+     * Unpack amounts of mana into the buffer.
+     *
+     * @param packed packed mana
+     * @param amounts array receiving the amounts in the (ordinal) order: WHITE, RED, GREEN, BLUE, BLACK
+     * @return total amount of mana
+     * @throws IllegalArgumentException if the array is shorter than the number of mana types
+     */
+    public static int unpack(long packed, int[] amounts) {
+        if (amounts.length < MANA_TYPES.length) {
+            throw new IllegalArgumentException("Amounts of " + MANA_TYPES.length + " mana types do not fit into "
+                    + amounts.length + " elements");
+        }
+        int total = 0;
+        for (ManaType mana : MANA_TYPES) {
+            amounts[mana.ordinal()] = amount(packed, mana);
+            total += amounts[mana.ordinal()];
+        }
+        return total;
+    }
+
+    /**
+     * Check whether available mana is enough to pay the cost.
+     * Every lane of the available mana gets its guard bit set and the cost is subtracted,
+     * a cleared guard bit means that the lane had to borrow, so the mana is missing.
+     *
+     * @param available available mana
+     * @param cost mana to be paid
+     * @return true if every mana type of the cost is available
+     */
+    public static boolean covers(long available, long cost) {
+        return (((available | GUARDS) - cost) & GUARDS) == GUARDS;
+    }
+
+}
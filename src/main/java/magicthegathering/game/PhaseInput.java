@@ -0,0 +1,125 @@
+package magicthegathering.game;
+
+import java.util.Arrays;
+
+/**
+ * Rules turning the indexes chosen by a human player into the moves of the phases of the turn,
+ * shared by the text user interface and the game server. Indexes point into the views of the player's
+ * cards, no index means skipping the action and {@link #NO_BLOCK} means not blocking the attacker.
+ * {@link #SKIP} among the attackers or the blockers skips the action too, as in the scripts of the first
+ * versions of the game.
+ * Invalid choice is rejected by {@link IllegalArgumentException} whose message can be shown to the player,
+ * the game is not changed then.
+ *
+ * @author Marek Sabo
+ */
+public final class PhaseInput {
+
+    /**
+     * Index of the blocker meaning that the attacker is not blocked.
+     */
+    public static final int NO_BLOCK = -1;
+
+    /**
+     * Index meaning that the attack or the block is skipped, whatever the other indexes are.
+     */
+    public static final int SKIP = -42;
+
+    private PhaseInput() {
+    }
+
+    /**
+     * Phase 1, choose the land put on the table.
+     *
+     * @param player  player on turn
+     * @param indexes at most one index of the land in hand
+     * @return chosen land, null if the action is skipped
+     * @throws IllegalArgumentException if more lands are chosen or the index is invalid
+     */
+    public static LandCard land(Player player, int[] indexes) {
+        if (indexes.length > 1) {
+            throw new IllegalArgumentException("only one land per turn");
+        }
+        return indexes.length == 0 ? null : pick(player.getLandsInHand(), indexes, false)[0];
+    }
+
+    /**
+     * Phase 2, choose the creatures put on the table.
+     *
+     * @param player  player on turn
+     * @param indexes indexes of the creatures in hand in order of summoning
+     * @return chosen creatures
+     * @throws IllegalArgumentException if an index is invalid
+     */
+    public static CreatureCard[] creatures(Player player, int[] indexes) {
+        return pick(player.getCreaturesInHand(), indexes, false);
+    }
+
+    /**
+     * Phase 3.1, choose the attacking creatures of the current player.
+     *
+     * @param game    game in progress
+     * @param indexes indexes of the creatures on the table
+     * @return valid attack, empty if the action is skipped
+     * @throws IllegalArgumentException if an index is invalid or the creatures cannot attack
+     */
+    public static CreatureCard[] attackers(Game game, int[] indexes) {
+        if (isSkipped(indexes)) {
+            return new CreatureCard[0];
+        }
+        CreatureCard[] attacking = pick(game.getCurrentPlayer().getCreaturesOnTable(), indexes, false);
+        if (attacking.length != 0 && !game.isCreaturesAttackValid(attacking)) {
+            throw new IllegalArgumentException("invalid attack");
+        }
+        return attacking;
+    }
+
+    /**
+     * Phase 3.2, choose the creatures of the second player blocking the attackers.
+     *
+     * @param game      game in progress
+     * @param attacking attacking creatures
+     * @param indexes   index of the blocker of every attacker, empty or containing {@link #SKIP}
+     *                  if no attacker is blocked
+     * @return valid block, null for the attacker which is not blocked
+     * @throws IllegalArgumentException if the number of indexes does not match, an index is invalid
+     *                                  or the creatures cannot block
+     */
+    public static CreatureCard[] blockers(Game game, CreatureCard[] attacking, int[] indexes) {
+        if (indexes.length == 0 || isSkipped(indexes)) {
+            return new CreatureCard[attacking.length];
+        }
+        if (indexes.length != attacking.length) {
+            throw new IllegalArgumentException("one index per attacker expected");
+        }
+        CreatureCard[] blocking = pick(game.getSecondPlayer().getCreaturesOnTable(), indexes, true);
+        if (!game.isCreaturesBlockValid(attacking, blocking)) {
+            throw new IllegalArgumentException("invalid block");
+        }
+        return blocking;
+    }
+
+    private static boolean isSkipped(int[] indexes) {
+        for (int index : indexes) {
+            if (index == SKIP) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T extends Card> T[] pick(T[] cards, int[] indexes, boolean blocking) {
+        T[] picked = Arrays.copyOf(cards, indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            if (blocking && indexes[i] == NO_BLOCK) {
+                picked[i] = null;
+            } else if (indexes[i] < 0 || indexes[i] >= cards.length) {
+                throw new IllegalArgumentException("invalid index " + indexes[i]);
+            } else {
+                picked[i] = cards[indexes[i]];
+            }
+        }
+        return picked;
+    }
+
+}
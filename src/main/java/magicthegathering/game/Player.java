@@ -1,7 +1,11 @@
 package magicthegathering.game;
 
+import java.util.function.ToIntFunction;
+
 /**
  * Player's interface.
+ * Methods taking a buffer copy the cards or their ids into it without allocation and return their number.
+ * If the buffer is too small, only the first ones are copied, so a zero-length buffer gives the number.
  *
  * @author Zuzana Wolfova, Marek Sabo
  */
@@ -45,6 +49,13 @@ public interface Player {
      */
     void initCards(Card[] cards);
 
+    /**
+     * Get number of the deals of player's cards, it changes whenever {@link #initCards(Card[])} is called.
+     *
+     * @return number of the deals
+     */
+    int getDeals();
+
     /**
      * Get player's cards in hand.
      *
@@ -52,6 +63,14 @@ public interface Player {
      */
     Card[] getCardsInHand();
 
+    /**
+     * Copy player's cards in hand into the buffer.
+     *
+     * @param buffer array receiving the cards
+     * @return number of the cards
+     */
+    int getCardsInHand(Card[] buffer);
+
     /**
      * Get player's cards on the table.
      *
@@ -59,6 +78,14 @@ public interface Player {
      */
     Card[] getCardsOnTable();
 
+    /**
+     * Copy player's cards on the table into the buffer.
+     *
+     * @param buffer array receiving the cards
+     * @return number of the cards
+     */
+    int getCardsOnTable(Card[] buffer);
+
     /**
      * Get player's lands on the table.
      *
@@ -66,6 +93,14 @@ public interface Player {
      */
     LandCard[] getLandsOnTable();
 
+    /**
+     * Copy player's lands on the table into the buffer.
+     *
+     * @param buffer array receiving the cards
+     * @return number of the cards
+     */
+    int getLandsOnTable(LandCard[] buffer);
+
     /**
      * Get player's creatures on the table.
      *
@@ -73,6 +108,14 @@ public interface Player {
      */
     CreatureCard[] getCreaturesOnTable();
 
+    /**
+     * Copy player's creatures on the table into the buffer.
+     *
+     * @param buffer array receiving the cards
+     * @return number of the cards
+     */
+    int getCreaturesOnTable(CreatureCard[] buffer);
+
     /**
      * Get player's lands in hand.
      *
@@ -80,6 +123,14 @@ public interface Player {
      */
     LandCard[] getLandsInHand();
 
+    /**
+     * Copy player's lands in hand into the buffer.
+     *
+     * @param buffer array receiving the cards
+     * @return number of the cards
+     */
+    int getLandsInHand(LandCard[] buffer);
+
     /**
      * Get player's creatures in hand.
      *
@@ -87,6 +138,109 @@ public interface Player {
      */
     CreatureCard[] getCreaturesInHand();
 
+    /**
+     * Copy player's creatures in hand into the buffer.
+     *
+     * @param buffer array receiving the cards
+     * @return number of the cards
+     */
+    int getCreaturesInHand(CreatureCard[] buffer);
+
+    /**
+     * Get read-only view of player's cards in hand.
+     * Unlike {@link #getCardsInHand()} it does not copy the cards.
+     *
+     * @return view of player's cards in hand
+     */
+    CardView<Card> getCardsInHandView();
+
+    /**
+     * Get read-only view of player's cards on the table.
+     * Unlike {@link #getCardsOnTable()} it does not copy the cards.
+     *
+     * @return view of player's cards on the table
+     */
+    CardView<Card> getCardsOnTableView();
+
+    /**
+     * Get read-only view of player's lands on the table.
+     * Unlike {@link #getLandsOnTable()} it does not copy the cards.
+     *
+     * @return view of player's lands on the table
+     */
+    CardView<LandCard> getLandsOnTableView();
+
+    /**
+     * Get read-only view of player's creatures on the table.
+     * Unlike {@link #getCreaturesOnTable()} it does not copy the cards.
+     *
+     * @return view of player's creatures on the table
+     */
+    CardView<CreatureCard> getCreaturesOnTableView();
+
+    /**
+     * Get read-only view of player's lands in hand.
+     * Unlike {@link #getLandsInHand()} it does not copy the cards.
+     *
+     * @return view of player's lands in hand
+     */
+    CardView<LandCard> getLandsInHandView();
+
+    /**
+     * Get read-only view of player's creatures in hand.
+     * Unlike {@link #getCreaturesInHand()} it does not copy the cards.
+     *
+     * @return view of player's creatures in hand
+     */
+    CardView<CreatureCard> getCreaturesInHandView();
+
+    /**
+     * Get ids of player's creatures on the table, see {@link CardRegistry}.
+     *
+     * @return ids of player's creatures on the table, {@link CardRegistry#NONE} for not registered creature
+     */
+    int[] getCreatureIdsOnTable();
+
+    /**
+     * Copy ids of player's creatures on the table into the buffer.
+     *
+     * @param buffer array receiving the ids
+     * @return number of the cards
+     */
+    int getCreatureIdsOnTable(int[] buffer);
+
+    /**
+     * Get ids of player's creatures in hand, see {@link CardRegistry}.
+     *
+     * @return ids of player's creatures in hand, {@link CardRegistry#NONE} for not registered creature
+     */
+    int[] getCreatureIdsInHand();
+
+    /**
+     * Copy ids of player's creatures in hand into the buffer.
+     *
+     * @param buffer array receiving the ids
+     * @return number of the cards
+     */
+    int getCreatureIdsInHand(int[] buffer);
+
+    /**
+     * Checks whether all the creatures are player's creatures on the table.
+     * Runs in time proportional to the number of given creatures.
+     *
+     * @param creatures creatures to be checked, null elements are skipped
+     * @return true if every creature is on player's table, false otherwise
+     */
+    boolean hasCreaturesOnTable(CreatureCard[] creatures);
+
+    /**
+     * Checks whether the creature is player's creature on the table, in constant time.
+     *
+     * @param creature creature to be checked
+     * @return true if the creature is on player's table, false otherwise
+     */
+    boolean hasCreatureOnTable(CreatureCard creature);
+
     /**
      * Untap all cards on the table.
      */
@@ -131,7 +285,33 @@ public interface Player {
     int[] calculateUntappedLands();
 
     /**
-     * Taps the lands needed for summoning a creature.
+     * Write how many untapped lands has player on the table into the buffer.
+     *
+     * @param buffer array receiving the numbers of untapped lands in the {@link ManaType#ordinal()} order,
+     *               at least as long as the number of mana types
+     * @return total number of untapped lands
+     * @throws IllegalArgumentException if the buffer is shorter than the number of mana types
+     */
+    int calculateUntappedLands(int[] buffer);
+
+    /**
+     * Calculates mana of untapped lands the player has on the table.
+     *
+     * @return amounts of mana packed by {@link PackedMana}
+     */
+    long calculateUntappedMana();
+
+    /**
+     * Plans which creatures in hand to put on the table this turn, so that their total value is the highest
+     * and all of them can be paid by the untapped lands, see {@link PurchasePlanner}.
+     *
+     * @param value value of the creature, for example {@link CreatureCard#getTotalCost()}
+     * @return creatures to be put on the table, in any order
+     */
+    CreatureCard[] planCreaturePurchase(ToIntFunction<? super CreatureCard> value);
+
+    /**
+     * Taps the lands needed for summoning a creature, exactly as many lands of every mana type as the creature costs.
      *
      * @param creature creature which price needs to be paid
      */
@@ -143,4 +323,29 @@ public interface Player {
      * @param creature creature to be removed.
      */
     void destroyCreature(CreatureCard creature);
+
+    /**
+     * Save lives of the player, zones and states of his cards.
+     *
+     * @return saved state, the cards are not copied
+     */
+    PlayerSnapshot snapshot();
+
+    /**
+     * Restore the saved state. Only the cards whose state changed since the snapshot are touched,
+     * the cards can return from the table to the hand and destroyed creatures return to the table.
+     *
+     * @param snapshot state saved by {@link #snapshot()} of this player
+     * @throws IllegalArgumentException if the snapshot was not created by this player
+     *                                  or the cards were initialized again
+     */
+    void restore(PlayerSnapshot snapshot);
+
+    /**
+     * Get {@link Zobrist} hash of the lives of the player and states of his cards.
+     * It is maintained as the cards change, so the call takes constant time.
+     *
+     * @return hash equal for equal states of the same cards
+     */
+    long getZobristHash();
 }
@@ -0,0 +1,18 @@
+package magicthegathering.game;
+
+/**
+ * Saved state of the player and his cards, see {@link Player#snapshot()}.
+ * Snapshot holds references to the cards, the cards themselves are not copied.
+ *
+ * @author Marek Sabo
+ */
+public interface PlayerSnapshot {
+
+    /**
+     * Get player whose state is saved.
+     *
+     * @return player which created the snapshot
+     */
+    Player getPlayer();
+
+}
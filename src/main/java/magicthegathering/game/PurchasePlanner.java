@@ -0,0 +1,124 @@
+package magicthegathering.game;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Plans which creatures to put on the table with the available mana. It is a 0/1 knapsack with
+ * one capacity per mana type: states are all the amounts of mana not exceeding the available ones,
+ * numbered in mixed radix, and for every state the best value payable by that mana is kept.
+ * Mana which no creature in hand needs is ignored, so the number of states stays small.
+ *
+ * @author Marek Sabo
+ */
+public final class PurchasePlanner {
+
+    private static final ManaType[] MANA_TYPES = ManaType.values();
+
+    private PurchasePlanner() {
+    }
+
+    /**
+     * Find creatures with the highest total value which can be paid together.
+     *
+     * @param mana      available mana packed by {@link PackedMana}
+     * @param creatures candidate creatures
+     * @param value     value of the creature, creatures of no value are not bought
+     * @return creatures to be bought in the order of the candidates
+     */
+    public static CreatureCard[] plan(long mana, CreatureCard[] creatures, ToIntFunction<? super CreatureCard> value) {
+        long demand = PackedMana.EMPTY;
+        for (CreatureCard creature : creatures) {
+            demand = min(demand + creature.getPackedCost(), mana);
+        }
+        int[] strides = new int[MANA_TYPES.length + 1];
+        strides[0] = 1;
+        for (ManaType type : MANA_TYPES) {
+            strides[type.ordinal() + 1] = strides[type.ordinal()] * (PackedMana.amount(demand, type) + 1);
+        }
+        int states = strides[MANA_TYPES.length];
+
+        long[] stateMana = stateMana(demand, strides, states);
+        int[] best = new int[states];
+        boolean[][] bought = new boolean[creatures.length][];
+        for (int i = 0; i < creatures.length; i++) {
+            bought[i] = buy(creatures[i], value.applyAsInt(creatures[i]), stateMana, strides, best);
+        }
+        return collect(creatures, bought, strides, states - 1);
+    }
+
+    /**
+     * Lane-wise minimum of the packed mana.
+     */
+    private static long min(long first, long second) {
+        long result = PackedMana.EMPTY;
+        for (ManaType type : MANA_TYPES) {
+            result += PackedMana.of(type) * Math.min(PackedMana.amount(first, type), PackedMana.amount(second, type));
+        }
+        return result;
+    }
+
+    /**
+     * Get mana of every state.
+     */
+    private static long[] stateMana(long demand, int[] strides, int states) {
+        long[] stateMana = new long[states];
+        for (int state = 0; state < states; state++) {
+            for (ManaType type : MANA_TYPES) {
+                int radix = PackedMana.amount(demand, type) + 1;
+                stateMana[state] += PackedMana.of(type) * (state / strides[type.ordinal()] % radix);
+            }
+        }
+        return stateMana;
+    }
+
+    /**
+     * Add the creature to the knapsack, the states are processed from the largest,
+     * so every creature is bought at most once.
+     *
+     * @return states in which buying the creature improved the value
+     */
+    private static boolean[] buy(CreatureCard creature, int value, long[] stateMana, int[] strides, int[] best) {
+        boolean[] bought = new boolean[best.length];
+        if (value <= 0) {
+            return bought;
+        }
+        long cost = creature.getPackedCost();
+        int offset = 0;
+        for (ManaType type : MANA_TYPES) {
+            offset += PackedMana.amount(cost, type) * strides[type.ordinal()];
+        }
+        for (int state = best.length - 1; state >= 0; state--) {
+            if (PackedMana.covers(stateMana[state], cost) && best[state - offset] + value > best[state]) {
+                best[state] = best[state - offset] + value;
+                bought[state] = true;
+            }
+        }
+        return bought;
+    }
+
+    /**
+     * Follow the decisions back from the state of all the mana.
+     */
+    private static CreatureCard[] collect(CreatureCard[] creatures, boolean[][] bought, int[] strides, int state) {
+        boolean[] chosen = new boolean[creatures.length];
+        int count = 0;
+        for (int i = creatures.length - 1; i >= 0; i--) {
+            if (bought[i][state]) {
+                chosen[i] = true;
+                count++;
+                for (ManaType type : MANA_TYPES) {
+                    state -= PackedMana.amount(creatures[i].getPackedCost(), type) * strides[type.ordinal()];
+                }
+            }
+        }
+        CreatureCard[] result = new CreatureCard[count];
+        int next = 0;
+        for (int i = 0; i < creatures.length; i++) {
+            if (chosen[i]) {
+                result[next++] = creatures[i];
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,45 @@
+package magicthegathering.game;
+
+/**
+ * Strategy of a player, it makes the same decisions as a human player in the text user interface.
+ * The methods are called only when the player is on turn, except {@link #chooseBlockers}.
+ *
+ * @author Marek Sabo
+ */
+public interface Strategy {
+
+    /**
+     * Choose land which the current player puts on the table.
+     *
+     * @param game game in progress
+     * @return land from player's hand, null means skipping the action
+     */
+    LandCard chooseLand(Game game);
+
+    /**
+     * Choose creatures which the current player tries to put on the table, in the given order.
+     *
+     * @param game game in progress
+     * @return creatures from player's hand, empty array means skipping the action
+     */
+    CreatureCard[] chooseCreatures(Game game);
+
+    /**
+     * Choose creatures of the current player which will attack.
+     *
+     * @param game game in progress
+     * @return attacking creatures, empty array means skipping the action
+     */
+    CreatureCard[] chooseAttackers(Game game);
+
+    /**
+     * Choose creatures of the second player which will block the attack.
+     *
+     * @param game game in progress
+     * @param attackingCreatures creatures which attack the second player
+     * @return array of blocking creatures of the same length as attacking creatures,
+     * null elements represent that the creature is not blocked
+     */
+    CreatureCard[] chooseBlockers(Game game, CreatureCard[] attackingCreatures);
+
+}
@@ -0,0 +1,110 @@
+package magicthegathering.game;
+
+/**
+ * Random keys of Zobrist hashing. Hash of a player is the xor of the keys of the flags of his cards
+ * and the key of his life, so changing one flag changes the hash by a single xor. Cards are identified
+ * by their slot, which is the position of the card in the array given to {@link Player#initCards(Card[])}.
+ * Keys are fixed, so equal positions have equal hashes in every run.
+ *
+ * @author Marek Sabo
+ */
+public final class Zobrist {
+
+    /**
+     * Flag of the card which is not destroyed.
+     */
+    public static final int PRESENT = 0;
+
+    /**
+     * Flag of the card on the table.
+     */
+    public static final int ON_TABLE = 1;
+
+    /**
+     * Flag of the tapped card.
+     */
+    public static final int TAPPED = 2;
+
+    /**
+     * Flag of the creature with summoning sickness.
+     */
+    public static final int SUMMONING_SICKNESS = 3;
+
+    /**
+     * Key of the position in which the second player of the game is on turn.
+     */
+    public static final long SECOND_ON_TURN = Generator.deriveSeed(0x5EC0DL, 0);
+
+    private static final int FLAGS = 4;
+    private static final long CARD_SEED = 0xCA4DL;
+    private static final long LIFE_SEED = 0x11FEL;
+    private static final long[] KEYS = new long[CardStates.CAPACITY * FLAGS];
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEYS[i] = Generator.deriveSeed(CARD_SEED, i);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Get key of the flag of the card.
+     *
+     * @param slot slot of the card
+     * @param flag one of the flags, for example {@link #TAPPED}
+     * @return random key
+     */
+    public static long key(int slot, int flag) {
+        int index = slot * FLAGS + flag;
+        return index < KEYS.length ? KEYS[index] : Generator.deriveSeed(CARD_SEED, index);
+    }
+
+    /**
+     * Get xor of the keys of the flag of all the cards in the mask.
+     *
+     * @param mask bit mask of slots, see {@link CardStates#bit(int)}
+     * @param flag one of the flags
+     * @return xor of the keys, 0 for the empty mask
+     */
+    public static long keys(long mask, int flag) {
+        long hash = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            hash ^= KEYS[Long.numberOfTrailingZeros(rest) * FLAGS + flag];
+        }
+        return hash;
+    }
+
+    /**
+     * Get xor of the keys of all the flags of the card.
+     *
+     * @param slot slot of the card
+     * @param card card in its current state
+     * @return xor of the keys
+     */
+    public static long card(int slot, Card card) {
+        long hash = key(slot, PRESENT);
+        if (card.isOnTable()) {
+            hash ^= key(slot, ON_TABLE);
+        }
+        if (card.isTapped()) {
+            hash ^= key(slot, TAPPED);
+        }
+        if (card instanceof CreatureCard && ((CreatureCard) card).hasSummoningSickness()) {
+            hash ^= key(slot, SUMMONING_SICKNESS);
+        }
+        return hash;
+    }
+
+    /**
+     * Get key of the life of the player.
+     *
+     * @param life number of lives
+     * @return random key
+     */
+    public static long life(int life) {
+        return Generator.deriveSeed(LIFE_SEED, life);
+    }
+
+}
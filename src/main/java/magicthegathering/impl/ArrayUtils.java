@@ -5,6 +5,9 @@
 package magicthegathering.impl;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import magicthegathering.game.Card;
 import magicthegathering.game.LandCard;
 import magicthegathering.game.CreatureCard;
@@ -17,6 +20,12 @@ import magicthegathering.game.CreatureCard;
  */
 public class ArrayUtils {
     
+    /**
+     * Arrays up to this length are compared pairwise, 
+     * longer ones use identity hash set.
+     */
+    private static final int SMALL_ARRAY = 16;
+    
     /**
      * Filter lands from given cards.
      * 
@@ -59,14 +68,24 @@ public class ArrayUtils {
     
     /**
      * Check whether given cards has duplicate, excluding null.
+     * Runs in linear time, small arrays are compared pairwise without allocation.
      * 
      * @param cards array of cards
      * @return true if given cards has duplicate, false otherwise
      */
     public static boolean hasDuplicatesExceptNull(Card[] cards) {
+        if (cards.length > SMALL_ARRAY) {
+            Set<Card> seen = identitySet(cards.length);
+            for (Card card : cards) {
+                if (card != null && !seen.add(card)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         for (int i = 0; i < cards.length; i++) {
             for (int j = i + 1; j < cards.length; j++) {
-                if ((cards[i] != null || cards[j] != null) && cards[i] == cards[j]) {
+                if (cards[i] != null && cards[i] == cards[j]) {
                     return true;
                 }
             }
@@ -74,6 +93,16 @@ public class ArrayUtils {
         return false;
     }
     
+    /**
+     * Create empty set comparing cards by identity.
+     * 
+     * @param expectedSize expected number of cards
+     * @return new set
+     */
+    private static Set<Card> identitySet(int expectedSize) {
+        return Collections.newSetFromMap(new IdentityHashMap<>(expectedSize));
+    }
+    
     /**
      * Check whether array of cards has one specific card.
      * 
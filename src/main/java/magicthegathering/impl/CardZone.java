@@ -0,0 +1,210 @@
+/**
+ *
+ * @author Filip Valchar
+ */
+package magicthegathering.impl;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import magicthegathering.game.Card;
+import magicthegathering.game.CardView;
+
+/**
+ * Class CardZone is a growable bucket of cards of one kind
+ * lying in one zone (hand or table) of a player. Order of
+ * the cards is kept when a card is removed. The zone is
+ * the read-only view of the zone given out by the player,
+ * every addition or removal is counted, so its iterators fail fast.
+ *
+ * @param <T> kind of the cards
+ * @author Filip Valchar
+ */
+final class CardZone<T extends Card> implements CardView<T> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private T[] cards;
+    private int size;
+    private int modCount;
+
+    /**
+     * Constructor. Create new empty zone.
+     *
+     * @param empty empty array determining the type of the cards
+     */
+    CardZone(T[] empty) {
+        this.cards = Arrays.copyOf(empty, INITIAL_CAPACITY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of zone with " + size + " cards");
+        }
+        return cards[index];
+    }
+
+    /**
+     * Get number of additions and removals of the cards, it changes whenever the zone changes.
+     *
+     * @return number of modifications
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Add card at the end of the zone.
+     *
+     * @param card added card
+     */
+    void add(T card) {
+        if (size == cards.length) {
+            cards = Arrays.copyOf(cards, size * 2);
+        }
+        cards[size++] = card;
+        modCount++;
+    }
+
+    /**
+     * Insert card at given position of the zone, the following cards move by one.
+     *
+     * @param index position of the inserted card
+     * @param card inserted card
+     */
+    void add(int index, T card) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of zone with " + size + " cards");
+        }
+        if (size == cards.length) {
+            cards = Arrays.copyOf(cards, size * 2);
+        }
+        System.arraycopy(cards, index, cards, index + 1, size - index);
+        cards[index] = card;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Find position of the card in the zone.
+     *
+     * @param card searched card
+     * @return index of searched card, otherwise -1
+     */
+    int indexOf(Card card) {
+        for (int i = 0; i < size; i++) {
+            if (cards[i] == card) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Card card) {
+        return indexOf(card) != -1;
+    }
+
+    /**
+     * Remove card from the zone.
+     *
+     * @param card removed card
+     * @return true if the card was in the zone, false otherwise
+     */
+    boolean remove(Card card) {
+        int index = indexOf(card);
+        if (index == -1) {
+            return false;
+        }
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        cards[--size] = null;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Remove all cards from the zone.
+     */
+    void clear() {
+        Arrays.fill(cards, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Copy cards of the zone into given array.
+     *
+     * @param target array of cards
+     * @param offset position of the first copied card
+     */
+    void copyInto(Card[] target, int offset) {
+        System.arraycopy(cards, 0, target, offset, size);
+    }
+
+    /**
+     * Copy as many cards of the zone as fit into given array.
+     *
+     * @param target array of cards
+     * @param offset position of the first copied card
+     * @return number of cards in the zone
+     */
+    int fill(Card[] target, int offset) {
+        if (offset < target.length) {
+            System.arraycopy(cards, 0, target, offset, Math.min(size, target.length - offset));
+        }
+        return size;
+    }
+
+    /**
+     * Get cards of the zone.
+     *
+     * @return new array of cards
+     */
+    T[] toArray() {
+        return Arrays.copyOf(cards, size);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ZoneIterator();
+    }
+
+    /**
+     * Class ZoneIterator goes through the cards of the zone
+     * and fails if the zone is modified meanwhile.
+     */
+    private final class ZoneIterator implements Iterator<T> {
+
+        private final int expectedModCount = modCount;
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Zone changed during iteration");
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            return cards[next++];
+        }
+    }
+
+}
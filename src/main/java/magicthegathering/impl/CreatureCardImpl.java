@@ -4,10 +4,11 @@
  */
 package magicthegathering.impl;
 
-import java.util.Arrays;
 import magicthegathering.game.AbstractCard;
+import magicthegathering.game.CardStates;
 import magicthegathering.game.CreatureCard;
 import magicthegathering.game.ManaType;
+import magicthegathering.game.PackedMana;
 
 /**
  * Class CreatureCardImpl represents creature, extends 
@@ -17,8 +18,11 @@ import magicthegathering.game.ManaType;
  */
 public class CreatureCardImpl extends AbstractCard implements CreatureCard {
     
+    private static final int TO_STRING_CAPACITY = 64;
+    
     private final String name;
     private final ManaType[] mana;
+    private final long packedCost;
     private final int power, toughness;
     private boolean summoningSickness;
     
@@ -33,6 +37,7 @@ public class CreatureCardImpl extends AbstractCard implements CreatureCard {
     public CreatureCardImpl(String name, ManaType[] mana, int power, int toughness) {
         this.name = name;
         this.mana = mana;
+        this.packedCost = PackedMana.pack(mana);
         this.power = power;
         this.toughness = toughness;
         unsetSummoningSickness();
@@ -40,17 +45,21 @@ public class CreatureCardImpl extends AbstractCard implements CreatureCard {
     
     @Override
     public String toString() {
-        String result = getName() + " " + Arrays.toString(mana) + " " + getPower() + " / " + getToughness();
+        StringBuilder result = new StringBuilder(TO_STRING_CAPACITY).append(getName()).append(" [");
+        for (int i = 0; i < mana.length; i++) {
+            result.append(i == 0 ? "" : ", ").append(mana[i]);
+        }
+        result.append("] ").append(getPower()).append(" / ").append(getToughness());
         
         if (!hasSummoningSickness()) {
-            result += " can attack";
+            result.append(" can attack");
         }
         
         if (isTapped()) {
-            result += " TAPPED";
+            result.append(" TAPPED");
         }
         
-        return result;
+        return result.toString();
     }
 
     @Override
@@ -60,15 +69,12 @@ public class CreatureCardImpl extends AbstractCard implements CreatureCard {
 
     @Override
     public int getSpecialCost(ManaType mana) {
-        int counter = 0;
-        
-        for (ManaType iteration : this.mana) {
-            if (iteration == mana) {
-                counter++;
-            }
-        }
-        
-        return counter;
+        return PackedMana.amount(packedCost, mana);
+    }
+
+    @Override
+    public long getPackedCost() {
+        return packedCost;
     }
 
     @Override
@@ -86,19 +92,60 @@ public class CreatureCardImpl extends AbstractCard implements CreatureCard {
         return toughness;
     }
 
+    @Override
+    public void bindStates(CardStates states, int slot) {
+        boolean sick = hasSummoningSickness();
+        super.bindStates(states, slot);
+        if (sick) {
+            states.setSummoningSickness(CardStates.bit(slot));
+        }
+    }
+
+    @Override
+    public void unbindStates() {
+        summoningSickness = hasSummoningSickness();
+        super.unbindStates();
+    }
+
     @Override
     public boolean hasSummoningSickness() {
+        CardStates states = getStates();
+        if (states != null) {
+            return (states.getSummoningSickness() & CardStates.bit(getSlot())) != 0;
+        }
         return summoningSickness;
     }
 
     @Override
     public void setSummoningSickness() {
-        summoningSickness = true;
+        if (hasSummoningSickness()) {
+            return;
+        }
+        CardStates states = getStates();
+        if (states != null) {
+            states.setSummoningSickness(CardStates.bit(getSlot()));
+        } else {
+            summoningSickness = true;
+        }
+        if (getListener() != null) {
+            getListener().summoningSicknessChanged(this);
+        }
     }
 
     @Override
     public void unsetSummoningSickness() {
-        summoningSickness = false;
+        if (!hasSummoningSickness()) {
+            return;
+        }
+        CardStates states = getStates();
+        if (states != null) {
+            states.unsetSummoningSickness(CardStates.bit(getSlot()));
+        } else {
+            summoningSickness = false;
+        }
+        if (getListener() != null) {
+            getListener().summoningSicknessChanged(this);
+        }
     }
 
 }
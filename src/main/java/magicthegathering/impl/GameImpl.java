@@ -4,10 +4,13 @@
  */
 package magicthegathering.impl;
 
+import magicthegathering.game.CardRegistry;
 import magicthegathering.game.CreatureCard;
 import magicthegathering.game.Game;
+import magicthegathering.game.GameSnapshot;
 import magicthegathering.game.Generator;
 import magicthegathering.game.Player;
+import magicthegathering.game.Zobrist;
 
 /**
  * Class GameImpl represents game with their 
@@ -20,6 +23,10 @@ public class GameImpl implements Game {
     private final Player player1;
     private final Player player2;
     private Player current;
+    private CardRegistry registry;
+    private int registeredDeals;
+    private int[] marks = new int[0];
+    private int mark;
     
     /**
      * Constructor. Create new game.
@@ -39,6 +46,58 @@ public class GameImpl implements Game {
         player2.initCards(Generator.generateCards());
     }
 
+    @Override
+    public void initGame(long seed) {
+        player1.initCards(Generator.generateCards(Generator.deriveSeed(seed, 0)));
+        player2.initCards(Generator.generateCards(Generator.deriveSeed(seed, 1)));
+    }
+
+    /**
+     * Registry is built again after the cards of a player were dealt, by the game or by the player himself.
+     *
+     * @return registry of the cards dealt last
+     */
+    @Override
+    public CardRegistry getCardRegistry() {
+        int deals = player1.getDeals() + player2.getDeals();
+        if (registry == null || deals != registeredDeals) {
+            registry = new CardRegistry(player1, player2);
+            registeredDeals = deals;
+        }
+        return registry;
+    }
+
+    @Override
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(current, player1.snapshot(), player2.snapshot());
+    }
+
+    @Override
+    public void restore(GameSnapshot snapshot) {
+        if (snapshot.getCurrentPlayer() != player1 && snapshot.getCurrentPlayer() != player2) {
+            throw new IllegalArgumentException("Snapshot was not created by this game");
+        }
+        player1.restore(snapshot.getFirst());
+        player2.restore(snapshot.getSecond());
+        this.current = snapshot.getCurrentPlayer();
+    }
+
+    /**
+     * Hash of the second player is rotated, so the players having the same cards differ.
+     * 
+     * @return hash of the state of the game
+     */
+    @Override
+    public long getZobristHash() {
+        long hash = player1.getZobristHash() ^ Long.rotateLeft(player2.getZobristHash(), 1);
+        return current == player1 ? hash : hash ^ Zobrist.SECOND_ON_TURN;
+    }
+
+    @Override
+    public Game getPlayoutGame() {
+        return this;
+    }
+
     @Override
     public void changePlayer() {
         if (this.current == player2) {    
@@ -88,18 +147,13 @@ public class GameImpl implements Game {
             return false;
         }
         
-        CreatureCard[] playerCreatures = getCurrentPlayer().getCreaturesOnTable(); 
-        
         for (CreatureCard card : attackingCreatures) {
-            if (card.hasSummoningSickness()) {     
-                return false;
-            }
-            if (!ArrayUtils.containsCard(card, playerCreatures)) {
+            if (card == null || card.hasSummoningSickness()) {     
                 return false;
             }
         }
         
-        return true;
+        return getCurrentPlayer().hasCreaturesOnTable(attackingCreatures);
     }
     
     @Override
@@ -108,8 +162,6 @@ public class GameImpl implements Game {
             return false;
         }
         
-        CreatureCard[] playerCreatures = getCurrentPlayer().getCreaturesOnTable(); 
-        
         for (CreatureCard card : attackingCreatures) {
             if (card.isTapped()) {
                 return false;
@@ -131,39 +183,131 @@ public class GameImpl implements Game {
             return false;
         }
        
-        CreatureCard[] secondPlayerCreatures = getSecondPlayer().getCreaturesOnTable(); 
-        
         for (CreatureCard card : blockingCreatures) {
-            if (card != null) {
-                if (card.isTapped()) {
-                    return false;
-                }
-                if (!ArrayUtils.containsCard(card, secondPlayerCreatures)) {
-                    return false;
-                }
+            if (card != null && card.isTapped()) {
+                return false;
             }
         }
         
-        return true;
+        return getSecondPlayer().hasCreaturesOnTable(blockingCreatures);
     }
 
     @Override
     public void performBlockAndDamage(CreatureCard[] attackingCreatures, CreatureCard[] blockingCreatures) {
         for (int i = 0; i < attackingCreatures.length; i++) {
-            CreatureCard attackCreature = attackingCreatures[i];
-            CreatureCard blockCreature = blockingCreatures[i]; 
-            if (blockCreature == null) {
-                getSecondPlayer().subtractLives(attackCreature.getPower());
-                continue;
-            } 
-            if (attackCreature.getPower() >= blockCreature.getToughness() && attackCreature.getPower() != 0) {
-                getSecondPlayer().destroyCreature(blockCreature);
-                continue;
+            resolveBlock(attackingCreatures[i], blockingCreatures[i]);
+        }
+    }
+    
+    /**
+     * Evaluates the fight of one attacking creature.
+     * 
+     * @param attackCreature attacking creature
+     * @param blockCreature blocking creature, null if the attacker is not blocked
+     */
+    private void resolveBlock(CreatureCard attackCreature, CreatureCard blockCreature) {
+        if (blockCreature == null) {
+            getSecondPlayer().subtractLives(attackCreature.getPower());
+            return;
+        } 
+        if (attackCreature.getPower() >= blockCreature.getToughness() && attackCreature.getPower() != 0) {
+            getSecondPlayer().destroyCreature(blockCreature);
+            return;
+        }
+        if (blockCreature.getPower() >= attackCreature.getToughness() && blockCreature.getPower() != 0) {
+            getCurrentPlayer().destroyCreature(attackCreature);
+        }
+    }
+
+    @Override
+    public void performAttack(int[] creatures) {
+        for (int id : creatures) {
+            getCardRegistry().getCreature(id).tap();
+        }
+    }
+    
+    /**
+     * Checks ids of creatures which are going to attack, see {@link #testAttackingCreatures(CreatureCard[])}.
+     * Ownership is found in the registry and duplicates are marked, see {@link #nextMark()}.
+     * 
+     * @param attackingCreatures ids of attacking creatures
+     * @return true if all creatures are able to attack
+     */
+    private boolean testAttackingCreatures(int[] attackingCreatures) {
+        CardRegistry cards = getCardRegistry();
+        int seen = nextMark();
+        for (int id : attackingCreatures) {
+            if (!cards.isCreature(id) || marks[id] == seen || cards.getOwner(id) != getCurrentPlayer()) {
+                return false;
+            }
+            marks[id] = seen;
+            CreatureCard card = cards.getCreature(id);
+            if (card.hasSummoningSickness() || !getCurrentPlayer().hasCreatureOnTable(card)) {
+                return false;
             }
-            if (blockCreature.getPower() >= attackCreature.getToughness() && blockCreature.getPower() != 0) {
-                getCurrentPlayer().destroyCreature(attackCreature);
+        }
+        return true;
+    }
+
+    /**
+     * Get new mark of the ids seen by a validation. Marks of the previous validations differ,
+     * so the array indexed by the id is reused without clearing and the validation does not allocate.
+     * 
+     * @return mark of the seen ids
+     */
+    private int nextMark() {
+        int size = getCardRegistry().size();
+        if (marks.length < size || mark == Integer.MAX_VALUE) {
+            marks = new int[size];
+            mark = 0;
+        }
+        return ++mark;
+    }
+
+    @Override
+    public boolean isCreaturesAttackValid(int[] attackingCreatures) {
+        if (!testAttackingCreatures(attackingCreatures)) {
+            return false;
+        }
+        
+        for (int id : attackingCreatures) {
+            if (getCardRegistry().getCreature(id).isTapped()) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+
+    @Override
+    public boolean isCreaturesBlockValid(int[] attackingCreatures, int[] blockingCreatures) {
+        if (attackingCreatures.length != blockingCreatures.length || !testAttackingCreatures(attackingCreatures)) {
+            return false;
+        }
+        
+        CardRegistry cards = getCardRegistry();
+        int seen = nextMark();
+        for (int id : blockingCreatures) {
+            if (id == CardRegistry.NONE) {
                 continue;
             }
+            if (!cards.isCreature(id) || marks[id] == seen || cards.getOwner(id) != getSecondPlayer()) {
+                return false;
+            }
+            marks[id] = seen;
+            CreatureCard card = cards.getCreature(id);
+            if (card.isTapped() || !getSecondPlayer().hasCreatureOnTable(card)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void performBlockAndDamage(int[] attackingCreatures, int[] blockingCreatures) {
+        for (int i = 0; i < attackingCreatures.length; i++) {
+            resolveBlock(getCardRegistry().getCreature(attackingCreatures[i]),
+                    getCardRegistry().getCreature(blockingCreatures[i]));
         }
     }
     
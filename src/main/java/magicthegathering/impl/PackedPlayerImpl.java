@@ -0,0 +1,551 @@
+/**
+ *
+ * @author Filip Valchar
+ */
+package magicthegathering.impl;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongSupplier;
+import magicthegathering.game.AbstractCard;
+import magicthegathering.game.AbstractPlayer;
+import magicthegathering.game.Card;
+import magicthegathering.game.CardStates;
+import magicthegathering.game.CardView;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.ManaType;
+import magicthegathering.game.PackedMana;
+import magicthegathering.game.Player;
+import magicthegathering.game.PlayerSnapshot;
+import magicthegathering.game.Zobrist;
+
+/**
+ * Class PackedPlayerImpl represents player whose cards keep their
+ * state in bit masks indexed by card slot, see {@link CardStates}.
+ * Zones are computed by bitwise operations and untapping all the cards
+ * or preparing all the creatures is a single mask operation.
+ * Player can hold at most {@link CardStates#CAPACITY} cards,
+ * all of them must extend {@link AbstractCard}. Snapshot of the player
+ * is a copy of the masks, so it is restored in constant time, only
+ * destroyed creatures have to be bound to the states again.
+ * Views of the zones compute the masks on every call, so they
+ * do not need to be updated when the cards change.
+ *
+ * @author Filip Valchar
+ */
+public class PackedPlayerImpl extends AbstractPlayer {
+
+    private static final ManaType[] MANA_TYPES = ManaType.values();
+
+    private final CardStates states = new CardStates();
+    private Card[] slots = new Card[0];
+    private long present;
+    private long presentHash;
+    private long lands;
+    private long creatures;
+    private final long[] landsOfMana = new long[MANA_TYPES.length];
+    private final CardView<Card> cardsInHand = new MaskView<>(this::hand);
+    private final CardView<Card> cardsOnTable = new MaskView<>(this::table);
+    private final CardView<LandCard> landsOnTable = new MaskView<>(() -> table() & lands);
+    private final CardView<CreatureCard> creaturesOnTable = new MaskView<>(() -> table() & creatures);
+    private final CardView<LandCard> landsInHand = new MaskView<>(() -> hand() & lands);
+    private final CardView<CreatureCard> creaturesInHand = new MaskView<>(() -> hand() & creatures);
+
+    /**
+     * Constructor. Create new player.
+     *
+     * @param name name of the player
+     */
+    public PackedPlayerImpl(String name) {
+        super(name);
+    }
+
+    @Override
+    public void initCards(Card[] cards) {
+        if (cards.length > CardStates.CAPACITY) {
+            throw new IllegalArgumentException("Player can hold at most " + CardStates.CAPACITY + " cards");
+        }
+        for (long mask = present; mask != 0; mask &= mask - 1) {
+            ((AbstractCard) slots[Long.numberOfTrailingZeros(mask)]).unbindStates();
+        }
+        states.clear(-1L);
+        slots = Arrays.copyOf(cards, cards.length);
+        present = 0;
+        presentHash = 0;
+        lands = 0;
+        creatures = 0;
+        Arrays.fill(landsOfMana, 0);
+
+        for (int slot = 0; slot < slots.length; slot++) {
+            addCard(slot);
+        }
+        dealt();
+    }
+
+    /**
+     * Bind card in the slot to the states of this player and remember its kind.
+     *
+     * @param slot slot of the card
+     */
+    private void addCard(int slot) {
+        if (!(slots[slot] instanceof AbstractCard)) {
+            throw new IllegalArgumentException("Card " + slots[slot] + " does not extend AbstractCard");
+        }
+        long bit = CardStates.bit(slot);
+        ((AbstractCard) slots[slot]).setListener(null);
+        ((AbstractCard) slots[slot]).bindStates(states, slot);
+        present |= bit;
+        presentHash ^= Zobrist.key(slot, Zobrist.PRESENT);
+        if (slots[slot] instanceof LandCard) {
+            lands |= bit;
+            landsOfMana[((LandCard) slots[slot]).getManaType().ordinal()] |= bit;
+        } else if (slots[slot] instanceof CreatureCard) {
+            creatures |= bit;
+        }
+    }
+
+    /**
+     * Find slot of the card.
+     *
+     * @param card searched card
+     * @return slot of the card, -1 if the card does not belong to this player
+     */
+    private int slotOf(Card card) {
+        if (!(card instanceof AbstractCard) || ((AbstractCard) card).getStates() != states) {
+            return -1;
+        }
+        int slot = ((AbstractCard) card).getSlot();
+        return (present & CardStates.bit(slot)) != 0 ? slot : -1;
+    }
+
+    /**
+     * Check whether the card is in player's hand and is of the given kind.
+     *
+     * @param card checked card
+     * @param kind bit mask of cards of the kind
+     * @return true if the card is in hand
+     */
+    private boolean isInHand(Card card, long kind) {
+        int slot = slotOf(card);
+        return slot != -1 && (hand() & kind & CardStates.bit(slot)) != 0;
+    }
+
+    private long hand() {
+        return present & ~states.getOnTable();
+    }
+
+    private long table() {
+        return present & states.getOnTable();
+    }
+
+    private long untappedLandsOnTable() {
+        return table() & lands & ~states.getTapped();
+    }
+
+    /**
+     * Select cards of the slots in the mask.
+     *
+     * @param mask bit mask of slots
+     * @param empty empty array determining the type of the cards
+     * @return new array of selected cards
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Card> T[] select(long mask, T[] empty) {
+        T[] result = Arrays.copyOf(empty, Long.bitCount(mask));
+        int i = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            result[i++] = (T) slots[Long.numberOfTrailingZeros(rest)];
+        }
+        return result;
+    }
+
+    /**
+     * Copy cards of the slots in the mask into the buffer, as many as fit.
+     *
+     * @param mask bit mask of slots
+     * @param buffer array receiving the cards
+     * @return number of selected cards
+     */
+    private int fill(long mask, Card[] buffer) {
+        int i = 0;
+        for (long rest = mask; rest != 0 && i < buffer.length; rest &= rest - 1) {
+            buffer[i++] = slots[Long.numberOfTrailingZeros(rest)];
+        }
+        return Long.bitCount(mask);
+    }
+
+    @Override
+    public Card[] getCardsInHand() {
+        return select(hand(), new Card[0]);
+    }
+
+    @Override
+    public int getCardsInHand(Card[] buffer) {
+        return fill(hand(), buffer);
+    }
+
+    @Override
+    public Card[] getCardsOnTable() {
+        return select(table(), new Card[0]);
+    }
+
+    @Override
+    public int getCardsOnTable(Card[] buffer) {
+        return fill(table(), buffer);
+    }
+
+    @Override
+    public LandCard[] getLandsOnTable() {
+        return select(table() & lands, new LandCard[0]);
+    }
+
+    @Override
+    public int getLandsOnTable(LandCard[] buffer) {
+        return fill(table() & lands, buffer);
+    }
+
+    @Override
+    public CreatureCard[] getCreaturesOnTable() {
+        return select(table() & creatures, new CreatureCard[0]);
+    }
+
+    @Override
+    public int getCreaturesOnTable(CreatureCard[] buffer) {
+        return fill(table() & creatures, buffer);
+    }
+
+    @Override
+    public LandCard[] getLandsInHand() {
+        return select(hand() & lands, new LandCard[0]);
+    }
+
+    @Override
+    public int getLandsInHand(LandCard[] buffer) {
+        return fill(hand() & lands, buffer);
+    }
+
+    @Override
+    public CreatureCard[] getCreaturesInHand() {
+        return select(hand() & creatures, new CreatureCard[0]);
+    }
+
+    @Override
+    public int getCreaturesInHand(CreatureCard[] buffer) {
+        return fill(hand() & creatures, buffer);
+    }
+
+    @Override
+    public CardView<Card> getCardsInHandView() {
+        return cardsInHand;
+    }
+
+    @Override
+    public CardView<Card> getCardsOnTableView() {
+        return cardsOnTable;
+    }
+
+    @Override
+    public CardView<LandCard> getLandsOnTableView() {
+        return landsOnTable;
+    }
+
+    @Override
+    public CardView<CreatureCard> getCreaturesOnTableView() {
+        return creaturesOnTable;
+    }
+
+    @Override
+    public CardView<LandCard> getLandsInHandView() {
+        return landsInHand;
+    }
+
+    @Override
+    public CardView<CreatureCard> getCreaturesInHandView() {
+        return creaturesInHand;
+    }
+
+    @Override
+    public int[] getCreatureIdsOnTable() {
+        return ids(table() & creatures);
+    }
+
+    @Override
+    public int getCreatureIdsOnTable(int[] buffer) {
+        return ids(table() & creatures, buffer);
+    }
+
+    @Override
+    public int[] getCreatureIdsInHand() {
+        return ids(hand() & creatures);
+    }
+
+    @Override
+    public int getCreatureIdsInHand(int[] buffer) {
+        return ids(hand() & creatures, buffer);
+    }
+
+    /**
+     * Get registry ids of the cards of the slots in the mask.
+     *
+     * @param mask bit mask of slots
+     * @return new array of ids
+     */
+    private int[] ids(long mask) {
+        int[] ids = new int[Long.bitCount(mask)];
+        ids(mask, ids);
+        return ids;
+    }
+
+    /**
+     * Copy registry ids of the cards of the slots in the mask, as many as fit.
+     *
+     * @param mask bit mask of slots
+     * @param buffer array receiving the ids
+     * @return number of selected cards
+     */
+    private int ids(long mask, int[] buffer) {
+        int i = 0;
+        for (long rest = mask; rest != 0 && i < buffer.length; rest &= rest - 1) {
+            buffer[i++] = ((AbstractCard) slots[Long.numberOfTrailingZeros(rest)]).getRegistryId();
+        }
+        return Long.bitCount(mask);
+    }
+
+    @Override
+    public boolean hasCreaturesOnTable(CreatureCard[] creatures) {
+        for (CreatureCard creature : creatures) {
+            if (creature != null && !hasCreatureOnTable(creature)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasCreatureOnTable(CreatureCard creature) {
+        int slot = slotOf(creature);
+        return slot != -1 && (table() & creatures & CardStates.bit(slot)) != 0;
+    }
+
+    @Override
+    public void untapAllCards() {
+        states.untap(table());
+    }
+
+    @Override
+    public void prepareAllCreatures() {
+        states.unsetSummoningSickness(table() & creatures);
+    }
+
+    @Override
+    public boolean putLandOnTable(LandCard landCard) {
+        if (!isInHand(landCard, lands)) {
+            return false;
+        }
+
+        landCard.putOnTable();
+        return true;
+    }
+
+    @Override
+    public boolean putCreatureOnTable(CreatureCard creatureCard) {
+        if (!isInHand(creatureCard, creatures)) {
+            return false;
+        }
+        if (!hasManaForCreature(creatureCard)) {
+            return false;
+        }
+
+        tapManaForCreature(creatureCard);
+        creatureCard.putOnTable();
+        creatureCard.setSummoningSickness();
+        return true;
+    }
+
+    @Override
+    public boolean hasManaForCreature(CreatureCard creature) {
+        return PackedMana.covers(calculateUntappedMana(), creature.getPackedCost());
+    }
+
+    @Override
+    public int[] calculateUntappedLands() {
+        return PackedMana.unpack(calculateUntappedMana());
+    }
+
+    @Override
+    public long calculateUntappedMana() {
+        long untapped = untappedLandsOnTable();
+        long untappedMana = PackedMana.EMPTY;
+
+        for (ManaType mana : MANA_TYPES) {
+            untappedMana += PackedMana.of(mana) * Long.bitCount(untapped & landsOfMana[mana.ordinal()]);
+        }
+
+        return untappedMana;
+    }
+
+    @Override
+    public void tapManaForCreature(CreatureCard creature) {
+        long untapped = untappedLandsOnTable();
+        long tapped = 0;
+
+        for (ManaType mana : MANA_TYPES) {
+            long lands = untapped & landsOfMana[mana.ordinal()];
+            for (int i = PackedMana.amount(creature.getPackedCost(), mana); i > 0 && lands != 0; i--) {
+                tapped |= Long.lowestOneBit(lands);
+                lands &= lands - 1;
+            }
+        }
+        states.tap(tapped);
+    }
+
+    @Override
+    public void destroyCreature(CreatureCard creature) {
+        int slot = slotOf(creature);
+        if (slot == -1 || (creatures & CardStates.bit(slot)) == 0) {
+            return;
+        }
+        ((AbstractCard) creature).unbindStates();
+        states.clear(CardStates.bit(slot));
+        present &= ~CardStates.bit(slot);
+        presentHash ^= Zobrist.key(slot, Zobrist.PRESENT);
+    }
+
+    /**
+     * Flags of destroyed creatures are cleared, so the hash of the states covers only present cards.
+     *
+     * @return hash of present cards and their flags
+     */
+    @Override
+    protected long getCardsZobristHash() {
+        return presentHash ^ states.getZobristHash();
+    }
+
+    @Override
+    public PlayerSnapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    @Override
+    public void restore(PlayerSnapshot snapshot) {
+        if (snapshot.getPlayer() != this || ((Snapshot) snapshot).slots != slots) {
+            throw new IllegalArgumentException("Snapshot does not belong to the current cards of " + getName());
+        }
+        Snapshot saved = (Snapshot) snapshot;
+        for (long mask = saved.present & ~present; mask != 0; mask &= mask - 1) {
+            int slot = Long.numberOfTrailingZeros(mask);
+            ((AbstractCard) slots[slot]).bindStates(states, slot);
+        }
+        presentHash ^= Zobrist.keys(present ^ saved.present, Zobrist.PRESENT);
+        present = saved.present;
+        states.restore(saved.onTable, saved.tapped, saved.summoningSickness);
+        subtractLives(getLife() - saved.life);
+    }
+
+    /**
+     * Class MaskView is the view of the cards of the slots in the mask of a zone.
+     * The iterator keeps the mask it started with and fails if the current mask differs
+     * or if the player got new cards.
+     *
+     * @param <T> kind of the cards
+     */
+    private final class MaskView<T extends Card> implements CardView<T> {
+
+        private final LongSupplier zone;
+
+        private MaskView(LongSupplier zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(zone.getAsLong());
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return zone.getAsLong() == 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            long mask = zone.getAsLong();
+            if (index < 0 || index >= Long.bitCount(mask)) {
+                throw new IndexOutOfBoundsException("Index " + index + " of zone with " + Long.bitCount(mask)
+                        + " cards");
+            }
+            for (int i = 0; i < index; i++) {
+                mask &= mask - 1;
+            }
+            return (T) slots[Long.numberOfTrailingZeros(mask)];
+        }
+
+        @Override
+        public boolean contains(Card card) {
+            int slot = slotOf(card);
+            return slot != -1 && (zone.getAsLong() & CardStates.bit(slot)) != 0;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private final Card[] expectedSlots = slots;
+                private final long expected = zone.getAsLong();
+                private long rest = expected;
+
+                @Override
+                public boolean hasNext() {
+                    return rest != 0;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (slots != expectedSlots || zone.getAsLong() != expected) {
+                        throw new ConcurrentModificationException("Zone changed during iteration");
+                    }
+                    if (rest == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    T card = (T) slots[Long.numberOfTrailingZeros(rest)];
+                    rest &= rest - 1;
+                    return card;
+                }
+            };
+        }
+    }
+
+    /**
+     * Class Snapshot holds copy of the masks and lives of the player.
+     */
+    private static final class Snapshot implements PlayerSnapshot {
+
+        private final PackedPlayerImpl player;
+        private final Card[] slots;
+        private final long present;
+        private final long onTable;
+        private final long tapped;
+        private final long summoningSickness;
+        private final int life;
+
+        private Snapshot(PackedPlayerImpl player) {
+            this.player = player;
+            this.slots = player.slots;
+            this.present = player.present;
+            this.onTable = player.states.getOnTable();
+            this.tapped = player.states.getTapped();
+            this.summoningSickness = player.states.getSummoningSickness();
+            this.life = player.getLife();
+        }
+
+        @Override
+        public Player getPlayer() {
+            return player;
+        }
+    }
+
+}
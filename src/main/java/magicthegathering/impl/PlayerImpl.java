@@ -5,23 +5,54 @@
 package magicthegathering.impl;
 
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import magicthegathering.game.AbstractCard;
+import magicthegathering.game.AbstractPlayer;
 import magicthegathering.game.Card;
+import magicthegathering.game.CardListener;
+import magicthegathering.game.CardRegistry;
+import magicthegathering.game.CardView;
 import magicthegathering.game.CreatureCard;
 import magicthegathering.game.LandCard;
-import magicthegathering.game.ManaType;
+import magicthegathering.game.PackedMana;
 import magicthegathering.game.Player;
+import magicthegathering.game.PlayerSnapshot;
+import magicthegathering.game.Zobrist;
 
 /**
- * Class PlayerImpl represents player in the game 
- * and implements Player interface.
+ * Class PlayerImpl represents player in the game, 
+ * extends AbstractPlayer and implements Player interface.
+ * Every change of the zones gets new zone version, so restoring
+ * a snapshot rebuilds the zones only when they changed. Slots of the cards
+ * changed since the last snapshot or restore are marked, so restoring that
+ * snapshot again restores only the marked cards and the next snapshot saves only them.
+ * Zobrist hash of the cards is updated by the notifications of the cards.
+ * Cards of every zone are kept in the order of the initial cards, like the original
+ * filtering of the deck, so indexes of the cards do not depend on the order of the moves.
+ * Views of the zones are the zones themselves, see {@link CardZone}.
  * 
  * @author Filip Valchar
  */
-public class PlayerImpl implements Player {
+public class PlayerImpl extends AbstractPlayer {
 
-    private final String name;
-    private int lives;
-    private Card[] cards;
+    private final CardZone<LandCard> landsInHand = new CardZone<>(new LandCard[0]);
+    private final CardZone<CreatureCard> creaturesInHand = new CardZone<>(new CreatureCard[0]);
+    private final CardZone<LandCard> landsOnTable = new CardZone<>(new LandCard[0]);
+    private final CardZone<CreatureCard> creaturesOnTable = new CardZone<>(new CreatureCard[0]);
+    private final CardZone<Card> cardsInHand = new CardZone<>(new Card[0]);
+    private final CardZone<Card> cardsOnTable = new CardZone<>(new Card[0]);
+    private final CardListener cardObserver = new CardObserver();
+    private final Map<Card, Integer> foreignSlots = new IdentityHashMap<>();
+    private Card[] deck = new Card[0];
+    private long[] changedSlots = new long[0];
+    private Snapshot lastSnapshot;
+    private long cardsHash;
+    private long untappedMana;
+    private boolean allCardsObserved;
+    private long zoneVersion;
+    private long lastZoneVersion;
+    private long initVersion;
     
     /**
      * Constructor. Create new player.
@@ -29,111 +60,392 @@ public class PlayerImpl implements Player {
      * @param name name of the player 
      */
     public PlayerImpl(String name) {
-        this.name = name;
-        this.lives = INIT_LIVES;
+        super(name);
     }
-    
+
     @Override
-    public String toString() {
-        return getName() + "(" + getLife() +")";
+    public void initCards(Card[] cards) {
+        detachObserver(cardsInHand);
+        detachObserver(cardsOnTable);
+        clearZones();
+        untappedMana = PackedMana.EMPTY;
+        allCardsObserved = true;
+        foreignSlots.clear();
+        deck = Arrays.copyOf(cards, cards.length);
+        changedSlots = new long[(cards.length + Long.SIZE - 1) / Long.SIZE];
+        lastSnapshot = null;
+        cardsHash = 0;
+        zonesChanged();
+        initVersion = zoneVersion;
+        
+        for (int i = 0; i < cards.length; i++) {
+            addCard(cards[i], i);
+        }
+        dealt();
     }
     
-    @Override
-    public String getName() {
-        return name;
+    /**
+     * Remove all cards from the zones.
+     */
+    private void clearZones() {
+        cardsInHand.clear();
+        landsInHand.clear();
+        creaturesInHand.clear();
+        cardsOnTable.clear();
+        landsOnTable.clear();
+        creaturesOnTable.clear();
+    }
+    
+    /**
+     * Give the zones new version.
+     */
+    private void zonesChanged() {
+        zoneVersion = ++lastZoneVersion;
+    }
+    
+    /**
+     * Mark the card as changed since the last snapshot or restore.
+     * 
+     * @param slot slot of the changed card
+     */
+    private void cardChanged(int slot) {
+        changedSlots[slot / Long.SIZE] |= 1L << (slot % Long.SIZE);
+    }
+    
+    /**
+     * Stop observing cards of the zone.
+     * 
+     * @param zone zone of player's cards
+     */
+    private void detachObserver(CardZone<?> zone) {
+        for (int i = 0; i < zone.size(); i++) {
+            Card card = zone.get(i);
+            if (card instanceof AbstractCard && ((AbstractCard) card).getListener() == cardObserver) {
+                ((AbstractCard) card).setListener(null);
+            }
+        }
+    }
+    
+    /**
+     * Put card into the zone matching its kind and position.
+     * 
+     * @param card added card
+     * @param slot slot of the card, its position among the initial cards
+     */
+    private void addCard(Card card, int slot) {
+        cardsHash ^= Zobrist.card(slot, card);
+        if (card instanceof AbstractCard) {
+            ((AbstractCard) card).unbindStates();
+            ((AbstractCard) card).setSlot(slot);
+            ((AbstractCard) card).setListener(cardObserver);
+        } else {
+            foreignSlots.put(card, slot);
+            allCardsObserved = false;
+        }
+        addToZones(card);
+        if (card instanceof LandCard && card.isOnTable() && !card.isTapped()) {
+            untappedMana += PackedMana.of(((LandCard) card).getManaType());
+        }
+    }
+    
+    /**
+     * Append card to the zones of its place and kind.
+     * 
+     * @param card card following all the cards of its zones
+     */
+    private void addToZones(Card card) {
+        (card.isOnTable() ? cardsOnTable : cardsInHand).add(card);
+        if (card instanceof LandCard) {
+            (card.isOnTable() ? landsOnTable : landsInHand).add((LandCard) card);
+        } else if (card instanceof CreatureCard) {
+            (card.isOnTable() ? creaturesOnTable : creaturesInHand).add((CreatureCard) card);
+        }
+    }
+    
+    /**
+     * Find slot of the card, the cards extending AbstractCard keep it themselves.
+     * 
+     * @param card card of the player
+     * @return position of the card among the initial cards
+     */
+    private int slotOf(Card card) {
+        return card instanceof AbstractCard ? ((AbstractCard) card).getSlot() : foreignSlots.get(card);
+    }
+    
+    /**
+     * Insert card into the zone after the cards which precede it among the initial cards.
+     * 
+     * @param zone zone of player's cards
+     * @param card inserted card
+     */
+    private <T extends Card> void insertInOrder(CardZone<T> zone, T card) {
+        int slot = slotOf(card);
+        int index = zone.size();
+        while (index > 0 && slotOf(zone.get(index - 1)) > slot) {
+            index--;
+        }
+        zone.add(index, card);
+    }
+    
+    /**
+     * Move card which was put on the table from hand zone to table zone.
+     * Nothing happens if the card is not in player's hand.
+     * 
+     * @param card card put on the table
+     */
+    private void moveToTable(Card card) {
+        if (!cardsInHand.remove(card)) {
+            return;
+        }
+        insertInOrder(cardsOnTable, card);
+        zonesChanged();
+        if (card instanceof LandCard) {
+            landsInHand.remove(card);
+            insertInOrder(landsOnTable, (LandCard) card);
+            if (!card.isTapped()) {
+                untappedMana += PackedMana.of(((LandCard) card).getManaType());
+            }
+        } else if (card instanceof CreatureCard) {
+            creaturesInHand.remove(card);
+            insertInOrder(creaturesOnTable, (CreatureCard) card);
+        }
+    }
+    
+    /**
+     * Check whether the card notifies this player about its changes.
+     * 
+     * @param card card of the player
+     * @return true if the card is observed by this player
+     */
+    private boolean isObserved(Card card) {
+        return card instanceof AbstractCard && ((AbstractCard) card).getListener() == cardObserver;
     }
+    
+    /**
+     * Class CardObserver keeps zones and untapped mana of the player 
+     * up to date when player's cards change.
+     */
+    private class CardObserver implements CardListener {
+
+        @Override
+        public void cardPutOnTable(Card card) {
+            int slot = ((AbstractCard) card).getSlot();
+            cardsHash ^= Zobrist.key(slot, Zobrist.ON_TABLE);
+            cardChanged(slot);
+            moveToTable(card);
+        }
+
+        @Override
+        public void cardTapped(Card card) {
+            int slot = ((AbstractCard) card).getSlot();
+            cardsHash ^= Zobrist.key(slot, Zobrist.TAPPED);
+            cardChanged(slot);
+            if (card instanceof LandCard && card.isOnTable()) {
+                untappedMana -= PackedMana.of(((LandCard) card).getManaType());
+            }
+        }
 
+        @Override
+        public void cardUntapped(Card card) {
+            int slot = ((AbstractCard) card).getSlot();
+            cardsHash ^= Zobrist.key(slot, Zobrist.TAPPED);
+            cardChanged(slot);
+            if (card instanceof LandCard && card.isOnTable()) {
+                untappedMana += PackedMana.of(((LandCard) card).getManaType());
+            }
+        }
+
+        @Override
+        public void summoningSicknessChanged(CreatureCard creature) {
+            int slot = ((AbstractCard) creature).getSlot();
+            cardsHash ^= Zobrist.key(slot, Zobrist.SUMMONING_SICKNESS);
+            cardChanged(slot);
+        }
+    }
+    
     @Override
-    public int getLife() {
-        return lives;
+    public Card[] getCardsInHand() {
+        return cardsInHand.toArray();
     }
 
     @Override
-    public void subtractLives(int lives) {
-        this.lives = getLife() - lives;
+    public int getCardsInHand(Card[] buffer) {
+        return cardsInHand.fill(buffer, 0);
     }
 
     @Override
-    public boolean isDead() {
-        return getLife() <= 0;
+    public Card[] getCardsOnTable() {
+        return cardsOnTable.toArray();
     }
 
     @Override
-    public void initCards(Card[] cards) {
-        this.cards = Arrays.copyOf(cards, cards.length);
+    public int getCardsOnTable(Card[] buffer) {
+        return cardsOnTable.fill(buffer, 0);
     }
 
     @Override
-    public Card[] getCardsInHand() {
-        return ArrayUtils.filterInHand(this.cards);
+    public LandCard[] getLandsOnTable() {
+        return landsOnTable.toArray();
     }
 
     @Override
-    public Card[] getCardsOnTable() {
-        return ArrayUtils.filterOnTable(this.cards);
+    public int getLandsOnTable(LandCard[] buffer) {
+        return landsOnTable.fill(buffer, 0);
     }
 
     @Override
-    public LandCard[] getLandsOnTable() {
-        Card[] cardsOnTable = getCardsOnTable();
-        return ArrayUtils.filterLands(cardsOnTable);
+    public CreatureCard[] getCreaturesOnTable() {
+        return creaturesOnTable.toArray();
     }
 
     @Override
-    public CreatureCard[] getCreaturesOnTable() {
-        Card[] cardsOnTable = getCardsOnTable();
-        return ArrayUtils.filterCreatures(cardsOnTable);
+    public int getCreaturesOnTable(CreatureCard[] buffer) {
+        return creaturesOnTable.fill(buffer, 0);
     }
 
     @Override
     public LandCard[] getLandsInHand() {
-        Card[] cardsInHand = getCardsInHand();
-        return ArrayUtils.filterLands(cardsInHand);
+        return landsInHand.toArray();
+    }
+
+    @Override
+    public int getLandsInHand(LandCard[] buffer) {
+        return landsInHand.fill(buffer, 0);
     }
 
     @Override
     public CreatureCard[] getCreaturesInHand() {
-        Card[] cardsInHand = getCardsInHand();
-        return ArrayUtils.filterCreatures(cardsInHand);
+        return creaturesInHand.toArray();
+    }
+
+    @Override
+    public int getCreaturesInHand(CreatureCard[] buffer) {
+        return creaturesInHand.fill(buffer, 0);
+    }
+
+    @Override
+    public CardView<Card> getCardsInHandView() {
+        return cardsInHand;
+    }
+
+    @Override
+    public CardView<Card> getCardsOnTableView() {
+        return cardsOnTable;
+    }
+
+    @Override
+    public CardView<LandCard> getLandsOnTableView() {
+        return landsOnTable;
+    }
+
+    @Override
+    public CardView<CreatureCard> getCreaturesOnTableView() {
+        return creaturesOnTable;
+    }
+
+    @Override
+    public CardView<LandCard> getLandsInHandView() {
+        return landsInHand;
+    }
+
+    @Override
+    public CardView<CreatureCard> getCreaturesInHandView() {
+        return creaturesInHand;
+    }
+
+    @Override
+    public int[] getCreatureIdsOnTable() {
+        int[] ids = new int[creaturesOnTable.size()];
+        ids(creaturesOnTable, ids);
+        return ids;
+    }
+
+    @Override
+    public int getCreatureIdsOnTable(int[] buffer) {
+        return ids(creaturesOnTable, buffer);
+    }
+
+    @Override
+    public int[] getCreatureIdsInHand() {
+        int[] ids = new int[creaturesInHand.size()];
+        ids(creaturesInHand, ids);
+        return ids;
+    }
+
+    @Override
+    public int getCreatureIdsInHand(int[] buffer) {
+        return ids(creaturesInHand, buffer);
+    }
+    
+    /**
+     * Copy registry ids of the cards of the zone, as many as fit.
+     * 
+     * @param zone zone of player's cards
+     * @param buffer array receiving the ids
+     * @return number of cards in the zone
+     */
+    private static int ids(CardZone<?> zone, int[] buffer) {
+        for (int i = 0; i < zone.size() && i < buffer.length; i++) {
+            Card card = zone.get(i);
+            buffer[i] = card instanceof AbstractCard ? ((AbstractCard) card).getRegistryId() : CardRegistry.NONE;
+        }
+        return zone.size();
+    }
+
+    @Override
+    public boolean hasCreaturesOnTable(CreatureCard[] creatures) {
+        for (CreatureCard creature : creatures) {
+            if (creature != null && !hasCreatureOnTable(creature)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Every observed card belongs to this player, so the check needs no search.
+     * 
+     * @param creature checked creature
+     * @return true if the creature is on player's table
+     */
+    @Override
+    public boolean hasCreatureOnTable(CreatureCard creature) {
+        if (isObserved(creature)) {
+            return creature.isOnTable();
+        }
+        return !allCardsObserved && creaturesOnTable.contains(creature);
     }
 
     @Override
     public void untapAllCards() {
-        Card[] cardsOnTable = getCardsOnTable();      
-        for (Card card : cardsOnTable) {
-            card.untap();
+        for (int i = 0; i < cardsOnTable.size(); i++) {
+            cardsOnTable.get(i).untap();
         }
     }
 
     @Override
     public void prepareAllCreatures() {
-        CreatureCard[] creaturesInHand = getCreaturesOnTable();      
-        for (CreatureCard card : creaturesInHand) {
-            card.unsetSummoningSickness();
+        for (int i = 0; i < creaturesOnTable.size(); i++) {
+            creaturesOnTable.get(i).unsetSummoningSickness();
         }
     }
 
     @Override
     public boolean putLandOnTable(LandCard landCard) {
-        LandCard[] lands = getLandsInHand();
-        
-        if (!ArrayUtils.containsCard(landCard, lands)) {
+        if (!landsInHand.contains(landCard)) {
             return false;
         }
         
-        landCard.putOnTable();  
+        landCard.putOnTable();
+        if (!isObserved(landCard)) {
+            moveToTable(landCard);
+        }
         return true;
     }
 
     @Override
     public boolean putCreatureOnTable(CreatureCard creatureCard) {
-        CreatureCard[] creaturesInHand = getCreaturesInHand();
-        CreatureCard[] creaturesOnTable = getCreaturesOnTable();
-        
-        if (ArrayUtils.containsCard(creatureCard, creaturesOnTable)) {
-            return false;
-        }
-        if (!ArrayUtils.containsCard(creatureCard, creaturesInHand)) {
+        if (!creaturesInHand.contains(creatureCard)) {
             return false;
         }
         if (!hasManaForCreature(creatureCard)) {
@@ -141,56 +453,338 @@ public class PlayerImpl implements Player {
         }
         
         tapManaForCreature(creatureCard);
-        creatureCard.putOnTable(); 
+        creatureCard.putOnTable();
+        if (!isObserved(creatureCard)) {
+            moveToTable(creatureCard);
+        }
         creatureCard.setSummoningSickness();   
         return true;
     }
 
     @Override
     public boolean hasManaForCreature(CreatureCard creature) {
-        int[] untappedLands = calculateUntappedLands();
-        
-        for (ManaType mana : ManaType.values()) {
-            if (creature.getSpecialCost(mana) > untappedLands[mana.ordinal()]) {
-                return false;
-            }
-        }
-        
-        return true;
+        return PackedMana.covers(calculateUntappedMana(), creature.getPackedCost());
     }
 
     @Override
     public int[] calculateUntappedLands() {
-        LandCard[] lands = getLandsOnTable();
-        int[] untappedLands = {0, 0, 0, 0, 0};
+        return PackedMana.unpack(calculateUntappedMana());
+    }
+
+    /**
+     * Untapped mana is maintained when lands are put on the table, tapped or untapped,
+     * it is recounted only if some card does not extend AbstractCard and cannot be observed.
+     * With assertions enabled the maintained value is checked against the recount.
+     * 
+     * @return amounts of mana packed by PackedMana
+     */
+    @Override
+    public long calculateUntappedMana() {
+        if (!allCardsObserved) {
+            return countUntappedMana();
+        }
+        assert untappedMana == countUntappedMana() : "Untapped mana differs from lands on the table";
+        return untappedMana;
+    }
+    
+    /**
+     * Count mana of untapped lands on the table from scratch.
+     * 
+     * @return amounts of mana packed by PackedMana
+     */
+    long countUntappedMana() {
+        long mana = PackedMana.EMPTY;
         
-        for (LandCard card : lands) {
+        for (int i = 0; i < landsOnTable.size(); i++) {
+            LandCard card = landsOnTable.get(i);
             if (!card.isTapped()) {
-                ManaType mana = card.getManaType();
-                untappedLands[mana.ordinal()] += 1;
+                mana += PackedMana.of(card.getManaType());
             }
         }
         
-        return untappedLands;
+        return mana;
     }
 
     @Override
     public void tapManaForCreature(CreatureCard creature) {
-        LandCard[] lands = getLandsOnTable();
-        
-        for (LandCard card : lands) {
-            if (!card.isTapped()) {
-                if (creature.getSpecialCost(card.getManaType()) != 0) {
-                    card.tap();
-                }
+        long unpaid = creature.getPackedCost();
+        for (int i = 0; i < landsOnTable.size() && unpaid != PackedMana.EMPTY; i++) {
+            LandCard card = landsOnTable.get(i);
+            long mana = PackedMana.of(card.getManaType());
+            if (!card.isTapped() && PackedMana.covers(unpaid, mana)) {
+                card.tap();
+                unpaid -= mana;
             }
         }
     }
 
     @Override
-    public void destroyCreature(CreatureCard creature) { 
-        initCards(ArrayUtils.removeCard(creature, this.cards));
+    public void destroyCreature(CreatureCard creature) {
+        if (!creaturesOnTable.remove(creature) && !creaturesInHand.remove(creature)) {
+            return;
+        }
+        (creature.isOnTable() ? cardsOnTable : cardsInHand).remove(creature);
+        zonesChanged();
+        int slot = slotOf(creature);
+        cardsHash ^= Zobrist.card(slot, creature);
+        cardChanged(slot);
+        if (creature instanceof AbstractCard) {
+            ((AbstractCard) creature).setListener(null);
+        }
     }
 
-}
+    /**
+     * Hash is maintained by the notifications of the cards, it is recounted only if some card
+     * does not extend AbstractCard. With assertions enabled the maintained hash is checked against the recount.
+     * 
+     * @return hash of the cards in the zones
+     */
+    @Override
+    protected long getCardsZobristHash() {
+        if (!allCardsObserved) {
+            return countCardsZobristHash();
+        }
+        assert cardsHash == countCardsZobristHash() : "Zobrist hash differs from cards in the zones";
+        return cardsHash;
+    }
+    
+    /**
+     * Count hash of the cards in the zones from scratch.
+     * 
+     * @return xor of the keys of the flags of all the cards
+     */
+    private long countCardsZobristHash() {
+        long hash = 0;
+        for (CardZone<?> zone : new CardZone<?>[] {cardsInHand, cardsOnTable}) {
+            for (int i = 0; i < zone.size(); i++) {
+                hash ^= Zobrist.card(slotOf(zone.get(i)), zone.get(i));
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public PlayerSnapshot snapshot() {
+        Snapshot snapshot = new Snapshot(this);
+        lastSnapshot = snapshot;
+        Arrays.fill(changedSlots, 0);
+        return snapshot;
+    }
+
+    /**
+     * Restoring the snapshot which was taken or restored last restores only the cards changed since then,
+     * so repeated restores of one snapshot take time proportional to the changed state. Other snapshots,
+     * or any snapshot if some card does not extend AbstractCard, restore all the cards.
+     * 
+     * @param snapshot snapshot of this player
+     */
+    @Override
+    public void restore(PlayerSnapshot snapshot) {
+        if (snapshot.getPlayer() != this || ((Snapshot) snapshot).initVersion != initVersion) {
+            throw new IllegalArgumentException("Snapshot does not belong to the current cards of " + getName());
+        }
+        Snapshot saved = (Snapshot) snapshot;
+        if (saved.zoneVersion != zoneVersion) {
+            restoreZones(saved);
+        }
+        if (saved == lastSnapshot && allCardsObserved) {
+            restoreChangedCards(saved);
+        } else {
+            for (int slot = 0; slot < deck.length; slot++) {
+                restoreCard(deck[slot], saved.flagsAt(slot));
+            }
+        }
+        lastSnapshot = saved;
+        Arrays.fill(changedSlots, 0);
+        untappedMana = saved.untappedMana;
+        cardsHash = saved.cardsHash;
+        subtractLives(getLife() - saved.life);
+    }
+    
+    /**
+     * Restore the cards marked as changed.
+     * 
+     * @param saved saved state
+     */
+    private void restoreChangedCards(Snapshot saved) {
+        for (int word = 0; word < changedSlots.length; word++) {
+            for (long rest = changedSlots[word]; rest != 0; rest &= rest - 1) {
+                int slot = word * Long.SIZE + Long.numberOfTrailingZeros(rest);
+                restoreCard(deck[slot], saved.flagsAt(slot));
+            }
+        }
+    }
+    
+    /**
+     * Fill the zones by the saved cards and observe them again, so destroyed creatures return.
+     * Saved cards are in the order of the zones, the cards in hand first.
+     * 
+     * @param saved saved state
+     */
+    private void restoreZones(Snapshot saved) {
+        clearZones();
+        for (int i = 0; i < saved.cards.length; i++) {
+            Card card = saved.cards[i];
+            boolean onTable = i >= saved.inHand;
+            (onTable ? cardsOnTable : cardsInHand).add(card);
+            if (card instanceof LandCard) {
+                (onTable ? landsOnTable : landsInHand).add((LandCard) card);
+            } else if (card instanceof CreatureCard) {
+                (onTable ? creaturesOnTable : creaturesInHand).add((CreatureCard) card);
+            }
+            if (card instanceof AbstractCard) {
+                ((AbstractCard) card).setListener(cardObserver);
+            }
+        }
+        zoneVersion = saved.zoneVersion;
+    }
+    
+    /**
+     * Set saved state of the card if it differs from the current one. The listener
+     * is not notified, untapped mana is restored afterwards.
+     * 
+     * @param card restored card
+     * @param flags saved flags of the card
+     */
+    private static void restoreCard(Card card, int flags) {
+        boolean onTable = (flags & Snapshot.ON_TABLE) != 0;
+        boolean tapped = (flags & Snapshot.TAPPED) != 0;
+        if (card.isOnTable() != onTable || card.isTapped() != tapped) {
+            if (card instanceof AbstractCard) {
+                ((AbstractCard) card).restoreState(onTable, tapped);
+            } else if (card.isOnTable() != onTable) {
+                throw new IllegalStateException("Card " + card + " cannot return to the hand");
+            } else if (tapped) {
+                card.tap();
+            } else {
+                card.untap();
+            }
+        }
+        boolean sick = (flags & Snapshot.SUMMONING_SICKNESS) != 0;
+        if (card instanceof CreatureCard && ((CreatureCard) card).hasSummoningSickness() != sick) {
+            if (sick) {
+                ((CreatureCard) card).setSummoningSickness();
+            } else {
+                ((CreatureCard) card).unsetSummoningSickness();
+            }
+        }
+    }
+    
+    /**
+     * Class Snapshot holds cards of the zones, flags of the cards and lives of the player.
+     * Snapshot taken after another one, while all the cards are observed, is based on it: it holds
+     * the flags of the cards changed since the base, sorted by their slots, and shares the zones
+     * with the base if they did not change, so taking it takes time proportional to the changes.
+     * Every {@value #MAX_DEPTH} based snapshots the flags of all the cards are saved again,
+     * indexed by their slots, so a flag is found in bounded time.
+     */
+    private static final class Snapshot implements PlayerSnapshot {
+
+        private static final int ON_TABLE = 1;
+        private static final int TAPPED = 2;
+        private static final int SUMMONING_SICKNESS = 4;
+        private static final int MAX_DEPTH = 16;
+        private static final int[] NO_SLOTS = new int[0];
+        private static final byte[] NO_FLAGS = new byte[0];
 
+        private final PlayerImpl player;
+        private final Card[] cards;
+        private final int inHand;
+        private final Snapshot base;
+        private final int depth;
+        private final int[] slots;
+        private final byte[] flags;
+        private final long untappedMana;
+        private final long cardsHash;
+        private final long zoneVersion;
+        private final long initVersion;
+        private final int life;
+
+        private Snapshot(PlayerImpl player) {
+            Snapshot last = player.lastSnapshot;
+            this.player = player;
+            this.zoneVersion = player.zoneVersion;
+            if (last != null && last.zoneVersion == zoneVersion) {
+                this.inHand = last.inHand;
+                this.cards = last.cards;
+            } else {
+                this.inHand = player.cardsInHand.size();
+                this.cards = new Card[inHand + player.cardsOnTable.size()];
+                player.cardsInHand.copyInto(cards, 0);
+                player.cardsOnTable.copyInto(cards, inHand);
+            }
+            boolean based = last != null && player.allCardsObserved && last.depth < MAX_DEPTH;
+            this.base = based ? last : null;
+            this.depth = based ? last.depth + 1 : 0;
+            this.slots = based ? changedSlots(player.changedSlots) : null;
+            this.flags = flagsOf(player.deck, slots);
+            this.untappedMana = player.untappedMana;
+            this.cardsHash = player.cardsHash;
+            this.initVersion = player.initVersion;
+            this.life = player.getLife();
+        }
+
+        /**
+         * Find the marked slots in ascending order.
+         */
+        private static int[] changedSlots(long[] changed) {
+            int count = 0;
+            for (long word : changed) {
+                count += Long.bitCount(word);
+            }
+            int[] slots = count == 0 ? NO_SLOTS : new int[count];
+            int i = 0;
+            for (int word = 0; word < changed.length; word++) {
+                for (long rest = changed[word]; rest != 0; rest &= rest - 1) {
+                    slots[i++] = word * Long.SIZE + Long.numberOfTrailingZeros(rest);
+                }
+            }
+            return slots;
+        }
+
+        /**
+         * Save flags of the cards in the slots, of all the cards if the slots are null.
+         */
+        private static byte[] flagsOf(Card[] deck, int[] slots) {
+            int length = slots == null ? deck.length : slots.length;
+            byte[] flags = length == 0 ? NO_FLAGS : new byte[length];
+            for (int i = 0; i < length; i++) {
+                flags[i] = flagsOf(deck[slots == null ? i : slots[i]]);
+            }
+            return flags;
+        }
+
+        private static byte flagsOf(Card card) {
+            int flags = card.isOnTable() ? ON_TABLE : 0;
+            flags |= card.isTapped() ? TAPPED : 0;
+            if (card instanceof CreatureCard && ((CreatureCard) card).hasSummoningSickness()) {
+                flags |= SUMMONING_SICKNESS;
+            }
+            return (byte) flags;
+        }
+
+        /**
+         * Find saved flags of the card in the slot, in this snapshot or in its bases.
+         *
+         * @param slot slot of the card
+         * @return saved flags
+         */
+        private int flagsAt(int slot) {
+            Snapshot snapshot = this;
+            while (snapshot.slots != null) {
+                int i = Arrays.binarySearch(snapshot.slots, slot);
+                if (i >= 0) {
+                    return snapshot.flags[i];
+                }
+                snapshot = snapshot.base;
+            }
+            return snapshot.flags[slot];
+        }
+
+        @Override
+        public Player getPlayer() {
+            return player;
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+package magicthegathering.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only journal of the games written into a memory-mapped file. File starts by a header
+ * (magic number, version and the length of the records), records follow. Record is the opcode
+ * and its operands, cards are written as their ids in {@link magicthegathering.game.CardRegistry}
+ * in one byte, numbers of cards as ints. Appending a record only writes into the mapped memory,
+ * the file is mapped again by {@link #CHUNK} bytes when it is full. Length in the header is updated
+ * after every record, so a reader never sees a half-written record.
+ *
+ * @author Marek Sabo
+ */
+public final class GameJournal implements Closeable {
+
+    static final int MAGIC = 0x4D54474A;
+    static final int VERSION = 2;
+    static final int LENGTH_OFFSET = 8;
+    static final int HEADER = 16;
+    static final int NO_CARD = 0xFF;
+
+    static final byte INIT = 1;
+    static final byte PREPARE = 2;
+    static final byte CHANGE_PLAYER = 3;
+    static final byte LAND = 4;
+    static final byte CREATURE = 5;
+    static final byte ATTACK = 6;
+    static final byte BLOCK = 7;
+    static final byte LIVES = 8;
+    static final byte DESTROY = 9;
+    static final byte UNTAP = 10;
+    static final byte PREPARE_CREATURES = 11;
+    static final byte TAP_MANA = 12;
+    static final byte INIT_CARDS = 13;
+    static final byte SNAPSHOT = 14;
+    static final byte RESTORE = 15;
+
+    /**
+     * Number of bytes by which the mapped file grows.
+     */
+    public static final int CHUNK = 1 << 20;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    /**
+     * Constructor. Create empty journal, existing file is overwritten.
+     *
+     * @param file journal file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public GameJournal(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, CHUNK);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        position = HEADER;
+        commit();
+    }
+
+    /**
+     * Get length of the journal.
+     *
+     * @return number of written bytes including the header
+     */
+    public int length() {
+        return position;
+    }
+
+    /**
+     * Start a record.
+     *
+     * @param opcode opcode of the record
+     * @param size   number of bytes of the operands
+     */
+    void begin(byte opcode, int size) {
+        if (buffer == null) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (position + 1 + size > buffer.capacity()) {
+            grow(position + 1 + size);
+        }
+        buffer.put(position++, opcode);
+    }
+
+    private void grow(int needed) {
+        long size = ((long) needed + CHUNK - 1) / CHUNK * CHUNK;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Journal is full");
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void putByte(int value) {
+        buffer.put(position++, (byte) value);
+    }
+
+    void putCard(int id) {
+        putByte(id < 0 ? NO_CARD : id);
+    }
+
+    void putInt(int value) {
+        buffer.putInt(position, value);
+        position += Integer.BYTES;
+    }
+
+    void putLong(long value) {
+        buffer.putLong(position, value);
+        position += Long.BYTES;
+    }
+
+    void putBytes(byte[] bytes) {
+        for (byte b : bytes) {
+            buffer.put(position++, b);
+        }
+    }
+
+    /**
+     * Finish the record, it becomes visible to the readers.
+     */
+    void commit() {
+        buffer.putInt(LENGTH_OFFSET, position);
+    }
+
+    /**
+     * Drop the records written after the position, used when the game returns to a saved state.
+     *
+     * @param length length of the journal to keep
+     */
+    void truncate(int length) {
+        position = length;
+        commit();
+    }
+
+    /**
+     * Write the journal to the disk and cut the file to the length of the records.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        buffer.force();
+        buffer = null;
+        channel.truncate(position);
+        channel.close();
+    }
+
+}
@@ -0,0 +1,212 @@
+package magicthegathering.journal;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CardRegistry;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.Player;
+import magicthegathering.game.PlayerSnapshot;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds the games written by {@link JournaledGame} by repeating the journaled calls
+ * on new games of {@link PlayerImpl} players.
+ *
+ * @author Marek Sabo
+ */
+public final class JournalReplayer {
+
+    private final ByteBuffer records;
+    private final List<Game> games = new ArrayList<>();
+    private final Map<Integer, PlayerSnapshot> snapshots = new HashMap<>();
+    private Player[] players;
+
+    private JournalReplayer(ByteBuffer records) {
+        this.records = records;
+    }
+
+    /**
+     * Replay all the games of the journal.
+     *
+     * @param file journal file
+     * @return games in the order of the journal, each in its last journaled state
+     * @throws IOException if the file cannot be read or is not a valid journal
+     */
+    public static List<Game> replay(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < GameJournal.HEADER || buffer.getInt(0) != GameJournal.MAGIC
+                    || buffer.getInt(4) != GameJournal.VERSION) {
+                throw new IOException("File " + file + " is not a journal of this version");
+            }
+            int length = buffer.getInt(GameJournal.LENGTH_OFFSET);
+            if (length < GameJournal.HEADER || length > buffer.limit()) {
+                throw new IOException("Journal " + file + " has invalid length " + length);
+            }
+            buffer.position(GameJournal.HEADER).limit(length);
+            JournalReplayer replayer = new JournalReplayer(buffer.slice());
+            try {
+                while (replayer.records.hasRemaining()) {
+                    replayer.apply(replayer.records.get());
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Journal " + file + " is corrupted", e);
+            }
+            return replayer.games;
+        }
+    }
+
+    private Game game() {
+        if (games.isEmpty()) {
+            throw new IllegalStateException("Record precedes the first game");
+        }
+        return games.get(games.size() - 1);
+    }
+
+    private void apply(byte opcode) {
+        switch (opcode) {
+            case GameJournal.INIT:
+                initGame();
+                break;
+            case GameJournal.PREPARE:
+                game().prepareCurrentPlayerForTurn();
+                break;
+            case GameJournal.CHANGE_PLAYER:
+                game().changePlayer();
+                break;
+            case GameJournal.ATTACK:
+                game().performAttack(cards(count()));
+                break;
+            case GameJournal.BLOCK:
+                block();
+                break;
+            default:
+                applyToPlayer(opcode, player());
+        }
+    }
+
+    private void applyToPlayer(byte opcode, Player player) {
+        switch (opcode) {
+            case GameJournal.LAND:
+                player.putLandOnTable((LandCard) game().getCardRegistry().getCard(card()));
+                break;
+            case GameJournal.CREATURE:
+                player.putCreatureOnTable(game().getCardRegistry().getCreature(card()));
+                break;
+            case GameJournal.LIVES:
+                player.subtractLives(records.getInt());
+                break;
+            case GameJournal.DESTROY:
+                player.destroyCreature(game().getCardRegistry().getCreature(card()));
+                break;
+            case GameJournal.UNTAP:
+                player.untapAllCards();
+                break;
+            case GameJournal.PREPARE_CREATURES:
+                player.prepareAllCreatures();
+                break;
+            case GameJournal.TAP_MANA:
+                player.tapManaForCreature(game().getCardRegistry().getCreature(card()));
+                break;
+            default:
+                applyToCards(opcode, player);
+        }
+    }
+
+    private void applyToCards(byte opcode, Player player) {
+        switch (opcode) {
+            case GameJournal.INIT_CARDS:
+                player.initCards(cardsOf(cards(count())));
+                break;
+            case GameJournal.SNAPSHOT:
+                snapshots.put(GameJournal.HEADER + records.position(), player.snapshot());
+                break;
+            case GameJournal.RESTORE:
+                restore(player, records.getInt());
+                break;
+            default:
+                throw new IllegalStateException("Unknown opcode " + opcode);
+        }
+    }
+
+    private void initGame() {
+        long seed = records.getLong();
+        players = new Player[] {new PlayerImpl(name()), new PlayerImpl(name())};
+        Game game = new GameImpl(players[0], players[1]);
+        game.initGame(seed);
+        games.add(game);
+        snapshots.clear();
+    }
+
+    private String name() {
+        byte[] name = new byte[records.getInt()];
+        records.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private Player player() {
+        game();
+        return players[records.get()];
+    }
+
+    private int card() {
+        int id = records.get() & 0xFF;
+        return id == GameJournal.NO_CARD ? CardRegistry.NONE : id;
+    }
+
+    private int[] cards(int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = card();
+        }
+        return ids;
+    }
+
+    private int count() {
+        int count = records.getInt();
+        if (count < 0 || count > records.remaining()) {
+            throw new IllegalStateException("Invalid number of cards " + count);
+        }
+        return count;
+    }
+
+    private Card[] cardsOf(int[] ids) {
+        Card[] cards = new Card[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            cards[i] = game().getCardRegistry().getCard(ids[i]);
+        }
+        return cards;
+    }
+
+    private void restore(Player player, int position) {
+        PlayerSnapshot snapshot = snapshots.get(position);
+        if (snapshot == null) {
+            throw new IllegalStateException("No snapshot of the player at " + position);
+        }
+        player.restore(snapshot);
+    }
+
+    private void block() {
+        int count = count();
+        int[] attacking = new int[count];
+        int[] blocking = new int[count];
+        for (int i = 0; i < count; i++) {
+            attacking[i] = card();
+            blocking[i] = card();
+        }
+        game().performBlockAndDamage(attacking, blocking);
+    }
+
+}
@@ -0,0 +1,231 @@
+package magicthegathering.journal;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CardRegistry;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.GameSnapshot;
+import magicthegathering.game.Player;
+import magicthegathering.impl.GameImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.WeakHashMap;
+
+/**
+ * Game writing every state-changing call of the game and its players into the journal.
+ * Cards are dealt from the seed, which is the first record of the game, so {@link JournalReplayer}
+ * rebuilds the game exactly. Restoring a snapshot drops the records written since the snapshot,
+ * so search strategies can play their playouts on this game. Snapshots taken after the restored one
+ * cannot be restored any more, their records are gone and new records take their place. Direct changes of the cards,
+ * for example {@link magicthegathering.game.Card#tap()}, are not journaled. Owners of the cards
+ * in the registry are the wrapped players, not the ones returned by {@link #getCurrentPlayer()}.
+ *
+ * @author Marek Sabo
+ */
+public class JournaledGame implements Game {
+
+    private final GameImpl game;
+    private final GameJournal journal;
+    private final Player inner1;
+    private final JournaledPlayer player1;
+    private final JournaledPlayer player2;
+    private final Map<Object, Integer> positions = new WeakHashMap<>();
+
+    /**
+     * Constructor. Create new game.
+     *
+     * @param player1 first player
+     * @param player2 second player
+     * @param journal journal into which the game is written
+     */
+    public JournaledGame(Player player1, Player player2, GameJournal journal) {
+        this.game = new GameImpl(player1, player2);
+        this.journal = journal;
+        this.inner1 = player1;
+        this.player1 = new JournaledPlayer(player1, 0, this);
+        this.player2 = new JournaledPlayer(player2, 1, this);
+    }
+
+    GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Deal the cards from a random seed, so the game can be replayed.
+     */
+    @Override
+    public void initGame() {
+        initGame(new SplittableRandom().nextLong());
+    }
+
+    @Override
+    public void initGame(long seed) {
+        game.initGame(seed);
+        if (game.getCardRegistry().size() >= GameJournal.NO_CARD) {
+            throw new IllegalStateException("Journal can hold at most " + GameJournal.NO_CARD + " cards");
+        }
+        byte[] first = player1.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] second = player2.getName().getBytes(StandardCharsets.UTF_8);
+        journal.begin(GameJournal.INIT, Long.BYTES + 2 * Integer.BYTES + first.length + second.length);
+        journal.putLong(seed);
+        journal.putInt(first.length);
+        journal.putBytes(first);
+        journal.putInt(second.length);
+        journal.putBytes(second);
+        journal.commit();
+    }
+
+    @Override
+    public GameSnapshot snapshot() {
+        GameSnapshot snapshot = game.snapshot();
+        mark(snapshot);
+        return snapshot;
+    }
+
+    @Override
+    public void restore(GameSnapshot snapshot) {
+        int position = positionOf(snapshot);
+        game.restore(snapshot);
+        journal.truncate(position);
+        positions.values().removeIf(later -> later > position);
+    }
+
+    /**
+     * Remember the length of the journal at which the snapshot of the game or of a player was taken.
+     *
+     * @param snapshot taken snapshot
+     */
+    void mark(Object snapshot) {
+        positions.put(snapshot, journal.length());
+    }
+
+    /**
+     * Get the length of the journal at which the snapshot was taken.
+     *
+     * @param snapshot snapshot of the game or of a player
+     * @return length of the journal
+     * @throws IllegalArgumentException if the snapshot was not taken by this game or its records were dropped
+     */
+    int positionOf(Object snapshot) {
+        Integer position = positions.get(snapshot);
+        if (position == null) {
+            throw new IllegalArgumentException("Snapshot was not taken by this game or after the restored one");
+        }
+        return position;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return game.getZobristHash();
+    }
+
+    @Override
+    public Game getPlayoutGame() {
+        return this;
+    }
+
+    @Override
+    public void changePlayer() {
+        game.changePlayer();
+        record(GameJournal.CHANGE_PLAYER);
+    }
+
+    @Override
+    public void prepareCurrentPlayerForTurn() {
+        game.prepareCurrentPlayerForTurn();
+        record(GameJournal.PREPARE);
+    }
+
+    private void record(byte opcode) {
+        journal.begin(opcode, 0);
+        journal.commit();
+    }
+
+    @Override
+    public Player getCurrentPlayer() {
+        return game.getCurrentPlayer() == inner1 ? player1 : player2;
+    }
+
+    @Override
+    public Player getSecondPlayer() {
+        return game.getCurrentPlayer() == inner1 ? player2 : player1;
+    }
+
+    @Override
+    public void performAttack(CreatureCard[] creatures) {
+        performAttack(idsOf(creatures));
+    }
+
+    @Override
+    public boolean isCreaturesAttackValid(CreatureCard[] attackingCreatures) {
+        return game.isCreaturesAttackValid(attackingCreatures);
+    }
+
+    @Override
+    public boolean isCreaturesBlockValid(CreatureCard[] attackingCreatures, CreatureCard[] blockingCreatures) {
+        return game.isCreaturesBlockValid(attackingCreatures, blockingCreatures);
+    }
+
+    @Override
+    public void performBlockAndDamage(CreatureCard[] attackingCreatures, CreatureCard[] blockingCreatures) {
+        performBlockAndDamage(idsOf(attackingCreatures), idsOf(blockingCreatures));
+    }
+
+    @Override
+    public CardRegistry getCardRegistry() {
+        return game.getCardRegistry();
+    }
+
+    @Override
+    public void performAttack(int[] creatures) {
+        game.performAttack(creatures);
+        journal.begin(GameJournal.ATTACK, Integer.BYTES + creatures.length);
+        journal.putInt(creatures.length);
+        for (int id : creatures) {
+            journal.putCard(id);
+        }
+        journal.commit();
+    }
+
+    @Override
+    public boolean isCreaturesAttackValid(int[] attackingCreatures) {
+        return game.isCreaturesAttackValid(attackingCreatures);
+    }
+
+    @Override
+    public boolean isCreaturesBlockValid(int[] attackingCreatures, int[] blockingCreatures) {
+        return game.isCreaturesBlockValid(attackingCreatures, blockingCreatures);
+    }
+
+    @Override
+    public void performBlockAndDamage(int[] attackingCreatures, int[] blockingCreatures) {
+        game.performBlockAndDamage(attackingCreatures, blockingCreatures);
+        journal.begin(GameJournal.BLOCK, Integer.BYTES + 2 * attackingCreatures.length);
+        journal.putInt(attackingCreatures.length);
+        for (int i = 0; i < attackingCreatures.length; i++) {
+            journal.putCard(attackingCreatures[i]);
+            journal.putCard(blockingCreatures[i]);
+        }
+        journal.commit();
+    }
+
+    /**
+     * Get ids of the cards of this game.
+     *
+     * @param cards cards, can contain null
+     * @return ids of the cards
+     * @throws IllegalArgumentException if a card does not belong to the game
+     */
+    int[] idsOf(Card[] cards) {
+        int[] ids = getCardRegistry().idsOf(cards);
+        for (int i = 0; i < ids.length; i++) {
+            if (cards[i] != null && ids[i] == CardRegistry.NONE) {
+                throw new IllegalArgumentException("Card " + cards[i] + " does not belong to the game");
+            }
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,310 @@
+package magicthegathering.journal;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CardRegistry;
+import magicthegathering.game.CardView;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.Player;
+import magicthegathering.game.PlayerSnapshot;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Player of {@link JournaledGame} writing his state-changing calls into the journal of the game.
+ * Cards given to {@link #initCards(Card[])} must be cards of the game, so they can be written by their ids.
+ * Snapshot of the player is a record of the journal, restoring it refers to that record.
+ *
+ * @author Marek Sabo
+ */
+final class JournaledPlayer implements Player {
+
+    private final Player player;
+    private final int index;
+    private final JournaledGame game;
+
+    JournaledPlayer(Player player, int index, JournaledGame game) {
+        this.player = player;
+        this.index = index;
+        this.game = game;
+    }
+
+    private void record(byte opcode) {
+        GameJournal journal = game.getJournal();
+        journal.begin(opcode, 1);
+        journal.putByte(index);
+        journal.commit();
+    }
+
+    private void record(byte opcode, Card card) {
+        GameJournal journal = game.getJournal();
+        journal.begin(opcode, 2);
+        journal.putByte(index);
+        journal.putCard(game.getCardRegistry().idOf(card));
+        journal.commit();
+    }
+
+    @Override
+    public String getName() {
+        return player.getName();
+    }
+
+    @Override
+    public int getLife() {
+        return player.getLife();
+    }
+
+    @Override
+    public void subtractLives(int lives) {
+        player.subtractLives(lives);
+        GameJournal journal = game.getJournal();
+        journal.begin(GameJournal.LIVES, 1 + Integer.BYTES);
+        journal.putByte(index);
+        journal.putInt(lives);
+        journal.commit();
+    }
+
+    @Override
+    public boolean isDead() {
+        return player.isDead();
+    }
+
+    @Override
+    public void initCards(Card[] cards) {
+        int[] ids = game.idsOf(cards);
+        player.initCards(cards);
+        GameJournal journal = game.getJournal();
+        journal.begin(GameJournal.INIT_CARDS, 1 + Integer.BYTES + ids.length);
+        journal.putByte(index);
+        journal.putInt(ids.length);
+        for (int id : ids) {
+            journal.putCard(id);
+        }
+        journal.commit();
+    }
+
+    @Override
+    public int getDeals() {
+        return player.getDeals();
+    }
+
+    @Override
+    public Card[] getCardsInHand() {
+        return player.getCardsInHand();
+    }
+
+    @Override
+    public int getCardsInHand(Card[] buffer) {
+        return player.getCardsInHand(buffer);
+    }
+
+    @Override
+    public Card[] getCardsOnTable() {
+        return player.getCardsOnTable();
+    }
+
+    @Override
+    public int getCardsOnTable(Card[] buffer) {
+        return player.getCardsOnTable(buffer);
+    }
+
+    @Override
+    public LandCard[] getLandsOnTable() {
+        return player.getLandsOnTable();
+    }
+
+    @Override
+    public int getLandsOnTable(LandCard[] buffer) {
+        return player.getLandsOnTable(buffer);
+    }
+
+    @Override
+    public CreatureCard[] getCreaturesOnTable() {
+        return player.getCreaturesOnTable();
+    }
+
+    @Override
+    public int getCreaturesOnTable(CreatureCard[] buffer) {
+        return player.getCreaturesOnTable(buffer);
+    }
+
+    @Override
+    public LandCard[] getLandsInHand() {
+        return player.getLandsInHand();
+    }
+
+    @Override
+    public int getLandsInHand(LandCard[] buffer) {
+        return player.getLandsInHand(buffer);
+    }
+
+    @Override
+    public CreatureCard[] getCreaturesInHand() {
+        return player.getCreaturesInHand();
+    }
+
+    @Override
+    public int getCreaturesInHand(CreatureCard[] buffer) {
+        return player.getCreaturesInHand(buffer);
+    }
+
+    @Override
+    public CardView<Card> getCardsInHandView() {
+        return player.getCardsInHandView();
+    }
+
+    @Override
+    public CardView<Card> getCardsOnTableView() {
+        return player.getCardsOnTableView();
+    }
+
+    @Override
+    public CardView<LandCard> getLandsOnTableView() {
+        return player.getLandsOnTableView();
+    }
+
+    @Override
+    public CardView<CreatureCard> getCreaturesOnTableView() {
+        return player.getCreaturesOnTableView();
+    }
+
+    @Override
+    public CardView<LandCard> getLandsInHandView() {
+        return player.getLandsInHandView();
+    }
+
+    @Override
+    public CardView<CreatureCard> getCreaturesInHandView() {
+        return player.getCreaturesInHandView();
+    }
+
+    @Override
+    public int[] getCreatureIdsOnTable() {
+        return player.getCreatureIdsOnTable();
+    }
+
+    @Override
+    public int getCreatureIdsOnTable(int[] buffer) {
+        return player.getCreatureIdsOnTable(buffer);
+    }
+
+    @Override
+    public int[] getCreatureIdsInHand() {
+        return player.getCreatureIdsInHand();
+    }
+
+    @Override
+    public int getCreatureIdsInHand(int[] buffer) {
+        return player.getCreatureIdsInHand(buffer);
+    }
+
+    @Override
+    public boolean hasCreaturesOnTable(CreatureCard[] creatures) {
+        return player.hasCreaturesOnTable(creatures);
+    }
+
+    @Override
+    public boolean hasCreatureOnTable(CreatureCard creature) {
+        return player.hasCreatureOnTable(creature);
+    }
+
+    @Override
+    public void untapAllCards() {
+        player.untapAllCards();
+        record(GameJournal.UNTAP);
+    }
+
+    @Override
+    public void prepareAllCreatures() {
+        player.prepareAllCreatures();
+        record(GameJournal.PREPARE_CREATURES);
+    }
+
+    @Override
+    public boolean putLandOnTable(LandCard landCard) {
+        if (!player.putLandOnTable(landCard)) {
+            return false;
+        }
+        record(GameJournal.LAND, landCard);
+        return true;
+    }
+
+    @Override
+    public boolean putCreatureOnTable(CreatureCard creatureCard) {
+        if (!player.putCreatureOnTable(creatureCard)) {
+            return false;
+        }
+        record(GameJournal.CREATURE, creatureCard);
+        return true;
+    }
+
+    @Override
+    public boolean hasManaForCreature(CreatureCard creature) {
+        return player.hasManaForCreature(creature);
+    }
+
+    @Override
+    public int[] calculateUntappedLands() {
+        return player.calculateUntappedLands();
+    }
+
+    @Override
+    public int calculateUntappedLands(int[] buffer) {
+        return player.calculateUntappedLands(buffer);
+    }
+
+    @Override
+    public long calculateUntappedMana() {
+        return player.calculateUntappedMana();
+    }
+
+    @Override
+    public CreatureCard[] planCreaturePurchase(ToIntFunction<? super CreatureCard> value) {
+        return player.planCreaturePurchase(value);
+    }
+
+    @Override
+    public void tapManaForCreature(CreatureCard creature) {
+        game.idsOf(new CreatureCard[] {creature});
+        player.tapManaForCreature(creature);
+        record(GameJournal.TAP_MANA, creature);
+    }
+
+    @Override
+    public void destroyCreature(CreatureCard creature) {
+        player.destroyCreature(creature);
+        if (game.getCardRegistry().idOf(creature) != CardRegistry.NONE) {
+            record(GameJournal.DESTROY, creature);
+        }
+    }
+
+    @Override
+    public PlayerSnapshot snapshot() {
+        PlayerSnapshot snapshot = player.snapshot();
+        record(GameJournal.SNAPSHOT);
+        game.mark(snapshot);
+        return snapshot;
+    }
+
+    @Override
+    public void restore(PlayerSnapshot snapshot) {
+        int position = game.positionOf(snapshot);
+        player.restore(snapshot);
+        GameJournal journal = game.getJournal();
+        journal.begin(GameJournal.RESTORE, 1 + Integer.BYTES);
+        journal.putByte(index);
+        journal.putInt(position);
+        journal.commit();
+    }
+
+    @Override
+    public long getZobristHash() {
+        return player.getZobristHash();
+    }
+
+    @Override
+    public String toString() {
+        return player.toString();
+    }
+
+}
@@ -0,0 +1,246 @@
+package magicthegathering.metrics;
+
+import magicthegathering.simulation.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latencies of the games played through {@link MeteredGame}, one instance is shared
+ * by all the games of a process and can be registered as a platform MBean. All the counters are
+ * {@link LongAdder LongAdders} and the latencies are kept by {@link LatencyRecorder}, so games running
+ * in parallel do not contend on the metrics; the sums are computed only when an attribute is read.
+ *
+ * @author Marek Sabo
+ */
+public final class EngineMetrics implements EngineMetricsMBean {
+
+    /**
+     * Domain of the names of the registered metrics.
+     */
+    public static final String DOMAIN = "magicthegathering";
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder creaturesSummoned = new LongAdder();
+    private final LongAdder creaturesDestroyed = new LongAdder();
+    private final LongAdder attacksPassed = new LongAdder();
+    private final LongAdder attacksFailed = new LongAdder();
+    private final LongAdder blocksPassed = new LongAdder();
+    private final LongAdder blocksFailed = new LongAdder();
+    private final LatencyRecorder prepareTurn = new LatencyRecorder();
+    private final LatencyRecorder attack = new LatencyRecorder();
+    private final LatencyRecorder blockAndDamage = new LatencyRecorder();
+    private ObjectName name;
+
+    /**
+     * Register the metrics in the platform MBean server
+     * under the name {@code magicthegathering:type=EngineMetrics,name=<name>}.
+     *
+     * @param metricsName value of the name key, distinguishes the metrics of more servers in one process
+     * @return registered name
+     * @throws IllegalStateException if the metrics are registered already or the name is taken
+     */
+    public synchronized ObjectName register(String metricsName) {
+        if (name != null) {
+            throw new IllegalStateException("Metrics are registered as " + name);
+        }
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=EngineMetrics,name="
+                    + ObjectName.quote(metricsName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            name = objectName;
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics cannot be registered as " + metricsName, e);
+        }
+    }
+
+    /**
+     * Remove the metrics from the platform MBean server, nothing happens if they are not registered.
+     */
+    public synchronized void unregister() {
+        if (name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics cannot be unregistered", e);
+        } finally {
+            name = null;
+        }
+    }
+
+    void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    void gameFinished() {
+        gamesFinished.increment();
+    }
+
+    void creaturesChanged(int summoned, int destroyed) {
+        creaturesSummoned.add(summoned);
+        creaturesDestroyed.add(destroyed);
+    }
+
+    boolean attackValidated(boolean valid) {
+        (valid ? attacksPassed : attacksFailed).increment();
+        return valid;
+    }
+
+    boolean blockValidated(boolean valid) {
+        (valid ? blocksPassed : blocksFailed).increment();
+        return valid;
+    }
+
+    void turnPrepared(long nanos) {
+        prepareTurn.record(nanos);
+    }
+
+    void attackPerformed(long nanos) {
+        attack.record(nanos);
+    }
+
+    void blockPerformed(long nanos) {
+        blockAndDamage.record(nanos);
+    }
+
+    /**
+     * Get latencies of {@link magicthegathering.game.Game#prepareCurrentPlayerForTurn()}.
+     *
+     * @return new histogram of nanoseconds
+     */
+    public Histogram getPrepareTurnLatency() {
+        return prepareTurn.snapshot();
+    }
+
+    /**
+     * Get latencies of {@link magicthegathering.game.Game#performAttack(int[])}.
+     *
+     * @return new histogram of nanoseconds
+     */
+    public Histogram getAttackLatency() {
+        return attack.snapshot();
+    }
+
+    /**
+     * Get latencies of {@link magicthegathering.game.Game#performBlockAndDamage(int[], int[])}.
+     *
+     * @return new histogram of nanoseconds
+     */
+    public Histogram getBlockAndDamageLatency() {
+        return blockAndDamage.snapshot();
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    @Override
+    public long getGamesFinished() {
+        return gamesFinished.sum();
+    }
+
+    @Override
+    public long getCreaturesSummoned() {
+        return creaturesSummoned.sum();
+    }
+
+    @Override
+    public long getCreaturesDestroyed() {
+        return creaturesDestroyed.sum();
+    }
+
+    @Override
+    public long getAttackValidationsPassed() {
+        return attacksPassed.sum();
+    }
+
+    @Override
+    public long getAttackValidationsFailed() {
+        return attacksFailed.sum();
+    }
+
+    @Override
+    public long getBlockValidationsPassed() {
+        return blocksPassed.sum();
+    }
+
+    @Override
+    public long getBlockValidationsFailed() {
+        return blocksFailed.sum();
+    }
+
+    @Override
+    public long getPrepareTurnCount() {
+        return prepareTurn.snapshot().getCount();
+    }
+
+    @Override
+    public long getPrepareTurnP50Nanos() {
+        return prepareTurn.snapshot().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getPrepareTurnP99Nanos() {
+        return prepareTurn.snapshot().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getPrepareTurnMaxNanos() {
+        return prepareTurn.snapshot().getMax();
+    }
+
+    @Override
+    public long getAttackCount() {
+        return attack.snapshot().getCount();
+    }
+
+    @Override
+    public long getAttackP50Nanos() {
+        return attack.snapshot().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getAttackP99Nanos() {
+        return attack.snapshot().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getAttackMaxNanos() {
+        return attack.snapshot().getMax();
+    }
+
+    @Override
+    public long getBlockAndDamageCount() {
+        return blockAndDamage.snapshot().getCount();
+    }
+
+    @Override
+    public long getBlockAndDamageP50Nanos() {
+        return blockAndDamage.snapshot().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getBlockAndDamageP99Nanos() {
+        return blockAndDamage.snapshot().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getBlockAndDamageMaxNanos() {
+        return blockAndDamage.snapshot().getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games %d/%d creatures +%d -%d attacks %d/%d blocks %d/%d", getGamesStarted(),
+                getGamesFinished(), getCreaturesSummoned(), getCreaturesDestroyed(), getAttackValidationsPassed(),
+                getAttackValidationsFailed(), getBlockValidationsPassed(), getBlockValidationsFailed());
+    }
+
+}
@@ -0,0 +1,151 @@
+package magicthegathering.metrics;
+
+/**
+ * Management interface of {@link EngineMetrics}, its getters are the attributes shown by JMX clients.
+ * Latencies are in nanoseconds, with the precision of {@link magicthegathering.simulation.Histogram}.
+ *
+ * @author Marek Sabo
+ */
+public interface EngineMetricsMBean {
+
+    /**
+     * Get number of the games whose cards were dealt.
+     *
+     * @return number of the games whose cards were dealt
+     */
+    long getGamesStarted();
+
+    /**
+     * Get number of the games in which a player died.
+     *
+     * @return number of the games in which a player died
+     */
+    long getGamesFinished();
+
+    /**
+     * Get number of the creatures put on the table.
+     *
+     * @return number of the creatures put on the table
+     */
+    long getCreaturesSummoned();
+
+    /**
+     * Get number of the creatures destroyed in the blocks.
+     *
+     * @return number of the creatures destroyed in the blocks
+     */
+    long getCreaturesDestroyed();
+
+    /**
+     * Get number of the valid attacks.
+     *
+     * @return number of the valid attacks
+     */
+    long getAttackValidationsPassed();
+
+    /**
+     * Get number of the rejected attacks.
+     *
+     * @return number of the rejected attacks
+     */
+    long getAttackValidationsFailed();
+
+    /**
+     * Get number of the valid blocks.
+     *
+     * @return number of the valid blocks
+     */
+    long getBlockValidationsPassed();
+
+    /**
+     * Get number of the rejected blocks.
+     *
+     * @return number of the rejected blocks
+     */
+    long getBlockValidationsFailed();
+
+    /**
+     * Get number of the preparations of the players for the turn.
+     *
+     * @return number of the preparations of the players for the turn
+     */
+    long getPrepareTurnCount();
+
+    /**
+     * Get median latency of the preparations of the players for the turn.
+     *
+     * @return median latency of the preparations of the players for the turn
+     */
+    long getPrepareTurnP50Nanos();
+
+    /**
+     * Get 99th percentile of the latencies of the preparations of the players for the turn.
+     *
+     * @return 99th percentile of the latencies of the preparations of the players for the turn
+     */
+    long getPrepareTurnP99Nanos();
+
+    /**
+     * Get highest latency of the preparations of the players for the turn.
+     *
+     * @return highest latency of the preparations of the players for the turn
+     */
+    long getPrepareTurnMaxNanos();
+
+    /**
+     * Get number of the performed attacks.
+     *
+     * @return number of the performed attacks
+     */
+    long getAttackCount();
+
+    /**
+     * Get median latency of the performed attacks.
+     *
+     * @return median latency of the performed attacks
+     */
+    long getAttackP50Nanos();
+
+    /**
+     * Get 99th percentile of the latencies of the performed attacks.
+     *
+     * @return 99th percentile of the latencies of the performed attacks
+     */
+    long getAttackP99Nanos();
+
+    /**
+     * Get highest latency of the performed attacks.
+     *
+     * @return highest latency of the performed attacks
+     */
+    long getAttackMaxNanos();
+
+    /**
+     * Get number of the performed blocks and damages.
+     *
+     * @return number of the performed blocks and damages
+     */
+    long getBlockAndDamageCount();
+
+    /**
+     * Get median latency of the performed blocks and damages.
+     *
+     * @return median latency of the performed blocks and damages
+     */
+    long getBlockAndDamageP50Nanos();
+
+    /**
+     * Get 99th percentile of the latencies of the performed blocks and damages.
+     *
+     * @return 99th percentile of the latencies of the performed blocks and damages
+     */
+    long getBlockAndDamageP99Nanos();
+
+    /**
+     * Get highest latency of the performed blocks and damages.
+     *
+     * @return highest latency of the performed blocks and damages
+     */
+    long getBlockAndDamageMaxNanos();
+
+}
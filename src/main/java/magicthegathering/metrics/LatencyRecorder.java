@@ -0,0 +1,45 @@
+package magicthegathering.metrics;
+
+import magicthegathering.simulation.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one engine call in the buckets of {@link Histogram}, every bucket is a {@link LongAdder},
+ * so the games recording at once do not contend. A consistent histogram is built only when it is read.
+ *
+ * @author Marek Sabo
+ */
+final class LatencyRecorder {
+
+    private final LongAdder[] buckets = new LongAdder[Histogram.BUCKETS];
+
+    LatencyRecorder() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record one call.
+     *
+     * @param nanos duration of the call, durations above {@link Integer#MAX_VALUE} are recorded as the maximum
+     */
+    void record(long nanos) {
+        buckets[Histogram.indexOf((int) Math.min(Math.max(nanos, 0), Integer.MAX_VALUE))].increment();
+    }
+
+    /**
+     * Get histogram of the latencies recorded so far, every value is the lowest value of its bucket.
+     *
+     * @return new histogram of nanoseconds
+     */
+    Histogram snapshot() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < buckets.length; i++) {
+            histogram.record(Histogram.lowestValueOf(i), buckets[i].sum());
+        }
+        return histogram;
+    }
+
+}
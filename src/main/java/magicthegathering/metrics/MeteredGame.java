@@ -0,0 +1,202 @@
+package magicthegathering.metrics;
+
+import magicthegathering.game.CardRegistry;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.GameSnapshot;
+import magicthegathering.game.Player;
+
+/**
+ * Game recording its engine calls into shared {@link EngineMetrics}. Creatures are bought directly
+ * on the players, so they are counted like in the simulation: when the player changes and after a block,
+ * creatures which left the hand were summoned and the ones which are neither in hand nor on the table
+ * were destroyed. A game is finished when a player dies for the first time after the cards were dealt.
+ * Search strategies play their playouts on the wrapped {@link #getPlayoutGame() game}, so the metrics
+ * describe the games themselves, not the positions explored by the searches. Restoring a snapshot
+ * does not count anything.
+ *
+ * @author Marek Sabo
+ */
+public class MeteredGame implements Game {
+
+    private final Game game;
+    private final EngineMetrics metrics;
+    private int creatures;
+    private int summoned;
+    private int destroyed;
+    private boolean finished;
+
+    /**
+     * Constructor.
+     *
+     * @param game    measured game
+     * @param metrics metrics into which the game records
+     */
+    public MeteredGame(Game game, EngineMetrics metrics) {
+        this.game = game;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void initGame() {
+        game.initGame();
+        dealt();
+    }
+
+    @Override
+    public void initGame(long seed) {
+        game.initGame(seed);
+        dealt();
+    }
+
+    private void dealt() {
+        creatures = creaturesInHand();
+        summoned = 0;
+        destroyed = 0;
+        finished = false;
+        metrics.gameStarted();
+    }
+
+    private int creaturesInHand() {
+        return game.getCurrentPlayer().getCreaturesInHandView().size()
+                + game.getSecondPlayer().getCreaturesInHandView().size();
+    }
+
+    private int creaturesOnTable() {
+        return game.getCurrentPlayer().getCreaturesOnTableView().size()
+                + game.getSecondPlayer().getCreaturesOnTableView().size();
+    }
+
+    /**
+     * Count the creatures which were summoned or destroyed since the last count and the end of the game.
+     */
+    private void countCreatures() {
+        int lastSummoned = summoned;
+        int lastDestroyed = destroyed;
+        recount();
+        metrics.creaturesChanged(summoned - lastSummoned, destroyed - lastDestroyed);
+        if (!finished && isOver()) {
+            finished = true;
+            metrics.gameFinished();
+        }
+    }
+
+    private void recount() {
+        summoned = creatures - creaturesInHand();
+        destroyed = summoned - creaturesOnTable();
+    }
+
+    @Override
+    public GameSnapshot snapshot() {
+        return game.snapshot();
+    }
+
+    /**
+     * Restore the game, the creatures changed by the restore are not counted.
+     *
+     * @param snapshot snapshot of this game
+     */
+    @Override
+    public void restore(GameSnapshot snapshot) {
+        game.restore(snapshot);
+        recount();
+    }
+
+    private boolean isOver() {
+        return game.getCurrentPlayer().isDead() || game.getSecondPlayer().isDead();
+    }
+
+    @Override
+    public long getZobristHash() {
+        return game.getZobristHash();
+    }
+
+    /**
+     * Get the wrapped game, the playouts played on it are not recorded.
+     *
+     * @return playout game of the wrapped game
+     */
+    @Override
+    public Game getPlayoutGame() {
+        return game.getPlayoutGame();
+    }
+
+    @Override
+    public void changePlayer() {
+        countCreatures();
+        game.changePlayer();
+    }
+
+    @Override
+    public void prepareCurrentPlayerForTurn() {
+        long start = System.nanoTime();
+        game.prepareCurrentPlayerForTurn();
+        metrics.turnPrepared(System.nanoTime() - start);
+    }
+
+    @Override
+    public Player getCurrentPlayer() {
+        return game.getCurrentPlayer();
+    }
+
+    @Override
+    public Player getSecondPlayer() {
+        return game.getSecondPlayer();
+    }
+
+    @Override
+    public void performAttack(CreatureCard[] creatures) {
+        long start = System.nanoTime();
+        game.performAttack(creatures);
+        metrics.attackPerformed(System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean isCreaturesAttackValid(CreatureCard[] attackingCreatures) {
+        return metrics.attackValidated(game.isCreaturesAttackValid(attackingCreatures));
+    }
+
+    @Override
+    public boolean isCreaturesBlockValid(CreatureCard[] attackingCreatures, CreatureCard[] blockingCreatures) {
+        return metrics.blockValidated(game.isCreaturesBlockValid(attackingCreatures, blockingCreatures));
+    }
+
+    @Override
+    public void performBlockAndDamage(CreatureCard[] attackingCreatures, CreatureCard[] blockingCreatures) {
+        long start = System.nanoTime();
+        game.performBlockAndDamage(attackingCreatures, blockingCreatures);
+        metrics.blockPerformed(System.nanoTime() - start);
+        countCreatures();
+    }
+
+    @Override
+    public CardRegistry getCardRegistry() {
+        return game.getCardRegistry();
+    }
+
+    @Override
+    public void performAttack(int[] creatures) {
+        long start = System.nanoTime();
+        game.performAttack(creatures);
+        metrics.attackPerformed(System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean isCreaturesAttackValid(int[] attackingCreatures) {
+        return metrics.attackValidated(game.isCreaturesAttackValid(attackingCreatures));
+    }
+
+    @Override
+    public boolean isCreaturesBlockValid(int[] attackingCreatures, int[] blockingCreatures) {
+        return metrics.blockValidated(game.isCreaturesBlockValid(attackingCreatures, blockingCreatures));
+    }
+
+    @Override
+    public void performBlockAndDamage(int[] attackingCreatures, int[] blockingCreatures) {
+        long start = System.nanoTime();
+        game.performBlockAndDamage(attackingCreatures, blockingCreatures);
+        metrics.blockPerformed(System.nanoTime() - start);
+        countCreatures();
+    }
+
+}
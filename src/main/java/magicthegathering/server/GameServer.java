@@ -0,0 +1,253 @@
+package magicthegathering.server;
+
+import magicthegathering.CommandReader;
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.game.Generator;
+import magicthegathering.game.Strategy;
+import magicthegathering.metrics.EngineMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Server hosting independent games of the clients against the bot, every connection plays its own game
+ * using the line protocol of {@link GameSession}. Every connection is served by its own thread with blocking
+ * reads and writes, so a failing session ends only its own connection. The threads are virtual, so thousands
+ * of games are served at once. The registry of the sessions and the metrics are shared by all the threads,
+ * they are kept in a {@link ConcurrentHashMap} and in {@link LongAdder} counters, so the sessions do not contend
+ * on a lock. The games record into {@link EngineMetrics} registered as a platform MBean named after the port.
+ * The server listens on the loopback address only.
+ *
+ * @author Marek Sabo
+ */
+public final class GameServer implements Closeable {
+
+    /**
+     * Port used by {@link #main(String[])} if none is given.
+     */
+    public static final int DEFAULT_PORT = 4242;
+
+    static final int MAX_LINE = 1024;
+
+    private static final int BACKLOG = 4096;
+    private static final long ACCEPT_PAUSE_MILLIS = 100;
+
+    private final ServerSocket socket;
+    private final Thread acceptor;
+    private final ThreadFactory threads = sessionThreads();
+    private final long seed;
+    private final LongFunction<Strategy> bots;
+    private final AtomicLong ids = new AtomicLong();
+    private final ConcurrentMap<Long, Socket> sessions = new ConcurrentHashMap<>();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final EngineMetrics metrics = new EngineMetrics();
+
+    /**
+     * Constructor. Bind the server, it accepts the connections after {@link #start()}.
+     *
+     * @param port port on the loopback address, 0 means any free port
+     * @param seed seed from which the cards and the bots of the sessions are derived
+     * @param bots factory creating the strategy of the bot from the seed of the session
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalStateException if the metrics cannot be registered
+     */
+    public GameServer(int port, long seed, LongFunction<Strategy> bots) throws IOException {
+        this.seed = seed;
+        this.bots = bots;
+        this.socket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        try {
+            metrics.register("server-" + getPort());
+        } catch (RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+        this.acceptor = new Thread(this::accept, "game-accept");
+    }
+
+    /**
+     * Get factory of the threads of the sessions, virtual threads numbered in the order of the connections.
+     *
+     * @return factory of virtual threads named game-session-1, game-session-2 and so on
+     */
+    static ThreadFactory sessionThreads() {
+        return Thread.ofVirtual().name("game-session-", 1).factory();
+    }
+
+    /**
+     * Start accepting the connections.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Stop accepting the connections and close all the sessions.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        metrics.unregister();
+        socket.close();
+        for (Socket client : sessions.values()) {
+            close(client);
+        }
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public EngineMetrics getEngineMetrics() {
+        return metrics;
+    }
+
+    private void accept() {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                long id = ids.incrementAndGet();
+                sessions.put(id, client);
+                opened.increment();
+                threads.newThread(() -> serve(id, client)).start();
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    System.err.println("Connection cannot be accepted: " + e);
+                    pauseAccepting();
+                }
+            }
+        }
+    }
+
+    private static void pauseAccepting() {
+        try {
+            Thread.sleep(ACCEPT_PAUSE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Play the game of the connection until it ends or the client disconnects. Any failure
+     * of the session closes only its connection.
+     */
+    private void serve(long id, Socket client) {
+        GameSession session = null;
+        try (Writer out = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8)) {
+            long sessionSeed = Generator.deriveSeed(seed, id);
+            session = new GameSession(id, sessionSeed, bots.apply(sessionSeed), metrics);
+            CommandReader commands = new CommandReader(
+                    new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8), MAX_LINE);
+            send(out, session.start());
+            while (session.getOutcome() == null && commands.hasMoreLines()) {
+                lines.increment();
+                send(out, session.handle(commands));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // the client disconnected or sent too long line, the game is abandoned
+        } catch (RuntimeException e) {
+            System.err.println("Session " + id + " failed: " + e);
+        } finally {
+            close(client);
+            closeSession(id, session == null ? null : session.getOutcome());
+        }
+    }
+
+    private static void send(Writer out, String answer) throws IOException {
+        out.write(answer);
+        out.flush();
+    }
+
+    private static void close(Socket client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            System.err.println("Connection cannot be closed: " + e);
+        }
+    }
+
+    private void closeSession(long id, String outcome) {
+        if (sessions.remove(id) == null) {
+            return;
+        }
+        if (GameSession.WIN.equals(outcome)) {
+            won.increment();
+        } else if (GameSession.LOSE.equals(outcome)) {
+            lost.increment();
+        } else {
+            abandoned.increment();
+        }
+    }
+
+    /**
+     * Get number of the connected clients.
+     *
+     * @return number of the sessions which are not closed
+     */
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    public long getOpenedSessions() {
+        return opened.sum();
+    }
+
+    public long getHandledLines() {
+        return lines.sum();
+    }
+
+    public long getGamesWon() {
+        return won.sum();
+    }
+
+    public long getGamesLost() {
+        return lost.sum();
+    }
+
+    /**
+     * Get number of the games which the client quit or disconnected from before their end.
+     *
+     * @return number of the abandoned games
+     */
+    public long getGamesAbandoned() {
+        return abandoned.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active %d opened %d lines %d won %d lost %d abandoned %d", getActiveSessions(),
+                getOpenedSessions(), getHandledLines(), getGamesWon(), getGamesLost(), getGamesAbandoned());
+    }
+
+    /**
+     * Run the server with the greedy bot until the process is killed.
+     *
+     * @param args optional port, {@value #DEFAULT_PORT} by default
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer server = new GameServer(port, System.nanoTime(), seed -> new GreedyStrategy());
+        server.start();
+        System.out.println("Magic the Gathering server listening on port " + server.getPort());
+    }
+
+}
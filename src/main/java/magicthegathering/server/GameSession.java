@@ -0,0 +1,275 @@
+package magicthegathering.server;
+
+import magicthegathering.CommandReader;
+import magicthegathering.game.Card;
+import magicthegathering.game.CardView;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.PhaseInput;
+import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+import magicthegathering.metrics.EngineMetrics;
+import magicthegathering.metrics.MeteredGame;
+import magicthegathering.simulation.GameRunner;
+
+import java.util.Arrays;
+
+/**
+ * Game of one client against the bot, driven by the lines of the client. The game does not wait
+ * for the input, every line moves the game to the next decision of the client and the answer
+ * ends with the prompt {@code ? PHASE} or with {@code END WIN|LOSE|QUIT}. The input of the phases
+ * follows the same {@link PhaseInput rules} as {@link magicthegathering.MagicTheGathering}: whitespace
+ * separated indexes, empty line or -42 means skipping the action and -1 means not blocking the attacker.
+ * Lines {@code state} and {@code quit} are accepted in every phase.
+ * The session is not thread-safe, all its lines are handled by one thread.
+ *
+ * @author Marek Sabo
+ */
+final class GameSession {
+
+    static final String WIN = "WIN";
+    static final String LOSE = "LOSE";
+    static final String QUIT = "QUIT";
+
+    private enum Phase { LAND, BUY, ATTACK, BLOCK }
+
+    private final long id;
+    private final Game game;
+    private final Player human;
+    private final Player bot;
+    private final Strategy strategy;
+    private final StringBuilder out = new StringBuilder();
+    private Phase phase;
+    private CreatureCard[] attacking;
+    private String outcome;
+
+    /**
+     * Constructor. Deal the cards, the client moves first.
+     *
+     * @param id       id of the session
+     * @param seed     seed of the cards
+     * @param strategy strategy of the bot
+     * @param metrics  metrics into which the game records
+     */
+    GameSession(long id, long seed, Strategy strategy, EngineMetrics metrics) {
+        this.id = id;
+        this.human = new PlayerImpl("Player");
+        this.bot = new PlayerImpl("Bot");
+        this.game = new MeteredGame(new GameImpl(human, bot), metrics);
+        this.strategy = strategy;
+        game.initGame(seed);
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Get outcome of the finished game.
+     *
+     * @return {@value #WIN}, {@value #LOSE} or {@value #QUIT}, null if the game is in progress
+     */
+    String getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Begin the first turn of the client.
+     *
+     * @return greeting and the first prompt
+     */
+    String start() {
+        line("SESSION " + id);
+        startTurn();
+        line("? " + phase);
+        return flush();
+    }
+
+    /**
+     * Handle the next line of the client.
+     *
+     * @param commands lines of the client
+     * @return answer ending with the prompt or the outcome
+     * @throws java.util.NoSuchElementException if there are no more lines
+     */
+    String handle(CommandReader commands) {
+        String command = commands.readLine().trim();
+        if (outcome != null) {
+            line("ERR game is over");
+            return flush();
+        }
+        if ("quit".equalsIgnoreCase(command)) {
+            finish(QUIT);
+            return flush();
+        }
+        try {
+            if ("state".equalsIgnoreCase(command)) {
+                printState();
+            } else {
+                play(commands.parseInts());
+            }
+        } catch (IllegalArgumentException e) {
+            line("ERR " + e.getMessage());
+        }
+        if (outcome == null) {
+            line("? " + phase);
+        }
+        return flush();
+    }
+
+    private void play(int[] indexes) {
+        switch (phase) {
+            case LAND:
+                putLand(indexes);
+                break;
+            case BUY:
+                buyCreatures(indexes);
+                break;
+            case ATTACK:
+                attack(indexes);
+                break;
+            default:
+                block(indexes);
+        }
+    }
+
+    private void startTurn() {
+        game.prepareCurrentPlayerForTurn();
+        line("TURN " + human.getName() + " " + human.getLife() + " " + bot.getName() + " " + bot.getLife());
+        enter(Phase.LAND);
+    }
+
+    private void enter(Phase next) {
+        phase = next;
+        printOptions();
+    }
+
+    private void putLand(int[] indexes) {
+        LandCard land = PhaseInput.land(human, indexes);
+        if (land != null) {
+            human.putLandOnTable(land);
+            line("LAND " + land);
+        }
+        enter(Phase.BUY);
+    }
+
+    private void buyCreatures(int[] indexes) {
+        for (CreatureCard creature : PhaseInput.creatures(human, indexes)) {
+            line((human.putCreatureOnTable(creature) ? "CREATURE " : "UNAFFORDABLE ") + creature);
+        }
+        enter(Phase.ATTACK);
+    }
+
+    private void attack(int[] indexes) {
+        CreatureCard[] attackers = PhaseInput.attackers(game, indexes);
+        if (attackers.length != 0) {
+            game.performAttack(attackers);
+            CreatureCard[] blockers = strategy.chooseBlockers(game, attackers);
+            if (!game.isCreaturesBlockValid(attackers, blockers)) {
+                blockers = new CreatureCard[attackers.length];
+            }
+            printBlock(attackers, blockers);
+            game.performBlockAndDamage(attackers, blockers);
+        }
+        if (bot.isDead()) {
+            finish(WIN);
+            return;
+        }
+        game.changePlayer();
+        playBot();
+    }
+
+    private void playBot() {
+        game.prepareCurrentPlayerForTurn();
+        LandCard land = strategy.chooseLand(game);
+        if (land != null && bot.putLandOnTable(land)) {
+            line("OPPONENT LAND " + land);
+        }
+        for (CreatureCard creature : strategy.chooseCreatures(game)) {
+            if (bot.putCreatureOnTable(creature)) {
+                line("OPPONENT CREATURE " + creature);
+            }
+        }
+        attacking = GameRunner.attack(game, strategy.chooseAttackers(game));
+        if (attacking.length == 0) {
+            endBotTurn();
+        } else {
+            enter(Phase.BLOCK);
+        }
+    }
+
+    private void block(int[] indexes) {
+        CreatureCard[] blocking = PhaseInput.blockers(game, attacking, indexes);
+        printBlock(attacking, blocking);
+        game.performBlockAndDamage(attacking, blocking);
+        attacking = null;
+        if (human.isDead()) {
+            finish(LOSE);
+            return;
+        }
+        endBotTurn();
+    }
+
+    private void endBotTurn() {
+        game.changePlayer();
+        startTurn();
+    }
+
+    private void finish(String result) {
+        outcome = result;
+        line("END " + result);
+    }
+
+    private void printState() {
+        line("LIFE " + human.getLife() + " " + bot.getLife());
+        printCards("HAND ", human.getCardsInHandView());
+        printCards("TABLE ", human.getCardsOnTableView());
+        printCards("OPPONENT ", bot.getCardsOnTableView());
+        printOptions();
+    }
+
+    private void printOptions() {
+        if (phase == Phase.LAND) {
+            printIndexed(human.getLandsInHandView());
+        } else if (phase == Phase.BUY) {
+            printIndexed(human.getCreaturesInHandView());
+        } else if (phase == Phase.ATTACK) {
+            printIndexed(human.getCreaturesOnTableView());
+        } else {
+            printCards("ATTACKER ", Arrays.asList(attacking));
+            printIndexed(human.getCreaturesOnTableView());
+        }
+    }
+
+    private void printBlock(CreatureCard[] attackers, CreatureCard[] blockers) {
+        for (int i = 0; i < attackers.length; i++) {
+            line("BLOCK " + attackers[i] + " -> " + (blockers[i] == null ? "PLAYER" : blockers[i]));
+        }
+    }
+
+    private void printCards(String prefix, Iterable<? extends Card> cards) {
+        for (Card card : cards) {
+            line(prefix + card);
+        }
+    }
+
+    private void printIndexed(CardView<?> cards) {
+        for (int i = 0; i < cards.size(); i++) {
+            line(i + ": " + cards.get(i));
+        }
+    }
+
+    private void line(String text) {
+        out.append(text).append('\n');
+    }
+
+    private String flush() {
+        String answer = out.toString();
+        out.setLength(0);
+        return answer;
+    }
+
+}
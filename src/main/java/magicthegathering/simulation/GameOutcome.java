@@ -0,0 +1,57 @@
+package magicthegathering.simulation;
+
+/**
+ * Outcome of one finished game.
+ *
+ * @author Marek Sabo
+ */
+public final class GameOutcome {
+
+    /**
+     * Winner of the game which ended in draw.
+     */
+    public static final int DRAW = -1;
+
+    private final int winner;
+    private final int turns;
+    private final int firstLife;
+    private final int secondLife;
+
+    /**
+     * Constructor.
+     *
+     * @param winner     index of the winner, 0 for the first player, 1 for the second one or {@link #DRAW}
+     * @param turns      number of played turns
+     * @param firstLife  remaining life of the first player
+     * @param secondLife remaining life of the second player
+     */
+    public GameOutcome(int winner, int turns, int firstLife, int secondLife) {
+        this.winner = winner;
+        this.turns = turns;
+        this.firstLife = firstLife;
+        this.secondLife = secondLife;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public int getFirstLife() {
+        return firstLife;
+    }
+
+    public int getSecondLife() {
+        return secondLife;
+    }
+
+    @Override
+    public String toString() {
+        String result = winner == DRAW ? "Draw" : "Player " + (winner + 1) + " won";
+        return result + " after " + turns + " turns, lives " + firstLife + " / " + secondLife;
+    }
+
+}
@@ -0,0 +1,129 @@
+package magicthegathering.simulation;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
+
+/**
+ * Plays a game without user interface. The turn has the same phases as in
+ * {@link magicthegathering.MagicTheGathering}, but the decisions are made by strategies.
+ * Invalid attack is skipped and invalid block is replaced by no block at all.
+ *
+ * @author Marek Sabo
+ */
+public final class GameRunner {
+
+    private GameRunner() {
+    }
+
+    /**
+     * Play initialized game until one of the players is dead.
+     *
+     * @param game     initialized game, the current player is the first one
+     * @param first    strategy of the current player
+     * @param second   strategy of the second player
+     * @param maxTurns number of turns after which the game ends in draw
+     * @return outcome of the game
+     */
+    public static GameOutcome play(Game game, Strategy first, Strategy second, int maxTurns) {
+        Player firstPlayer = game.getCurrentPlayer();
+        Player secondPlayer = game.getSecondPlayer();
+        int turns = 0;
+        while (!game.getCurrentPlayer().isDead() && turns < maxTurns) {
+            boolean firstOnTurn = game.getCurrentPlayer() == firstPlayer;
+            playTurn(game, firstOnTurn ? first : second, firstOnTurn ? second : first);
+            game.changePlayer();
+            turns++;
+        }
+
+        int winner = GameOutcome.DRAW;
+        if (game.getCurrentPlayer().isDead()) {
+            winner = game.getCurrentPlayer() == firstPlayer ? 1 : 0;
+        }
+        return new GameOutcome(winner, turns, firstPlayer.getLife(), secondPlayer.getLife());
+    }
+
+    /**
+     * Play one turn of the current player.
+     *
+     * @param game     game in progress
+     * @param current  strategy of the current player
+     * @param defender strategy of the second player
+     */
+    public static void playTurn(Game game, Strategy current, Strategy defender) {
+        game.prepareCurrentPlayerForTurn();
+        putLandOnTable(game, current.chooseLand(game));
+        buyCreatures(game, current.chooseCreatures(game));
+        attackAndBlock(game, current, defender);
+    }
+
+    /**
+     * Phase 1, the current player puts the land on the table.
+     *
+     * @param game game in progress
+     * @param land chosen land, null means skipping the action
+     */
+    public static void putLandOnTable(Game game, LandCard land) {
+        if (land != null) {
+            game.getCurrentPlayer().putLandOnTable(land);
+        }
+    }
+
+    /**
+     * Phase 2, the current player puts the creatures on the table, the ones he cannot afford are skipped.
+     *
+     * @param game      game in progress
+     * @param creatures chosen creatures in order of summoning
+     */
+    public static void buyCreatures(Game game, CreatureCard[] creatures) {
+        for (CreatureCard creature : creatures) {
+            game.getCurrentPlayer().putCreatureOnTable(creature);
+        }
+    }
+
+    /**
+     * Phase 3, the current player attacks and the second player blocks.
+     *
+     * @param game     game in progress
+     * @param current  strategy of the current player
+     * @param defender strategy of the second player
+     */
+    public static void attackAndBlock(Game game, Strategy current, Strategy defender) {
+        CreatureCard[] attacking = attack(game, current.chooseAttackers(game));
+        if (attacking.length != 0) {
+            block(game, attacking, defender.chooseBlockers(game, attacking));
+        }
+    }
+
+    /**
+     * Phase 3.1, the creatures of the current player attack.
+     *
+     * @param game      game in progress
+     * @param attacking chosen attacking creatures
+     * @return attacking creatures, empty array if the attack is skipped or invalid
+     */
+    public static CreatureCard[] attack(Game game, CreatureCard[] attacking) {
+        if (attacking.length == 0 || !game.isCreaturesAttackValid(attacking)) {
+            return new CreatureCard[0];
+        }
+        game.performAttack(attacking);
+        return attacking;
+    }
+
+    /**
+     * Phase 3.2, the second player blocks the attack, invalid block means no block at all.
+     *
+     * @param game      game in progress
+     * @param attacking attacking creatures
+     * @param blocking  chosen blocking creatures
+     */
+    public static void block(Game game, CreatureCard[] attacking, CreatureCard[] blocking) {
+        if (!game.isCreaturesBlockValid(attacking, blocking)) {
+            blocking = new CreatureCard[attacking.length];
+        }
+        game.performBlockAndDamage(attacking, blocking);
+    }
+
+}
@@ -0,0 +1,144 @@
+package magicthegathering.simulation;
+
+/**
+ * Histogram of non-negative int values with constant memory, in the style of HdrHistogram.
+ * Values lower than 64 have their own bucket, larger values share buckets whose width is
+ * 1/32 of the power of two below the value, so every recorded value is known with relative error
+ * below 3.2%. Histograms are merged by adding the counts, so they can be recorded by different threads
+ * and combined at the end.
+ *
+ * @author Marek Sabo
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Number of the buckets, see {@link #indexOf(int)}.
+     */
+    public static final int BUCKETS = (Integer.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max;
+
+    /**
+     * Record one value.
+     *
+     * @param value recorded value
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(int value) {
+        record(value, 1);
+    }
+
+    /**
+     * Record the value several times, used to fill the histogram from bucket counts kept elsewhere.
+     *
+     * @param value recorded value
+     * @param times how many times the value is recorded
+     * @throws IllegalArgumentException if the value or the number of times is negative
+     */
+    public void record(int value, long times) {
+        if (value < 0 || times < 0) {
+            throw new IllegalArgumentException("Histogram records non-negative values, was " + value + " x " + times);
+        }
+        if (times == 0) {
+            return;
+        }
+        counts[indexOf(value)] += times;
+        count += times;
+        sum += value * times;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Add counts of other histogram into this one.
+     *
+     * @param other other histogram
+     * @return this histogram
+     */
+    public Histogram merge(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Get bucket of the value.
+     *
+     * @param value non-negative value
+     * @return index of the bucket from 0 to {@link #BUCKETS} - 1
+     */
+    public static int indexOf(int value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return value;
+        }
+        int shift = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Get lowest value of the bucket.
+     *
+     * @param index index of the bucket
+     * @return lowest value which falls into the bucket
+     */
+    public static int lowestValueOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Get value below which the given percentage of the recorded values is.
+     *
+     * @param percentile percentage from 0 to 100
+     * @return lowest value of the bucket of the percentile, 0 if the histogram is empty
+     */
+    public int getValueAtPercentile(double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(getMin(), Math.min(max, lowestValueOf(i)));
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("min %d p50 %d p90 %d p99 %d max %d", getMin(), getValueAtPercentile(50),
+                getValueAtPercentile(90), getValueAtPercentile(99), getMax());
+    }
+
+}
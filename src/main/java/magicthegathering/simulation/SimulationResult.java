@@ -0,0 +1,193 @@
+package magicthegathering.simulation;
+
+import magicthegathering.game.Generator;
+
+/**
+ * Aggregated statistics of simulated games. Games are not stored, every game is recorded into histograms
+ * and counters, so the memory does not grow with the number of games. Every task of the simulation
+ * records its games into its own result and the results of the tasks are combined
+ * by {@link #merge(SimulationResult)}, only counts are added, so the merged result does not depend
+ * on the order of merging.
+ *
+ * @author Marek Sabo
+ */
+public final class SimulationResult {
+
+    private static final double NANOS_IN_SECOND = 1e9;
+
+    private long games;
+    private long firstWins;
+    private long secondWins;
+    private final Histogram turns = new Histogram();
+    private final Histogram winnerLife = new Histogram();
+    private final Histogram summoned = new Histogram();
+    private final Histogram destroyed = new Histogram();
+    private final long[] profileGames = new long[Generator.PROFILE_COUNT];
+    private final long[] profileHalfPoints = new long[Generator.PROFILE_COUNT];
+    private long elapsedNanos;
+
+    /**
+     * Add outcome of one game.
+     *
+     * @param outcome outcome of the game
+     */
+    void add(GameOutcome outcome) {
+        games++;
+        if (outcome.getWinner() == 0) {
+            firstWins++;
+            winnerLife.record(Math.max(outcome.getFirstLife(), 0));
+        } else if (outcome.getWinner() == 1) {
+            secondWins++;
+            winnerLife.record(Math.max(outcome.getSecondLife(), 0));
+        }
+        turns.record(outcome.getTurns());
+    }
+
+    /**
+     * Add outcome of one game with statistics of both players.
+     *
+     * @param outcome   outcome of the game
+     * @param summoned  number of creatures put on the table by the first and the second player
+     * @param destroyed number of destroyed creatures of the first and the second player
+     * @param profiles  profiles of the cards of the first and the second player, see {@link Generator#profileOf}
+     */
+    void add(GameOutcome outcome, int[] summoned, int[] destroyed, int[] profiles) {
+        add(outcome);
+        for (int player = 0; player < 2; player++) {
+            this.summoned.record(summoned[player]);
+            this.destroyed.record(destroyed[player]);
+            profileGames[profiles[player]]++;
+            if (outcome.getWinner() == player) {
+                profileHalfPoints[profiles[player]] += 2;
+            } else if (outcome.getWinner() == GameOutcome.DRAW) {
+                profileHalfPoints[profiles[player]]++;
+            }
+        }
+    }
+
+    /**
+     * Add statistics of other result into this one.
+     *
+     * @param other other result
+     * @return this result
+     */
+    SimulationResult merge(SimulationResult other) {
+        games += other.games;
+        firstWins += other.firstWins;
+        secondWins += other.secondWins;
+        turns.merge(other.turns);
+        winnerLife.merge(other.winnerLife);
+        summoned.merge(other.summoned);
+        destroyed.merge(other.destroyed);
+        for (int i = 0; i < profileGames.length; i++) {
+            profileGames[i] += other.profileGames[i];
+            profileHalfPoints[i] += other.profileHalfPoints[i];
+        }
+        return this;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getFirstWins() {
+        return firstWins;
+    }
+
+    public long getSecondWins() {
+        return secondWins;
+    }
+
+    public long getDraws() {
+        return games - firstWins - secondWins;
+    }
+
+    public double getAverageTurns() {
+        return turns.getMean();
+    }
+
+    public int getMinTurns() {
+        return turns.getMin();
+    }
+
+    public int getMaxTurns() {
+        return turns.getMax();
+    }
+
+    public Histogram getTurns() {
+        return turns;
+    }
+
+    public Histogram getWinnerLife() {
+        return winnerLife;
+    }
+
+    public Histogram getSummoned() {
+        return summoned;
+    }
+
+    public Histogram getDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Get number of games played by the cards of the profile, both players are counted.
+     *
+     * @param profile profile of the cards, see {@link Generator#profileOf}
+     * @return number of games
+     */
+    public long getProfileGames(int profile) {
+        return profileGames[profile];
+    }
+
+    /**
+     * Get win rate of the cards of the profile, draw counts as half a win.
+     *
+     * @param profile profile of the cards, see {@link Generator#profileOf}
+     * @return win rate from 0 to 1, 0 if the profile played no game
+     */
+    public double getProfileWinRate(int profile) {
+        return profileGames[profile] == 0 ? 0 : profileHalfPoints[profile] / 2.0 / profileGames[profile];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * NANOS_IN_SECOND / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games, first won %d, second won %d, draws %d, "
+                        + "turns avg %.2f min %d max %d, %.0f games/s",
+                games, firstWins, secondWins, getDraws(),
+                getAverageTurns(), getMinTurns(), getMaxTurns(), getGamesPerSecond());
+    }
+
+    /**
+     * Describe histograms and win rates of the profiles.
+     *
+     * @return multi-line report
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(toString()).append(System.lineSeparator())
+                .append("turns: ").append(turns).append(System.lineSeparator())
+                .append("life of the winner: ").append(winnerLife).append(System.lineSeparator())
+                .append("creatures summoned: ").append(summoned).append(System.lineSeparator())
+                .append("creatures destroyed: ").append(destroyed).append(System.lineSeparator());
+        for (int profile = 0; profile < profileGames.length; profile++) {
+            if (profileGames[profile] > 0) {
+                report.append(String.format("%-22s %5.1f %% of %d games%n", Generator.describeProfile(profile),
+                        100 * getProfileWinRate(profile), profileGames[profile]));
+            }
+        }
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,171 @@
+package magicthegathering.simulation;
+
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.ai.RandomStrategy;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.Generator;
+import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+/**
+ * Runs many games between two strategies on all the cores.
+ * Games are split into ranges which are processed by a work-stealing {@link ForkJoinPool},
+ * every game gets its cards and strategies from the seed derived from the game index,
+ * so the results depend only on the seed and not on the number of threads.
+ *
+ * @author Marek Sabo
+ */
+public class Simulator {
+
+    /**
+     * Default number of turns after which the game ends in draw.
+     */
+    public static final int DEFAULT_MAX_TURNS = 200;
+
+    private static final int GAMES_PER_TASK = 256;
+    private static final long DEFAULT_GAMES = 1_000_000;
+    private static final CreatureCard[] COUNT_ONLY = new CreatureCard[0];
+
+    private final LongFunction<Strategy> first;
+    private final LongFunction<Strategy> second;
+    private final int maxTurns;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor. Create simulator using the common pool.
+     *
+     * @param first    creates strategy of the first player from the seed
+     * @param second   creates strategy of the second player from the seed
+     * @param maxTurns number of turns after which the game ends in draw
+     */
+    public Simulator(LongFunction<Strategy> first, LongFunction<Strategy> second, int maxTurns) {
+        this(first, second, maxTurns, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param first    creates strategy of the first player from the seed
+     * @param second   creates strategy of the second player from the seed
+     * @param maxTurns number of turns after which the game ends in draw
+     * @param pool     pool running the games
+     */
+    public Simulator(LongFunction<Strategy> first, LongFunction<Strategy> second, int maxTurns, ForkJoinPool pool) {
+        this.first = first;
+        this.second = second;
+        this.maxTurns = maxTurns;
+        this.pool = pool;
+    }
+
+    /**
+     * Play given number of games.
+     *
+     * @param games number of games
+     * @param seed  seed from which the seeds of the games are derived
+     * @return aggregated statistics
+     */
+    public SimulationResult run(long games, long seed) {
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(new Batch(0, games, seed));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Play one game.
+     *
+     * @param seed seed of the game
+     * @return outcome of the game
+     */
+    public GameOutcome playGame(long seed) {
+        return playGame(seed, null);
+    }
+
+    /**
+     * Play one game and record it with the statistics of the players into the result.
+     *
+     * @param seed   seed of the game
+     * @param result result of the games played so far, null means not recording the game
+     * @return outcome of the game
+     */
+    private GameOutcome playGame(long seed, SimulationResult result) {
+        Player[] players = {new PlayerImpl("First"), new PlayerImpl("Second")};
+        Game game = new GameImpl(players[0], players[1]);
+        game.initGame(seed);
+        int[] profiles = new int[players.length];
+        int[] creatures = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            profiles[i] = Generator.profileOf(players[i].getCardsInHand());
+            creatures[i] = players[i].getCreaturesInHand(COUNT_ONLY);
+        }
+
+        GameOutcome outcome = GameRunner.play(game, first.apply(Generator.deriveSeed(seed, 2)),
+                second.apply(Generator.deriveSeed(seed, 3)), maxTurns);
+
+        int[] summoned = new int[players.length];
+        int[] destroyed = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            int onTable = players[i].getCreaturesOnTable(COUNT_ONLY);
+            destroyed[i] = creatures[i] - players[i].getCreaturesInHand(COUNT_ONLY) - onTable;
+            summoned[i] = onTable + destroyed[i];
+        }
+        if (result != null) {
+            result.add(outcome, summoned, destroyed, profiles);
+        }
+        return outcome;
+    }
+
+    /**
+     * Task playing games with indexes from the given range.
+     */
+    private final class Batch extends RecursiveTask<SimulationResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long seed;
+
+        private Batch(long from, long to, long seed) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                SimulationResult result = new SimulationResult();
+                for (long i = from; i < to; i++) {
+                    playGame(Generator.deriveSeed(seed, i), result);
+                }
+                return result;
+            }
+            long middle = (from + to) >>> 1;
+            Batch left = new Batch(from, middle, seed);
+            left.fork();
+            SimulationResult right = new Batch(middle, to, seed).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Simulate games of the greedy strategy against the random one.
+     *
+     * @param args number of games and seed, both optional
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GAMES;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        Simulator simulator = new Simulator(s -> new GreedyStrategy(), RandomStrategy::new, DEFAULT_MAX_TURNS);
+        System.out.println("Greedy vs random: " + simulator.run(games, seed).report());
+    }
+
+}
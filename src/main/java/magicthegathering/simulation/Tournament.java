@@ -0,0 +1,172 @@
+package magicthegathering.simulation;
+
+import magicthegathering.ai.MctsStrategy;
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.ai.RandomStrategy;
+import magicthegathering.game.Game;
+import magicthegathering.game.Generator;
+import magicthegathering.game.Strategy;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+/**
+ * Round-robin tournament of strategies. Every pair of entrants plays the given number of games,
+ * games are played in pairs with the same cards, the entrants swap the cards and who moves first.
+ * All the games are split into ranges processed by a {@link ForkJoinPool}, every game gets
+ * its cards and strategies from the seed derived from the pairing and the game index, so the results
+ * depend only on the seed and not on the number of threads, provided the strategies are deterministic.
+ *
+ * @author Marek Sabo
+ */
+public class Tournament {
+
+    private static final int GAMES_PER_TASK = 32;
+    private static final int DEFAULT_GAMES_PER_PAIRING = 200;
+    private static final int MONTE_CARLO_PLAYOUTS = 200;
+    private static final long MONTE_CARLO_BUDGET_MILLIS = 60_000;
+
+    private final String[] names;
+    private final List<LongFunction<Strategy>> strategies;
+    private final int[] pairingFirst;
+    private final int[] pairingSecond;
+    private final int gamesPerPairing;
+    private final int maxTurns;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor. Create tournament using the common pool.
+     *
+     * @param entrants        names of the entrants mapped to the factories creating their strategy from the seed
+     * @param gamesPerPairing number of games of every pair of entrants
+     * @param maxTurns        number of turns after which the game ends in draw
+     */
+    public Tournament(Map<String, LongFunction<Strategy>> entrants, int gamesPerPairing, int maxTurns) {
+        this(entrants, gamesPerPairing, maxTurns, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor. Entrants are numbered in the iteration order of the map.
+     *
+     * @param entrants        names of the entrants mapped to the factories creating their strategy from the seed
+     * @param gamesPerPairing number of games of every pair of entrants
+     * @param maxTurns        number of turns after which the game ends in draw
+     * @param pool            pool running the games
+     * @throws IllegalArgumentException if there are less than two entrants or the number of games is not positive
+     */
+    public Tournament(Map<String, LongFunction<Strategy>> entrants, int gamesPerPairing, int maxTurns,
+                      ForkJoinPool pool) {
+        if (entrants.size() < 2 || gamesPerPairing <= 0) {
+            throw new IllegalArgumentException("Tournament needs two entrants and positive number of games");
+        }
+        this.names = entrants.keySet().toArray(new String[0]);
+        this.strategies = new ArrayList<>(entrants.values());
+        int pairings = names.length * (names.length - 1) / 2;
+        this.pairingFirst = new int[pairings];
+        this.pairingSecond = new int[pairings];
+        int pairing = 0;
+        for (int i = 0; i < names.length; i++) {
+            for (int j = i + 1; j < names.length; j++) {
+                pairingFirst[pairing] = i;
+                pairingSecond[pairing++] = j;
+            }
+        }
+        this.gamesPerPairing = gamesPerPairing;
+        this.maxTurns = maxTurns;
+        this.pool = pool;
+    }
+
+    /**
+     * Play all the games of the tournament.
+     *
+     * @param seed seed from which the seeds of the games are derived
+     * @return scores and ratings of the entrants
+     */
+    public TournamentResult run(long seed) {
+        long start = System.nanoTime();
+        TournamentResult result = pool.invoke(new Batch(0, (long) pairingFirst.length * gamesPerPairing, seed));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Play one game of the tournament and record it into the result.
+     *
+     * @param index  index of the game among all the games of the tournament
+     * @param seed   seed of the tournament
+     * @param result result of the games played so far
+     */
+    private void playGame(long index, long seed, TournamentResult result) {
+        int pairing = (int) (index / gamesPerPairing);
+        int game = (int) (index % gamesPerPairing);
+        long dealSeed = Generator.deriveSeed(Generator.deriveSeed(seed, pairing), game / 2);
+        boolean swapped = game % 2 == 1;
+        int first = swapped ? pairingSecond[pairing] : pairingFirst[pairing];
+        int second = swapped ? pairingFirst[pairing] : pairingSecond[pairing];
+
+        Game played = new GameImpl(new PlayerImpl(names[first]), new PlayerImpl(names[second]));
+        played.initGame(dealSeed);
+        GameOutcome outcome = GameRunner.play(played,
+                strategies.get(first).apply(Generator.deriveSeed(dealSeed, swapped ? 3 : 2)),
+                strategies.get(second).apply(Generator.deriveSeed(dealSeed, swapped ? 2 : 3)), maxTurns);
+        result.add(first, second, outcome);
+    }
+
+    /**
+     * Task playing games with indexes from the given range.
+     */
+    private final class Batch extends RecursiveTask<TournamentResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long seed;
+
+        private Batch(long from, long to, long seed) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected TournamentResult compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                TournamentResult result = new TournamentResult(names);
+                for (long i = from; i < to; i++) {
+                    playGame(i, seed, result);
+                }
+                return result;
+            }
+            long middle = (from + to) >>> 1;
+            Batch left = new Batch(from, middle, seed);
+            left.fork();
+            TournamentResult right = new Batch(middle, to, seed).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Play tournament of the random, greedy and Monte Carlo strategies. Monte Carlo search is limited
+     * by the number of playouts instead of time, so the results are reproducible.
+     *
+     * @param args number of games of every pairing and seed, both optional
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES_PER_PAIRING;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        Map<String, LongFunction<Strategy>> entrants = new LinkedHashMap<>();
+        entrants.put("Random", RandomStrategy::new);
+        entrants.put("Greedy", s -> new GreedyStrategy());
+        entrants.put("MonteCarlo", s -> new MctsStrategy(s, MONTE_CARLO_BUDGET_MILLIS, MONTE_CARLO_PLAYOUTS));
+        System.out.println(new Tournament(entrants, games, Simulator.DEFAULT_MAX_TURNS).run(seed));
+    }
+
+}
@@ -0,0 +1,235 @@
+package magicthegathering.simulation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Scores and ratings of the entrants of a tournament. Results computed by different threads
+ * are combined by {@link #merge(TournamentResult)}, only integer counts are merged, so the result
+ * does not depend on the order of merging.
+ * Elo ratings are the maximum likelihood estimate of the Bradley-Terry model, found by the MM algorithm,
+ * draws count as half a win and every pair of entrants gets one virtual draw, so the ratings stay finite
+ * even if an entrant won all the games. Average rating is {@link #AVERAGE_RATING}. Confidence interval
+ * comes from the Fisher information of the rating of the entrant with the others fixed.
+ *
+ * @author Marek Sabo
+ */
+public final class TournamentResult {
+
+    /**
+     * Average rating of the entrants.
+     */
+    public static final double AVERAGE_RATING = 1500;
+
+    private static final double ELO_SCALE = 400 / Math.log(10);
+    private static final double Z_95 = 1.96;
+    private static final int MAX_ITERATIONS = 100_000;
+    private static final double PRECISION = 1e-12;
+    private static final double NANOS_IN_SECOND = 1e9;
+
+    private final String[] names;
+    private final long[][] games;
+    private final long[][] halfPoints;
+    private long elapsedNanos;
+    private double[] ratings;
+    private double[] intervals;
+
+    /**
+     * Constructor. Create result with no games.
+     *
+     * @param names names of the entrants
+     */
+    TournamentResult(String[] names) {
+        this.names = names;
+        this.games = new long[names.length][names.length];
+        this.halfPoints = new long[names.length][names.length];
+    }
+
+    /**
+     * Add outcome of one game.
+     *
+     * @param first   index of the entrant who moved first
+     * @param second  index of the other entrant
+     * @param outcome outcome of the game
+     */
+    void add(int first, int second, GameOutcome outcome) {
+        games[first][second]++;
+        games[second][first]++;
+        if (outcome.getWinner() == 0) {
+            halfPoints[first][second] += 2;
+        } else if (outcome.getWinner() == 1) {
+            halfPoints[second][first] += 2;
+        } else {
+            halfPoints[first][second]++;
+            halfPoints[second][first]++;
+        }
+    }
+
+    /**
+     * Add games of other result into this one.
+     *
+     * @param other other result of the same entrants
+     * @return this result
+     */
+    TournamentResult merge(TournamentResult other) {
+        for (int i = 0; i < names.length; i++) {
+            for (int j = 0; j < names.length; j++) {
+                games[i][j] += other.games[i][j];
+                halfPoints[i][j] += other.halfPoints[i][j];
+            }
+        }
+        return this;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get number of entrants.
+     *
+     * @return number of entrants
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Get name of the entrant.
+     *
+     * @param entrant index of the entrant
+     * @return name
+     */
+    public String getName(int entrant) {
+        return names[entrant];
+    }
+
+    /**
+     * Get number of games of two entrants.
+     *
+     * @param entrant  index of the entrant
+     * @param opponent index of the opponent
+     * @return number of games against each other
+     */
+    public long getGames(int entrant, int opponent) {
+        return games[entrant][opponent];
+    }
+
+    /**
+     * Get points of the entrant against the opponent, win is one point and draw half a point.
+     *
+     * @param entrant  index of the entrant
+     * @param opponent index of the opponent
+     * @return points of the entrant
+     */
+    public double getPoints(int entrant, int opponent) {
+        return halfPoints[entrant][opponent] / 2.0;
+    }
+
+    /**
+     * Get Elo rating of the entrant.
+     *
+     * @param entrant index of the entrant
+     * @return rating
+     */
+    public double getRating(int entrant) {
+        rate();
+        return ratings[entrant];
+    }
+
+    /**
+     * Get half width of the 95% confidence interval of the rating.
+     *
+     * @param entrant index of the entrant
+     * @return the rating is within this distance from the true rating with 95% probability
+     */
+    public double getConfidence(int entrant) {
+        rate();
+        return intervals[entrant];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Compute ratings and confidence intervals unless they are computed.
+     */
+    private void rate() {
+        if (ratings != null) {
+            return;
+        }
+        double[] strengths = strengths();
+        ratings = new double[names.length];
+        intervals = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            ratings[i] = AVERAGE_RATING + ELO_SCALE * Math.log(strengths[i]);
+            double information = 0;
+            for (int j = 0; j < names.length; j++) {
+                if (j != i) {
+                    double expected = strengths[i] / (strengths[i] + strengths[j]);
+                    information += (games[i][j] + 1) * expected * (1 - expected);
+                }
+            }
+            intervals[i] = Z_95 * ELO_SCALE / Math.sqrt(information);
+        }
+    }
+
+    /**
+     * Find strengths of the Bradley-Terry model by the MM algorithm, their geometric mean is 1.
+     *
+     * @return strength of every entrant
+     */
+    private double[] strengths() {
+        double[] strengths = new double[names.length];
+        Arrays.fill(strengths, 1);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double[] next = new double[names.length];
+            double logSum = 0;
+            for (int i = 0; i < names.length; i++) {
+                double points = 0;
+                double denominator = 0;
+                for (int j = 0; j < names.length; j++) {
+                    if (j != i) {
+                        points += (halfPoints[i][j] + 1) / 2.0;
+                        denominator += (games[i][j] + 1) / (strengths[i] + strengths[j]);
+                    }
+                }
+                next[i] = points / denominator;
+                logSum += Math.log(next[i]);
+            }
+            double change = 0;
+            for (int i = 0; i < names.length; i++) {
+                next[i] /= Math.exp(logSum / names.length);
+                change = Math.max(change, Math.abs(next[i] / strengths[i] - 1));
+            }
+            strengths = next;
+            if (change < PRECISION) {
+                break;
+            }
+        }
+        return strengths;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder();
+        IntStream.range(0, names.length).boxed()
+                .sorted(Comparator.comparingDouble(this::getRating).reversed())
+                .forEach(i -> table.append(String.format("%-12s %6.0f +- %3.0f  %s%n", names[i], getRating(i),
+                        getConfidence(i), totals(i))));
+        return table.append(String.format("%.1f s", elapsedNanos / NANOS_IN_SECOND)).toString();
+    }
+
+    private String totals(int entrant) {
+        double points = 0;
+        long played = 0;
+        for (int j = 0; j < names.length; j++) {
+            points += getPoints(entrant, j);
+            played += games[entrant][j];
+        }
+        return String.format("%.1f / %d points", points, played);
+    }
+
+}
@@ -0,0 +1,89 @@
+package magicthegathering;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Zuzana Wolfova
+ */
+public class CommandReaderTest {
+
+    @Test
+    public void readsLinesAndNumbers() {
+        CommandReader reader = new CommandReader(new StringReader("Zuzka\r\n3\n\n 0  -1\t2 \n-42\nlast"));
+
+        assertEquals("Zuzka", reader.readLine());
+        assertEquals(3, reader.readInt(-42));
+        assertEquals(-42, reader.readInt(-42));
+        assertArrayEquals(new int[] {0, -1, 2}, reader.readInts());
+        assertArrayEquals(new int[] {-42}, reader.readInts());
+        assertTrue(reader.hasMoreLines());
+        assertEquals("last", reader.readLine());
+        assertFalse(reader.hasMoreLines());
+    }
+
+    @Test
+    public void readsLongLinesAcrossBlocks() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            input.append(i % 7).append(' ');
+        }
+        input.append("\n").append(Integer.MIN_VALUE).append(' ').append(Integer.MAX_VALUE).append('\n');
+        CommandReader reader = new CommandReader(new StringReader(input.toString()));
+
+        int[] numbers = reader.readInts();
+        assertEquals(100_000, numbers.length);
+        assertEquals(99_999 % 7, numbers[99_999]);
+        assertArrayEquals(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE}, reader.readInts());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void wordIsNotNumber() {
+        new CommandReader(new StringReader("1 two\n")).readInts();
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void overflowIsNotNumber() {
+        new CommandReader(new StringReader("2147483648\n")).readInt(0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void signIsNotNumber() {
+        new CommandReader(new StringReader("-\n")).readInt(0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void landIsOneNumber() {
+        new CommandReader(new StringReader("1 2\n")).readInt(0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void noMoreCommands() {
+        CommandReader reader = new CommandReader(new StringReader("1\n"));
+        reader.readInt(0);
+        reader.readInt(0);
+    }
+
+    @Test
+    public void readLineIsParsedInPlace() {
+        CommandReader reader = new CommandReader(new StringReader(" 3 -1\nstate\n"));
+
+        assertEquals(" 3 -1", reader.readLine());
+        assertArrayEquals(new int[] {3, -1}, reader.parseInts());
+        assertEquals("state", reader.readLine());
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void lineLongerThanLimit() {
+        new CommandReader(new StringReader("12345\n"), 4).readLine();
+    }
+
+}
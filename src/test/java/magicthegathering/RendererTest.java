@@ -0,0 +1,69 @@
+package magicthegathering;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.LandCardType;
+import magicthegathering.game.ManaType;
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.LandCardImpl;
+import magicthegathering.impl.PlayerImpl;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Zuzana Wolfova
+ */
+public class RendererTest {
+
+    private final StringWriter out = new StringWriter();
+    private final CreatureCard elf = new CreatureCardImpl("Dark Elf",
+            new ManaType[] {ManaType.GREEN, ManaType.BLACK, ManaType.GREEN}, 2, 1);
+    private final Card[] cards = {new LandCardImpl(LandCardType.FOREST), elf};
+
+    @Test
+    public void textScreenIsWrittenByPrompt() {
+        Renderer screen = new Renderer(out, false);
+        screen.phase("LAND", "Phase 1");
+        screen.options(cards);
+        assertEquals("", out.toString());
+
+        screen.prompt("LAND", "Which land?");
+
+        assertEquals("Phase 1\n=======\n\n0: Land forest, GREEN\n1: Dark Elf [GREEN, BLACK, GREEN] 2 / 1 can attack\n"
+                + "\nWhich land?\n", out.toString());
+    }
+
+    @Test
+    public void compactScreenLeavesOutExplanations() {
+        Renderer screen = new Renderer(out, true);
+        screen.turn(new PlayerImpl("Zuzka"));
+        screen.say("Welcome");
+        elf.setSummoningSickness();
+        elf.tap();
+        screen.cards("HAND", "Your hand:", Arrays.asList(cards));
+        screen.event("CREATURE", elf, "Creature was put on table.");
+        screen.block(new CreatureCard[] {elf}, new CreatureCard[1]);
+        screen.error("Invalid attack");
+        screen.prompt("ATTACK", "Choose creatures");
+
+        assertEquals("TURN 20 Zuzka\nHAND L FOREST -\nHAND C 2 1 0,0,2,0,1 ST Dark Elf\n"
+                + "CREATURE C 2 1 0,0,2,0,1 ST Dark Elf\nATTACKER C 2 1 0,0,2,0,1 ST Dark Elf\nBLOCKER PLAYER\n"
+                + "ERR Invalid attack\n? ATTACK\n", out.toString());
+    }
+
+    @Test
+    public void bufferIsClearedByFlush() {
+        Renderer screen = new Renderer(out, false);
+        screen.event("CREATURE", elf, "Creature was put on table.");
+        screen.event("WINNER", "Zuzka", "Player Zuzka has won.");
+        screen.flush();
+        screen.flush();
+
+        assertEquals("Creature was put on table.\nPlayer Zuzka has won.\n", out.toString());
+    }
+
+}
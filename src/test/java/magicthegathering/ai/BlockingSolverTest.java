@@ -0,0 +1,117 @@
+package magicthegathering.ai;
+
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.ManaType;
+import magicthegathering.impl.ArrayUtils;
+import magicthegathering.impl.CreatureCardImpl;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static magicthegathering.ai.BlockingSolver.Objective.MAX_TRADES;
+import static magicthegathering.ai.BlockingSolver.Objective.MIN_LIFE_LOST;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author Marek Sabo
+ */
+public class BlockingSolverTest {
+
+    private static CreatureCard creature(int power, int toughness) {
+        return new CreatureCardImpl("Creature", new ManaType[]{}, power, toughness);
+    }
+
+    @Test
+    public void safeBlockDestroysAttacker() {
+        CreatureCard attacker = creature(2, 2);
+        CreatureCard weak = creature(1, 1);
+        CreatureCard strong = creature(3, 3);
+        CreatureCard[] attacking = {attacker};
+        CreatureCard[] blockers = {weak, strong};
+
+        assertArrayEquals(new CreatureCard[]{strong}, BlockingSolver.solve(attacking, blockers, MAX_TRADES));
+        assertArrayEquals(new CreatureCard[]{strong}, BlockingSolver.solve(attacking, blockers, MIN_LIFE_LOST));
+    }
+
+    @Test
+    public void chumpBlockOnlyToSaveLife() {
+        CreatureCard[] attacking = {creature(5, 5)};
+        CreatureCard[] blockers = {creature(1, 1)};
+
+        assertArrayEquals(new CreatureCard[]{null}, BlockingSolver.solve(attacking, blockers, MAX_TRADES));
+        assertArrayEquals(blockers, BlockingSolver.solve(attacking, blockers, MIN_LIFE_LOST));
+    }
+
+    @Test
+    public void noBlockers() {
+        CreatureCard[] attacking = {creature(1, 1), creature(2, 2)};
+
+        assertArrayEquals(new CreatureCard[2], BlockingSolver.solve(attacking, new CreatureCard[0], MAX_TRADES));
+        assertEquals(3, BlockingSolver.lifeLost(attacking, new CreatureCard[2]));
+    }
+
+    @Test
+    public void sameScoreAsBruteForce() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int round = 0; round < 500; round++) {
+            CreatureCard[] attacking = randomCreatures(random, random.nextInt(6));
+            CreatureCard[] blockers = randomCreatures(random, random.nextInt(6));
+            for (BlockingSolver.Objective objective : BlockingSolver.Objective.values()) {
+                CreatureCard[] blocking = BlockingSolver.solve(attacking, blockers, objective);
+
+                assertEquals(attacking.length, blocking.length);
+                assertFalse(ArrayUtils.hasDuplicatesExceptNull(blocking));
+                assertEquals(bruteForce(attacking, blockers, new CreatureCard[attacking.length], 0, objective),
+                        score(attacking, blocking, objective));
+            }
+        }
+    }
+
+    private static CreatureCard[] randomCreatures(SplittableRandom random, int count) {
+        CreatureCard[] creatures = new CreatureCard[count];
+        for (int i = 0; i < count; i++) {
+            creatures[i] = creature(random.nextInt(5), random.nextInt(4) + 1);
+        }
+        return creatures;
+    }
+
+    private static long bruteForce(CreatureCard[] attacking, CreatureCard[] blockers, CreatureCard[] blocking,
+                                   int index, BlockingSolver.Objective objective) {
+        if (index == attacking.length) {
+            return score(attacking, blocking, objective);
+        }
+        long best = bruteForce(attacking, blockers, blocking, index + 1, objective);
+        for (CreatureCard blocker : blockers) {
+            if (ArrayUtils.containsCard(blocker, blocking)) {
+                continue;
+            }
+            blocking[index] = blocker;
+            best = Math.min(best, bruteForce(attacking, blockers, blocking, index + 1, objective));
+            blocking[index] = null;
+        }
+        return best;
+    }
+
+    /**
+     * Lexicographic score of the block, lower is better.
+     */
+    private static long score(CreatureCard[] attacking, CreatureCard[] blocking, BlockingSolver.Objective objective) {
+        long life = BlockingSolver.lifeLost(attacking, blocking);
+        long lost = 0;
+        long killed = 0;
+        for (int i = 0; i < attacking.length; i++) {
+            if (blocking[i] != null && !Creatures.blockerSurvives(attacking[i], blocking[i])) {
+                lost++;
+            } else if (blocking[i] != null && Creatures.attackerDies(attacking[i], blocking[i])) {
+                killed++;
+            }
+        }
+        if (objective == MIN_LIFE_LOST) {
+            return (life * 100 + lost) * 100 - killed;
+        }
+        return (-killed * 100 + lost) * 100 + life;
+    }
+
+}
@@ -0,0 +1,182 @@
+package magicthegathering.ai;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.game.ManaType;
+import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+import magicthegathering.simulation.GameOutcome;
+import magicthegathering.simulation.GameRunner;
+import magicthegathering.simulation.Simulator;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class MctsStrategyTest {
+
+    private static final long NO_TIME_LIMIT = 60_000;
+
+    private static Game newGame(long seed) {
+        Game game = new GameImpl(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"));
+        game.initGame(seed);
+        return game;
+    }
+
+    @Test
+    public void decisionsAreValid() {
+        Game game = newGame(3);
+        Strategy strategy = new MctsStrategy(3, NO_TIME_LIMIT, 20);
+
+        for (int turn = 0; turn < 30 && !game.getCurrentPlayer().isDead(); turn++) {
+            game.prepareCurrentPlayerForTurn();
+            LandCard land = strategy.chooseLand(game);
+            assertTrue(land == null || Arrays.asList(game.getCurrentPlayer().getLandsInHand()).contains(land));
+            GameRunner.putLandOnTable(game, land);
+            GameRunner.buyCreatures(game, strategy.chooseCreatures(game));
+
+            CreatureCard[] attacking = strategy.chooseAttackers(game);
+            assertTrue(attacking.length == 0 || game.isCreaturesAttackValid(attacking));
+            GameRunner.attack(game, attacking);
+            if (attacking.length != 0) {
+                CreatureCard[] blocking = strategy.chooseBlockers(game, attacking);
+                assertTrue(game.isCreaturesBlockValid(attacking, blocking));
+                GameRunner.block(game, attacking, blocking);
+            }
+            game.changePlayer();
+        }
+    }
+
+    @Test
+    public void samePlayoutBudgetGivesSameDecisions() {
+        Game game = newGame(5);
+        for (int turn = 0; turn < 8; turn++) {
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            game.changePlayer();
+        }
+        game.prepareCurrentPlayerForTurn();
+
+        CreatureCard[] first = new MctsStrategy(11, NO_TIME_LIMIT, 200).chooseAttackers(game);
+        CreatureCard[] second = new MctsStrategy(11, NO_TIME_LIMIT, 200).chooseAttackers(game);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void treeGrowsBelowTheCandidates() {
+        Game game = newGame(4);
+        for (int turn = 0; turn < 5; turn++) {
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            game.changePlayer();
+        }
+        game.prepareCurrentPlayerForTurn();
+        int candidates = 1 << Creatures.ready(game.getCurrentPlayer()).length;
+
+        MctsStrategy strategy = new MctsStrategy(11, NO_TIME_LIMIT, 200);
+        strategy.chooseAttackers(game);
+        assertTrue(strategy.getTreeSize() > 1 + candidates);
+    }
+
+    @Test
+    public void tableKeepsStatisticsForLaterDecisions() {
+        Game game = newGame(4);
+        for (int turn = 0; turn < 5; turn++) {
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            game.changePlayer();
+        }
+        game.prepareCurrentPlayerForTurn();
+        TranspositionTable table = new TranspositionTable(1 << 10);
+
+        CreatureCard[] searched = new MctsStrategy(11, NO_TIME_LIMIT, 500, table).chooseAttackers(game);
+        CreatureCard[] guessed = new MctsStrategy(13, NO_TIME_LIMIT, 1).chooseAttackers(game);
+        CreatureCard[] remembered = new MctsStrategy(13, NO_TIME_LIMIT, 1, table).chooseAttackers(game);
+        assertFalse(Arrays.equals(searched, guessed));
+        assertArrayEquals(searched, remembered);
+    }
+
+    @Test
+    public void decisionLeavesGameUnchanged() {
+        Game game = newGame(9);
+        for (int turn = 0; turn < 6; turn++) {
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            game.changePlayer();
+        }
+        game.prepareCurrentPlayerForTurn();
+        String before = describe(game);
+
+        new MctsStrategy(9, NO_TIME_LIMIT, 300).chooseAttackers(game);
+        assertEquals(before, describe(game));
+    }
+
+    @Test
+    public void attacksWithAsManyCreaturesAsBitsOfLong() {
+        Card[] creatures = new Card[Long.SIZE];
+        for (int i = 0; i < creatures.length; i++) {
+            creatures[i] = new CreatureCardImpl("Goblin", new ManaType[]{}, 1, 1);
+            creatures[i].putOnTable();
+        }
+        Player marek = new PlayerImpl("Marek");
+        marek.initCards(creatures);
+        Player zuzka = new PlayerImpl("Zuzka");
+        zuzka.initCards(new Card[0]);
+        Game game = new GameImpl(marek, zuzka);
+
+        CreatureCard[] attacking = new MctsStrategy(1, NO_TIME_LIMIT, 20).chooseAttackers(game);
+        assertTrue(attacking.length > 0);
+        assertTrue(game.isCreaturesAttackValid(attacking));
+    }
+
+    private static String describe(Game game) {
+        return game.getCurrentPlayer() + Arrays.toString(game.getCurrentPlayer().getCardsInHand())
+                + Arrays.toString(game.getCurrentPlayer().getCardsOnTable()) + game.getSecondPlayer()
+                + Arrays.toString(game.getSecondPlayer().getCardsInHand())
+                + Arrays.toString(game.getSecondPlayer().getCardsOnTable());
+    }
+
+    @Test
+    public void decisionFitsTimeBudget() {
+        Game game = newGame(7);
+        Strategy strategy = new MctsStrategy(7, 20, Integer.MAX_VALUE);
+        game.prepareCurrentPlayerForTurn();
+
+        long start = System.nanoTime();
+        strategy.chooseLand(game);
+        assertTrue(System.nanoTime() - start < 100_000_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void budgetMustBePositive() {
+        new MctsStrategy(1, 0, 100);
+    }
+
+    @Test
+    public void beatsRandomStrategy() {
+        int wins = 0;
+        int losses = 0;
+        for (int seed = 0; seed < 10; seed++) {
+            Strategy monteCarlo = new MctsStrategy(seed, NO_TIME_LIMIT, 100);
+            Strategy random = new RandomStrategy(seed);
+            boolean first = seed % 2 == 0;
+            GameOutcome outcome = GameRunner.play(newGame(seed), first ? monteCarlo : random, first ? random : monteCarlo,
+                    Simulator.DEFAULT_MAX_TURNS);
+            if (outcome.getWinner() == (first ? 0 : 1)) {
+                wins++;
+            } else if (outcome.getWinner() != GameOutcome.DRAW) {
+                losses++;
+            }
+        }
+        assertTrue(wins > losses);
+    }
+
+}
@@ -0,0 +1,86 @@
+package magicthegathering.ai;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class TranspositionTableTest {
+
+    @Test
+    public void storedValueIsFound() {
+        TranspositionTable table = new TranspositionTable(16);
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+
+        assertTrue(table.store(42, 3, -7));
+        long entry = table.probe(42);
+
+        assertEquals(-7, TranspositionTable.value(entry));
+        assertEquals(3, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(42 + 16));
+    }
+
+    @Test
+    public void deeperSearchIsKept() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.store(1, 5, 10);
+
+        assertFalse(table.store(17, 4, 20));
+        assertEquals(10, TranspositionTable.value(table.probe(1)));
+        assertTrue(table.store(1, 0, 30));
+        assertTrue(table.store(17, 4, 20));
+        assertEquals(TranspositionTable.MISS, table.probe(1));
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(17));
+    }
+
+    @Test
+    public void capacityIsPowerOfTwo() {
+        assertEquals(1, new TranspositionTable(1).capacity());
+        assertEquals(1024, new TranspositionTable(1000).capacity());
+        assertEquals(1024, new TranspositionTable(1024).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void depthOutOfRange() {
+        new TranspositionTable(1).store(0, TranspositionTable.MAX_DEPTH + 1, 0);
+    }
+
+    @Test
+    public void sharedTableNeverReturnsValueOfOtherPosition() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(64);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long hash = random.nextLong();
+                    table.store(hash, random.nextInt(8), (int) (hash >>> 32));
+                    long entry = table.probe(hash);
+                    if (entry != TranspositionTable.MISS && TranspositionTable.value(entry) != (int) (hash >>> 32)) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrong.get());
+    }
+
+}
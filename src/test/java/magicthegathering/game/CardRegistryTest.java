@@ -0,0 +1,72 @@
+package magicthegathering.game;
+
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.LandCardImpl;
+import magicthegathering.impl.PlayerImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class CardRegistryTest {
+
+    private Player marek;
+    private Player zuzka;
+    private LandCard plains;
+    private CreatureCard kitkin;
+    private CreatureCard orc;
+
+    @Before
+    public void setUp() {
+        marek = new PlayerImpl("Marek");
+        zuzka = new PlayerImpl("Zuzka");
+        plains = new LandCardImpl(LandCardType.PLAINS);
+        kitkin = new CreatureCardImpl("Kitkin", new ManaType[]{}, 2, 1);
+        orc = new CreatureCardImpl("Orc", new ManaType[]{}, 1, 1);
+        marek.initCards(new Card[]{plains, kitkin});
+        zuzka.initCards(new Card[]{orc});
+    }
+
+    @Test
+    public void idsAreDense() {
+        CardRegistry cards = new CardRegistry(marek, zuzka);
+
+        assertEquals(3, cards.size());
+        assertArrayEquals(new int[]{0, 1, 2}, cards.idsOf(new Card[]{plains, kitkin, orc}));
+        assertSame(kitkin, cards.getCard(1));
+        assertSame(marek, cards.getOwner(1));
+        assertSame(zuzka, cards.getOwner(2));
+    }
+
+    @Test
+    public void creaturesAreRecognized() {
+        CardRegistry cards = new CardRegistry(marek, zuzka);
+
+        assertFalse(cards.isCreature(0));
+        assertTrue(cards.isCreature(1));
+        assertFalse(cards.isCreature(CardRegistry.NONE));
+        assertFalse(cards.isCreature(cards.size()));
+        assertArrayEquals(new CreatureCard[]{orc, null}, cards.creaturesOf(new int[]{2, CardRegistry.NONE}));
+        assertNull(cards.getCreature(CardRegistry.NONE));
+    }
+
+    @Test
+    public void cardBelongsToLastRegistry() {
+        CardRegistry old = new CardRegistry(marek, zuzka);
+        CardRegistry swapped = new CardRegistry(zuzka, marek);
+
+        assertEquals(CardRegistry.NONE, old.idOf(orc));
+        assertEquals(0, swapped.idOf(orc));
+        assertEquals(CardRegistry.NONE, swapped.idOf(null));
+        assertEquals(CardRegistry.NONE, swapped.idOf(new CreatureCardImpl("Stranger", new ManaType[]{}, 1, 1)));
+    }
+
+}
@@ -0,0 +1,110 @@
+package magicthegathering.game;
+
+import magicthegathering.ai.RandomStrategy;
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.LandCardImpl;
+import magicthegathering.impl.PlayerImpl;
+import magicthegathering.simulation.GameRunner;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * @author Marek Sabo
+ */
+public class GameStateCodecTest {
+
+    private Player marek;
+    private Player zuzka;
+    private Game game;
+
+    @Before
+    public void setUp() {
+        marek = new PlayerImpl("Marek");
+        zuzka = new PlayerImpl("Zuzka");
+        game = new GameImpl(marek, zuzka);
+        game.initGame(5);
+    }
+
+    @Test
+    public void decodedGameHasSameState() {
+        RandomStrategy first = new RandomStrategy(1);
+        RandomStrategy second = new RandomStrategy(2);
+        for (int turn = 0; turn < 30 && !game.getCurrentPlayer().isDead(); turn++) {
+            byte[] state = GameStateCodec.encode(game);
+            Game decoded = GameStateCodec.decode(state, 0);
+
+            assertEquals(GameStateCodec.SIZE, state.length);
+            assertArrayEquals(state, GameStateCodec.encode(decoded));
+            assertEquals(game.getCurrentPlayer().getLife(), decoded.getCurrentPlayer().getLife());
+            assertEquals(GameStateCodec.hash(state, 0), GameStateCodec.hash(decoded));
+
+            GameRunner.playTurn(game, turn % 2 == 0 ? first : second, turn % 2 == 0 ? second : first);
+            game.changePlayer();
+        }
+    }
+
+    @Test
+    public void orderOfCardsDoesNotMatter() {
+        CreatureCard kitkin = new CreatureCardImpl("Kitkin", new ManaType[]{ManaType.WHITE}, 2, 1);
+        LandCard plains = new LandCardImpl(LandCardType.PLAINS);
+        marek.initCards(new Card[]{kitkin, plains});
+        Player other = new PlayerImpl("Other");
+        other.initCards(new Card[]{new LandCardImpl(LandCardType.PLAINS),
+            new CreatureCardImpl("Other", new ManaType[]{ManaType.WHITE}, 2, 1)});
+
+        assertArrayEquals(GameStateCodec.encode(game), GameStateCodec.encode(new GameImpl(other, zuzka)));
+    }
+
+    @Test
+    public void everyFlagChangesState() {
+        CreatureCard kitkin = new CreatureCardImpl("Kitkin", new ManaType[]{}, 2, 1);
+        marek.initCards(new Card[]{kitkin});
+        long hand = GameStateCodec.hash(game);
+        kitkin.putOnTable();
+        long table = GameStateCodec.hash(game);
+        kitkin.setSummoningSickness();
+        long sick = GameStateCodec.hash(game);
+        kitkin.tap();
+        long tapped = GameStateCodec.hash(game);
+        game.changePlayer();
+
+        assertNotEquals(hand, table);
+        assertNotEquals(table, sick);
+        assertNotEquals(sick, tapped);
+        assertNotEquals(tapped, GameStateCodec.hash(game));
+    }
+
+    @Test
+    public void destroyedCreatureIsNotEncoded() {
+        CreatureCard kitkin = new CreatureCardImpl("Kitkin", new ManaType[]{}, 2, 1);
+        marek.initCards(new Card[]{kitkin});
+        kitkin.putOnTable();
+        marek.destroyCreature(kitkin);
+
+        byte[] state = GameStateCodec.encode(game);
+
+        assertArrayEquals(new Card[0], GameStateCodec.decode(state, 0).getCurrentPlayer().getCardsOnTable());
+        assertArrayEquals(new Card[0], GameStateCodec.decode(state, 0).getCurrentPlayer().getCardsInHand());
+    }
+
+    @Test
+    public void negativeLifeIsKept() {
+        marek.subtractLives(Player.INIT_LIVES + 7);
+        byte[] state = new byte[GameStateCodec.SIZE + 3];
+        GameStateCodec.encode(game, state, 3);
+
+        assertEquals(-7, GameStateCodec.decode(state, 3).getCurrentPlayer().getLife());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooStrongCreatureCannotBeEncoded() {
+        marek.initCards(new Card[]{new CreatureCardImpl("Giant", new ManaType[]{}, 16, 1)});
+        GameStateCodec.encode(game);
+    }
+
+}
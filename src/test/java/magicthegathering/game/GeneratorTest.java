@@ -0,0 +1,60 @@
+package magicthegathering.game;
+
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.LandCardImpl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class GeneratorTest {
+
+    @Test
+    public void sameSeedGivesSameCards() {
+        Card[] first = Generator.generateCards(42);
+        Card[] second = Generator.generateCards(42);
+
+        assertEquals(Game.TOTAL_CARD_AMOUNT, first.length);
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(first[i].toString(), second[i].toString());
+        }
+    }
+
+    @Test
+    public void cardsHaveRightKinds() {
+        Card[] cards = Generator.generateCards();
+        for (int i = 0; i < cards.length; i++) {
+            assertEquals(i < Game.LAND_COUNT, cards[i] instanceof LandCard);
+            assertEquals(i >= Game.LAND_COUNT, cards[i] instanceof CreatureCard);
+        }
+    }
+
+    @Test
+    public void derivedSeedsDiffer() {
+        assertEquals(Generator.deriveSeed(1, 5), Generator.deriveSeed(1, 5));
+        assertNotEquals(Generator.deriveSeed(1, 5), Generator.deriveSeed(1, 6));
+        assertNotEquals(Generator.deriveSeed(1, 5), Generator.deriveSeed(2, 5));
+    }
+
+    @Test
+    public void profileCountsColoursAndStrength() {
+        Card[] cards = {
+            new LandCardImpl(LandCardType.FOREST),
+            new LandCardImpl(LandCardType.FOREST),
+            new LandCardImpl(LandCardType.ISLAND),
+            new CreatureCardImpl("Elf", new ManaType[]{ManaType.GREEN}, 8, 5)
+        };
+
+        assertEquals(3, Generator.profileOf(cards));
+        assertEquals("2 colours, weak", Generator.describeProfile(Generator.profileOf(cards)));
+        for (long seed = 0; seed < 100; seed++) {
+            int profile = Generator.profileOf(Generator.generateCards(seed));
+            assertTrue(profile >= 0 && profile < Generator.PROFILE_COUNT);
+        }
+    }
+
+}
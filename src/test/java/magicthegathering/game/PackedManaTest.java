@@ -0,0 +1,58 @@
+package magicthegathering.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class PackedManaTest {
+
+    @Test
+    public void packAndUnpack() {
+        int[] amounts = {3, 0, PackedMana.MAX_AMOUNT, 1, 7};
+        assertArrayEquals(amounts, PackedMana.unpack(PackedMana.pack(amounts)));
+        assertEquals(PackedMana.MAX_AMOUNT, PackedMana.amount(PackedMana.pack(amounts), ManaType.GREEN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeAmountIsRejected() {
+        PackedMana.pack(new int[]{0, -1, 0, 0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void amountOverflowingLaneIsRejected() {
+        PackedMana.pack(new int[]{0, 0, 0, PackedMana.MAX_AMOUNT + 1, 0});
+    }
+
+    @Test
+    public void packManaTypes() {
+        long packed = PackedMana.pack(new ManaType[]{ManaType.RED, ManaType.BLACK, ManaType.RED});
+        assertArrayEquals(new int[]{0, 2, 0, 0, 1}, PackedMana.unpack(packed));
+        assertEquals(PackedMana.of(ManaType.RED) * 2 + PackedMana.of(ManaType.BLACK), packed);
+    }
+
+    @Test
+    public void coversEveryLane() {
+        long available = PackedMana.pack(new int[]{1, 2, 0, 0, 3});
+        assertTrue(PackedMana.covers(available, PackedMana.EMPTY));
+        assertTrue(PackedMana.covers(available, available));
+        assertTrue(PackedMana.covers(available, PackedMana.pack(new int[]{1, 1, 0, 0, 3})));
+        assertFalse(PackedMana.covers(available, PackedMana.pack(new int[]{2, 0, 0, 0, 0})));
+        assertFalse(PackedMana.covers(available, PackedMana.pack(new int[]{0, 0, 1, 0, 0})));
+        assertFalse(PackedMana.covers(available, PackedMana.pack(new int[]{0, 0, 0, 0, 4})));
+    }
+
+    @Test
+    public void missingManaIsNotBorrowedFromNeighbour() {
+        long available = PackedMana.pack(new int[]{0, 5, 0, 0, 0});
+        assertFalse(PackedMana.covers(available, PackedMana.of(ManaType.WHITE)));
+        assertFalse(PackedMana.covers(PackedMana.pack(new int[]{0, 0, 0, 0, PackedMana.MAX_AMOUNT}),
+                PackedMana.pack(new int[]{0, 0, 0, 1, 0})));
+    }
+
+}
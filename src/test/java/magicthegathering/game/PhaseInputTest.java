@@ -0,0 +1,83 @@
+package magicthegathering.game;
+
+import magicthegathering.impl.CreatureCardImpl;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.LandCardImpl;
+import magicthegathering.impl.PlayerImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Marek Sabo
+ */
+public class PhaseInputTest {
+
+    private Game game;
+    private LandCard plains;
+    private LandCard swamp;
+    private CreatureCard kitkin;
+    private CreatureCard orc;
+
+    @Before
+    public void setUp() {
+        Player marek = new PlayerImpl("Marek");
+        Player zuzka = new PlayerImpl("Zuzka");
+        plains = new LandCardImpl(LandCardType.PLAINS);
+        swamp = new LandCardImpl(LandCardType.SWAMP);
+        kitkin = new CreatureCardImpl("Kitkin", new ManaType[]{}, 2, 1);
+        orc = new CreatureCardImpl("Orc", new ManaType[]{}, 1, 1);
+        kitkin.putOnTable();
+        orc.putOnTable();
+        marek.initCards(new Card[]{plains, swamp, kitkin});
+        zuzka.initCards(new Card[]{orc});
+        game = new GameImpl(marek, zuzka);
+    }
+
+    @Test
+    public void landIsChosenByOneIndex() {
+        assertSame(swamp, PhaseInput.land(game.getCurrentPlayer(), new int[]{1}));
+        assertNull(PhaseInput.land(game.getCurrentPlayer(), new int[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyOneLandPerTurn() {
+        PhaseInput.land(game.getCurrentPlayer(), new int[]{0, 1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexOutOfHand() {
+        PhaseInput.land(game.getCurrentPlayer(), new int[]{2});
+    }
+
+    @Test
+    public void attackersAndBlockers() {
+        CreatureCard[] attacking = PhaseInput.attackers(game, new int[]{0});
+        assertArrayEquals(new CreatureCard[]{kitkin}, attacking);
+        assertArrayEquals(new CreatureCard[]{orc}, PhaseInput.blockers(game, attacking, new int[]{0}));
+        assertArrayEquals(new CreatureCard[1], PhaseInput.blockers(game, attacking, new int[]{PhaseInput.NO_BLOCK}));
+        assertArrayEquals(new CreatureCard[1], PhaseInput.blockers(game, attacking, new int[0]));
+    }
+
+    @Test
+    public void skipMeansNoAttackAndNoBlock() {
+        assertArrayEquals(new CreatureCard[0], PhaseInput.attackers(game, new int[]{PhaseInput.SKIP}));
+        assertArrayEquals(new CreatureCard[0], PhaseInput.attackers(game, new int[]{0, PhaseInput.SKIP}));
+        assertArrayEquals(new CreatureCard[1], PhaseInput.blockers(game, new CreatureCard[]{kitkin},
+                new int[]{PhaseInput.SKIP}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void oneBlockerPerAttacker() {
+        PhaseInput.blockers(game, new CreatureCard[]{kitkin}, new int[]{0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noBlockIsNotAttacker() {
+        PhaseInput.attackers(game, new int[]{PhaseInput.NO_BLOCK});
+    }
+
+}
@@ -0,0 +1,80 @@
+package magicthegathering.game;
+
+import magicthegathering.impl.CreatureCardImpl;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class PurchasePlannerTest {
+
+    private static final ManaType[] MANA_TYPES = ManaType.values();
+
+    @Test
+    public void nothingToBuy() {
+        assertArrayEquals(new CreatureCard[0],
+                PurchasePlanner.plan(PackedMana.EMPTY, new CreatureCard[0], CreatureCard::getTotalCost));
+    }
+
+    @Test
+    public void freeCreatureIsBought() {
+        CreatureCard free = new CreatureCardImpl("Free", new ManaType[]{}, 1, 1);
+        assertArrayEquals(new CreatureCard[]{free},
+                PurchasePlanner.plan(PackedMana.EMPTY, new CreatureCard[]{free}, CreatureCard::getTotalCost));
+    }
+
+    @Test
+    public void sameValueAsBruteForce() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int round = 0; round < 300; round++) {
+            CreatureCard[] creatures = new CreatureCard[random.nextInt(9)];
+            for (int i = 0; i < creatures.length; i++) {
+                ManaType[] cost = new ManaType[random.nextInt(4)];
+                for (int j = 0; j < cost.length; j++) {
+                    cost[j] = MANA_TYPES[random.nextInt(MANA_TYPES.length)];
+                }
+                creatures[i] = new CreatureCardImpl("Creature", cost, random.nextInt(8) + 1, random.nextInt(5) + 1);
+            }
+            int[] amounts = new int[MANA_TYPES.length];
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = random.nextInt(4);
+            }
+            long mana = PackedMana.pack(amounts);
+
+            CreatureCard[] plan = PurchasePlanner.plan(mana, creatures, CreatureCard::getTotalCost);
+            long cost = PackedMana.EMPTY;
+            int value = 0;
+            for (CreatureCard creature : plan) {
+                cost += creature.getPackedCost();
+                value += creature.getTotalCost();
+            }
+            assertTrue(PackedMana.covers(mana, cost));
+            assertEquals(bruteForce(mana, creatures), value);
+        }
+    }
+
+    private static int bruteForce(long mana, CreatureCard[] creatures) {
+        int best = 0;
+        for (int set = 0; set < 1 << creatures.length; set++) {
+            long cost = PackedMana.EMPTY;
+            int value = 0;
+            for (int i = 0; i < creatures.length; i++) {
+                if ((set & 1 << i) != 0) {
+                    cost += creatures[i].getPackedCost();
+                    value += creatures[i].getTotalCost();
+                }
+            }
+            if (PackedMana.covers(mana, cost)) {
+                best = Math.max(best, value);
+            }
+        }
+        return best;
+    }
+
+}
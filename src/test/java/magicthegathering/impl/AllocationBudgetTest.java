@@ -0,0 +1,144 @@
+package magicthegathering.impl;
+
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.game.Card;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.GameSnapshot;
+import magicthegathering.game.LandCardType;
+import magicthegathering.game.ManaType;
+import magicthegathering.game.Player;
+import magicthegathering.game.PlayerSnapshot;
+import magicthegathering.game.Strategy;
+import magicthegathering.simulation.GameRunner;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation budgets of the operations of the turn loop. The operations of the rules allocate nothing.
+ * A whole turn of the greedy strategies allocates the arrays returned by the strategies and the search
+ * of the blocks, about 2.3 kB on 64-bit HotSpot with compressed pointers; its budget leaves some room
+ * for other JVMs, a new allocation in the loop over the cards exceeds it.
+ *
+ * @author Marek Sabo
+ */
+@Category(AllocationTests.class)
+public class AllocationBudgetTest {
+
+    private static final int TURNS_BEFORE_MEASURED = 8;
+
+    @Rule
+    public AllocationRule allocation = new AllocationRule();
+
+    private Player marek;
+    private Player zuzka;
+    private Game game;
+    private CreatureCard elf;
+    private CreatureCard[] attackers;
+    private CreatureCard[] blockers;
+    private boolean result;
+    private PlayerSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        LandCardImpl plains = new LandCardImpl(LandCardType.PLAINS);
+        LandCardImpl forest = new LandCardImpl(LandCardType.FOREST);
+        CreatureCardImpl knight = new CreatureCardImpl("Knight", new ManaType[]{}, 2, 2);
+        CreatureCardImpl archer = new CreatureCardImpl("Archer", new ManaType[]{}, 1, 1);
+        CreatureCardImpl goblin = new CreatureCardImpl("Goblin", new ManaType[]{}, 1, 1);
+        CreatureCardImpl wall = new CreatureCardImpl("Wall", new ManaType[]{}, 0, 3);
+        elf = new CreatureCardImpl("Elf", new ManaType[]{ManaType.WHITE, ManaType.GREEN}, 1, 1);
+        for (Card card : new Card[]{plains, forest, knight, archer, goblin, wall}) {
+            card.putOnTable();
+        }
+        marek = new PlayerImpl("Marek");
+        zuzka = new PlayerImpl("Zuzka");
+        marek.initCards(new Card[]{plains, forest, knight, archer, elf});
+        zuzka.initCards(new Card[]{goblin, wall});
+        game = new GameImpl(marek, zuzka);
+        attackers = new CreatureCard[]{knight, archer};
+        blockers = new CreatureCard[]{goblin, null};
+    }
+
+    @Test
+    @AllocationRule.Budget(bytesPerCall = 0)
+    public void putCreatureOnTable() {
+        PlayerSnapshot start = marek.snapshot();
+        allocation.measure(() -> {
+            marek.restore(start);
+            result = marek.putCreatureOnTable(elf);
+        });
+        assertTrue(result);
+    }
+
+    @Test
+    @AllocationRule.Budget(bytesPerCall = 144)
+    public void snapshotSavesOnlyChangedCards() {
+        Card[] lands = new Card[Long.SIZE];
+        for (int i = 0; i < lands.length; i++) {
+            lands[i] = new LandCardImpl(LandCardType.FOREST);
+            lands[i].putOnTable();
+        }
+        Player eva = new PlayerImpl("Eva");
+        eva.initCards(lands);
+        PlayerSnapshot start = eva.snapshot();
+        allocation.measure(() -> {
+            eva.restore(start);
+            lands[0].tap();
+            snapshot = eva.snapshot();
+        });
+        eva.restore(start);
+        eva.restore(snapshot);
+        assertTrue(lands[0].isTapped());
+    }
+
+    @Test
+    @AllocationRule.Budget(bytesPerCall = 0)
+    public void hasManaForCreature() {
+        allocation.measure(() -> result = marek.hasManaForCreature(elf));
+        assertTrue(result);
+    }
+
+    @Test
+    @AllocationRule.Budget(bytesPerCall = 0)
+    public void isCreaturesAttackValid() {
+        allocation.measure(() -> result = game.isCreaturesAttackValid(attackers));
+        assertTrue(result);
+    }
+
+    @Test
+    @AllocationRule.Budget(bytesPerCall = 0)
+    public void performBlockAndDamage() {
+        GameSnapshot start = game.snapshot();
+        allocation.measure(() -> {
+            game.restore(start);
+            game.performBlockAndDamage(attackers, blockers);
+        });
+        assertEquals(Player.INIT_LIVES - 1, zuzka.getLife());
+        assertEquals(1, zuzka.getCreaturesOnTableView().size());
+    }
+
+    @Test
+    @AllocationRule.Budget(bytesPerCall = 3_072, calls = 5_000)
+    public void wholeTurn() {
+        Game generated = new GameImpl(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"));
+        generated.initGame(42);
+        Strategy strategy = new GreedyStrategy();
+        for (int i = 0; i < TURNS_BEFORE_MEASURED; i++) {
+            GameRunner.playTurn(generated, strategy, strategy);
+            generated.changePlayer();
+        }
+        GameSnapshot start = generated.snapshot();
+        allocation.measure(() -> {
+            generated.restore(start);
+            GameRunner.playTurn(generated, strategy, strategy);
+        });
+        assertTrue(generated.getCurrentPlayer().getCreaturesOnTableView().size() > 0);
+    }
+
+}
@@ -0,0 +1,99 @@
+package magicthegathering.impl;
+
+import org.junit.Assume;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks the bytes allocated by the operation which the test passes to {@link #measure(Runnable)}
+ * against the {@link Budget} of the test method. The operation is repeated in rounds and the round
+ * allocating the least is taken, so the first rounds warm up the JIT compiler and the escape analysis.
+ * The tests are skipped if the JVM does not count allocated bytes of the threads.
+ *
+ * @author Marek Sabo
+ */
+public class AllocationRule implements TestRule {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({java.lang.annotation.ElementType.METHOD})
+    public @interface Budget {
+        public abstract long bytesPerCall();
+
+        public abstract int calls() default 20_000;
+    }
+
+    private static final int ROUNDS = 10;
+
+    private int calls;
+    private long measured;
+
+    /**
+     * Measure allocation of the operation.
+     *
+     * @param operation operation of the test, it is run many times
+     */
+    public void measure(Runnable operation) {
+        com.sun.management.ThreadMXBean threads = threads();
+        long thread = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < calls; i++) {
+                operation.run();
+            }
+            least = Math.min(least, (threads.getThreadAllocatedBytes(thread) - before) / calls);
+        }
+        measured = least;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    private static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                && threads().isThreadAllocatedMemorySupported() && threads().isThreadAllocatedMemoryEnabled();
+    }
+
+    private class BudgetStatement extends Statement {
+        private final Budget budget;
+        private final Statement statement;
+        private final String name;
+
+        private BudgetStatement(Budget budget, Statement statement, String name) {
+            this.budget = budget;
+            this.statement = statement;
+            this.name = name;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            Assume.assumeTrue("Allocated bytes are not counted by this JVM", isSupported());
+            calls = budget.calls();
+            measured = -1;
+            statement.evaluate();
+            if (measured < 0) {
+                throw new AssertionError(name + " did not measure any operation");
+            }
+            if (measured > budget.bytesPerCall()) {
+                throw new AssertionError(name + " allocates " + measured + " bytes per call, the budget is "
+                        + budget.bytesPerCall());
+            }
+        }
+    }
+
+    @Override
+    public Statement apply(Statement statement, Description description) {
+        Budget budget = description.getAnnotation(Budget.class);
+        if (budget == null) {
+            return statement;
+        }
+        return new BudgetStatement(budget, statement, description.getMethodName());
+    }
+}
@@ -0,0 +1,10 @@
+package magicthegathering.impl;
+
+/**
+ * Category of the tests checking allocation budgets, see {@link AllocationRule}.
+ * They run in every build, {@code mvn test -Pallocation} runs only them.
+ *
+ * @author Marek Sabo
+ */
+public interface AllocationTests {
+}
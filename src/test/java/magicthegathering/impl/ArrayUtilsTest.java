@@ -74,6 +74,25 @@ public class ArrayUtilsTest {
         assertTrue(ArrayUtils.hasDuplicatesExceptNull(new Card[] {null, redLand, null, creature1, redLand}));
     }
 
+    @Test
+    public void largeArrayDuplicates() {
+        Card[] large = manyLands(100);
+        assertFalse(ArrayUtils.hasDuplicatesExceptNull(large));
+        large[10] = null;
+        large[20] = null;
+        assertFalse(ArrayUtils.hasDuplicatesExceptNull(large));
+        large[99] = large[50];
+        assertTrue(ArrayUtils.hasDuplicatesExceptNull(large));
+    }
+
+    private static Card[] manyLands(int count) {
+        Card[] lands = new Card[count];
+        for (int i = 0; i < count; i++) {
+            lands[i] = new LandCardImpl(LandCardType.FOREST);
+        }
+        return lands;
+    }
+
     @Test
     public void testContainsCard() {
         assertTrue(ArrayUtils.containsCard(redLand, cards));
@@ -0,0 +1,66 @@
+package magicthegathering.impl;
+
+import magicthegathering.game.LandCard;
+import magicthegathering.game.LandCardType;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class CardZoneTest {
+
+    private CardZone<LandCard> zone;
+    private LandCard[] lands;
+
+    @Before
+    public void setUp() {
+        zone = new CardZone<>(new LandCard[0]);
+        lands = new LandCard[20];
+        for (int i = 0; i < lands.length; i++) {
+            lands[i] = new LandCardImpl(LandCardType.values()[i % LandCardType.values().length]);
+            zone.add(lands[i]);
+        }
+    }
+
+    @Test
+    public void zoneGrows() {
+        assertEquals(lands.length, zone.size());
+        assertArrayEquals(lands, zone.toArray());
+    }
+
+    @Test
+    public void removeKeepsOrder() {
+        assertTrue(zone.remove(lands[3]));
+        assertFalse(zone.remove(lands[3]));
+        assertEquals(lands.length - 1, zone.size());
+        assertEquals(lands[2], zone.get(2));
+        assertEquals(lands[4], zone.get(3));
+        assertFalse(zone.contains(lands[3]));
+    }
+
+    @Test
+    public void insertShiftsFollowingCards() {
+        LandCard land = new LandCardImpl(LandCardType.FOREST);
+        zone.add(1, land);
+        zone.add(zone.size(), land);
+        assertEquals(lands.length + 2, zone.size());
+        assertEquals(lands[0], zone.get(0));
+        assertEquals(land, zone.get(1));
+        assertEquals(lands[1], zone.get(2));
+        assertEquals(land, zone.get(lands.length + 1));
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        zone.clear();
+        assertEquals(0, zone.size());
+        assertEquals(-1, zone.indexOf(lands[0]));
+    }
+
+}
@@ -1,19 +1,25 @@
 package magicthegathering.impl;
 
+import magicthegathering.ai.GreedyStrategy;
 import magicthegathering.game.Card;
+import magicthegathering.game.CardRegistry;
 import magicthegathering.game.CreatureCard;
 import magicthegathering.game.Game;
+import magicthegathering.game.GameSnapshot;
 import magicthegathering.game.LandCard;
 import magicthegathering.game.ManaType;
 import magicthegathering.game.Player;
+import magicthegathering.simulation.GameRunner;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -30,10 +36,20 @@ public class GameImplIntegrationTest {
     private CreatureCard creature3;
     private CreatureCard creature4;
 
+    /**
+     * Create player of the tested game.
+     *
+     * @param name name of the player
+     * @return new player
+     */
+    protected Player createPlayer(String name) {
+        return new PlayerImpl(name);
+    }
+
     @Before
     public void setUp() {
-        first = new PlayerImpl("Marek");
-        second = new PlayerImpl("Zuzka");
+        first = createPlayer("Marek");
+        second = createPlayer("Zuzka");
         game = new GameImpl(first, second);
 
         creature1 = new CreatureCardImpl("Artifact creature",
@@ -63,8 +79,8 @@ public class GameImplIntegrationTest {
     @RepeatRule.Repeat(times = 500)
     public void testGameAFewTimes() {
 
-        first = new PlayerImpl("Marek");
-        second = new PlayerImpl("Zuzka");
+        first = createPlayer("Marek");
+        second = createPlayer("Zuzka");
         game = new GameImpl(first, second);
 
         testInit();
@@ -356,4 +372,101 @@ public class GameImplIntegrationTest {
         assertTrue(ArrayUtils.containsCard(creature4, game.getSecondPlayer().getCreaturesOnTable()));
     }
 
+    @Test
+    public void attackAndBlockByIds() {
+        prepareAttackAndBlock();
+        CardRegistry cards = game.getCardRegistry();
+        int[] attacking = {cards.idOf(creature1), cards.idOf(creature2)};
+        assertArrayEquals(attacking, first.getCreatureIdsOnTable());
+
+        assertTrue(game.isCreaturesAttackValid(attacking));
+        assertFalse(game.isCreaturesAttackValid(new int[]{attacking[0], attacking[0]}));
+        assertFalse(game.isCreaturesAttackValid(new int[]{cards.idOf(creature3)}));
+        assertFalse(game.isCreaturesAttackValid(new int[]{cards.size()}));
+        game.performAttack(attacking);
+        assertTrue(creature1.isTapped());
+        assertFalse(game.isCreaturesAttackValid(attacking));
+
+        int[] blocking = {cards.idOf(creature3), CardRegistry.NONE};
+        assertTrue(game.isCreaturesBlockValid(attacking, blocking));
+        assertFalse(game.isCreaturesBlockValid(attacking, new int[]{blocking[0], blocking[0]}));
+        assertFalse(game.isCreaturesBlockValid(attacking, new int[]{attacking[0], CardRegistry.NONE}));
+        assertFalse(game.isCreaturesBlockValid(attacking, new int[]{CardRegistry.NONE}));
+        game.performBlockAndDamage(attacking, blocking);
+        assertEquals(Player.INIT_LIVES - 1, second.getLife());
+    }
+
+    @Test
+    public void attackByIdsAfterCardsAreDealtAgain() {
+        game.getCardRegistry();
+        CreatureCard elf = new CreatureCardImpl("Elf", new ManaType[]{}, 1, 1);
+        first.initCards(new Card[]{elf});
+        prepareAttack(first);
+
+        int[] attacking = {game.getCardRegistry().idOf(elf)};
+        assertArrayEquals(attacking, first.getCreatureIdsOnTable());
+        assertTrue(game.isCreaturesAttackValid(attacking));
+        game.performAttack(attacking);
+        assertTrue(elf.isTapped());
+    }
+
+    @Test
+    public void destroyedCreatureCannotAttackById() {
+        prepareAttackAndBlock();
+        int id = game.getCardRegistry().idOf(creature2);
+        first.destroyCreature(creature2);
+        assertFalse(game.isCreaturesAttackValid(new int[]{id}));
+        assertArrayEquals(new int[]{game.getCardRegistry().idOf(creature1)}, first.getCreatureIdsOnTable());
+    }
+
+    @Test
+    public void restoreReturnsWholeGame() {
+        game.initGame(42);
+        game.changePlayer();
+        String saved = describe();
+        GameSnapshot snapshot = game.snapshot();
+
+        for (int i = 0; i < 4; i++) {
+            for (int turn = 0; turn < 10; turn++) {
+                GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+                game.changePlayer();
+            }
+            game.restore(snapshot);
+            assertEquals(saved, describe());
+            assertTrue(game.getCurrentPlayer() == second);
+        }
+    }
+
+    @Test
+    public void zobristHashReturnsWithState() {
+        game.initGame(42);
+        long initial = game.getZobristHash();
+        GameSnapshot snapshot = game.snapshot();
+        game.changePlayer();
+        assertNotEquals(initial, game.getZobristHash());
+        game.changePlayer();
+        assertEquals(initial, game.getZobristHash());
+
+        for (int turn = 0; turn < 20; turn++) {
+            long before = game.getZobristHash();
+            GameSnapshot turnStart = game.snapshot();
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            game.restore(turnStart);
+            assertEquals(before, game.getZobristHash());
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            game.changePlayer();
+        }
+        game.restore(snapshot);
+        assertEquals(initial, game.getZobristHash());
+    }
+
+    private String describe() {
+        StringBuilder description = new StringBuilder();
+        for (Player p : new Player[]{first, second}) {
+            description.append(p).append(Arrays.toString(p.getCardsInHand()))
+                    .append(Arrays.toString(p.getCardsOnTable())).append(p.calculateUntappedMana());
+        }
+        return description.toString();
+    }
+
 }
@@ -0,0 +1,17 @@
+package magicthegathering.impl;
+
+import magicthegathering.game.Player;
+
+/**
+ * Runs all the game tests with players with packed card states.
+ *
+ * @author Marek Sabo
+ */
+public class PackedGameImplIntegrationTest extends GameImplIntegrationTest {
+
+    @Override
+    protected Player createPlayer(String name) {
+        return new PackedPlayerImpl(name);
+    }
+
+}
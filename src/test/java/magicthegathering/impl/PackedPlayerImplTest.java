@@ -0,0 +1,68 @@
+package magicthegathering.impl;
+
+import magicthegathering.game.Card;
+import magicthegathering.game.CardStates;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.LandCardType;
+import magicthegathering.game.ManaType;
+import magicthegathering.game.Player;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs all the player tests on the player with packed card states.
+ *
+ * @author Marek Sabo
+ */
+public class PackedPlayerImplTest extends PlayerImplTest {
+
+    @Override
+    protected Player createPlayer(String name) {
+        return new PackedPlayerImpl(name);
+    }
+
+    @Test
+    public void stateIsKeptAfterRemovalFromPlayer() {
+        LandCardImpl forest = new LandCardImpl(LandCardType.FOREST);
+        CreatureCard elf = new CreatureCardImpl("Elf", new ManaType[]{ManaType.GREEN}, 1, 1);
+        Player packed = createPlayer("Packed");
+        packed.initCards(new Card[]{forest, elf});
+        packed.putLandOnTable(forest);
+        packed.putCreatureOnTable(elf);
+
+        packed.destroyCreature(elf);
+        packed.initCards(new Card[0]);
+
+        assertTrue(forest.isTapped());
+        assertTrue(forest.isOnTable());
+        assertTrue(elf.isOnTable());
+        assertTrue(elf.hasSummoningSickness());
+        assertFalse(elf.isTapped());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyCards() {
+        createPlayer("Packed").initCards(new Card[CardStates.CAPACITY + 1]);
+    }
+
+    @Test
+    public void untapTouchesOnlyTable() {
+        LandCardImpl forest = new LandCardImpl(LandCardType.FOREST);
+        LandCardImpl island = new LandCardImpl(LandCardType.ISLAND);
+        Player packed = createPlayer("Packed");
+        packed.initCards(new Card[]{forest, island});
+        packed.putLandOnTable(forest);
+        forest.tap();
+        island.tap();
+
+        packed.untapAllCards();
+
+        assertFalse(forest.isTapped());
+        assertTrue(island.isTapped());
+        assertEquals(1, packed.getLandsOnTable().length);
+    }
+
+}
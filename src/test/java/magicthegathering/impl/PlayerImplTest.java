@@ -1,17 +1,24 @@
 package magicthegathering.impl;
 
 import magicthegathering.game.Card;
+import magicthegathering.game.CardView;
 import magicthegathering.game.CreatureCard;
 import magicthegathering.game.LandCard;
 import magicthegathering.game.LandCardType;
 import magicthegathering.game.ManaType;
+import magicthegathering.game.PackedMana;
 import magicthegathering.game.Player;
+import magicthegathering.game.PlayerSnapshot;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -19,15 +26,25 @@ import static org.junit.Assert.assertTrue;
  */
 public class PlayerImplTest {
 
-    private PlayerImpl marek;
+    private Player marek;
     private CreatureCardImpl kitkin;
     private LandCardImpl plains;
     private LandCardImpl swamp;
     private LandCard[] landsAllColors;
 
+    /**
+     * Create tested player.
+     *
+     * @param name name of the player
+     * @return new player
+     */
+    protected Player createPlayer(String name) {
+        return new PlayerImpl(name);
+    }
+
     @Before
     public void setUp() throws Exception {
-        marek = new PlayerImpl("Marek");
+        marek = createPlayer("Marek");
         plains = new LandCardImpl(LandCardType.PLAINS);
         swamp = new LandCardImpl(LandCardType.SWAMP);
         kitkin = new CreatureCardImpl(
@@ -100,6 +117,108 @@ public class PlayerImplTest {
         assertEquals(3, marek.getCardsOnTable().length);
     }
 
+    @Test
+    public void cardsKeepOrderOfDeck() {
+        LandCardImpl forest = new LandCardImpl(LandCardType.FOREST);
+        CreatureCardImpl elf = new CreatureCardImpl("Elf", new ManaType[]{}, 1, 1);
+        marek.initCards(new Card[]{kitkin, forest, elf, plains, swamp});
+        assertArrayEquals(new Card[]{kitkin, forest, elf, plains, swamp}, marek.getCardsInHand());
+
+        marek.putLandOnTable(swamp);
+        marek.putCreatureOnTable(elf);
+        marek.putLandOnTable(plains);
+        marek.putLandOnTable(forest);
+
+        assertArrayEquals(new Card[]{kitkin}, marek.getCardsInHand());
+        assertArrayEquals(new Card[]{forest, elf, plains, swamp}, marek.getCardsOnTable());
+        assertArrayEquals(new Card[]{forest, plains, swamp}, marek.getLandsOnTable());
+        assertArrayEquals(marek.getCardsOnTable(), toArray(marek.getCardsOnTableView()));
+    }
+
+    @Test
+    public void cardsAreCopiedIntoBuffer() {
+        Card[] hand = new Card[4];
+        assertEquals(3, marek.getCardsInHand(hand));
+        assertArrayEquals(marek.getCardsInHand(), Arrays.copyOf(hand, 3));
+        assertEquals(1, marek.getCreaturesInHand(new CreatureCard[1]));
+        assertEquals(0, marek.getCardsOnTable(new Card[0]));
+
+        putEverythingUntappedOnTable();
+        LandCard[] lands = new LandCard[1];
+        assertEquals(2, marek.getLandsOnTable(lands));
+        assertEquals(marek.getLandsOnTable()[0], lands[0]);
+        CreatureCard[] creatures = new CreatureCard[1];
+        assertEquals(1, marek.getCreaturesOnTable(creatures));
+        assertEquals(kitkin, creatures[0]);
+        assertEquals(0, marek.getLandsInHand(new LandCard[0]));
+    }
+
+    @Test
+    public void viewsFollowZones() {
+        CardView<Card> hand = marek.getCardsInHandView();
+        CardView<CreatureCard> creatures = marek.getCreaturesOnTableView();
+        assertEquals(3, hand.size());
+        assertArrayEquals(marek.getCardsInHand(), toArray(hand));
+        assertTrue(creatures.isEmpty());
+        assertTrue(marek.getCreaturesInHandView().contains(kitkin));
+
+        marek.putLandOnTable(plains);
+        marek.putCreatureOnTable(kitkin);
+
+        assertArrayEquals(marek.getCardsInHand(), toArray(hand));
+        assertArrayEquals(marek.getCardsOnTable(), toArray(marek.getCardsOnTableView()));
+        assertEquals(kitkin, creatures.get(0));
+        assertTrue(creatures.contains(kitkin));
+        assertFalse(marek.getCreaturesInHandView().contains(kitkin));
+        assertEquals(swamp, marek.getLandsInHandView().get(0));
+        assertArrayEquals(marek.getLandsOnTable(), toArray(marek.getLandsOnTableView()));
+    }
+
+    private static Card[] toArray(CardView<?> view) {
+        Card[] cards = new Card[view.size()];
+        int i = 0;
+        for (Card card : view) {
+            cards[i++] = card;
+        }
+        return cards;
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void viewIteratorFailsFast() {
+        for (Card card : marek.getCardsInHandView()) {
+            if (card instanceof LandCard) {
+                marek.putLandOnTable((LandCard) card);
+            }
+        }
+    }
+
+    @Test
+    public void viewIteratorIgnoresTapping() {
+        putEverythingUntappedOnTable();
+        for (Card card : marek.getCardsOnTableView()) {
+            card.tap();
+        }
+        assertEquals(0, marek.calculateUntappedMana());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void viewIndexIsChecked() {
+        marek.getLandsInHandView().get(2);
+    }
+
+    @Test
+    public void creatureIdsAreCopiedIntoBuffer() {
+        int[] ids = new int[2];
+        assertEquals(1, marek.getCreatureIdsInHand(ids));
+        assertEquals(marek.getCreatureIdsInHand()[0], ids[0]);
+        assertEquals(0, marek.getCreatureIdsOnTable(ids));
+
+        marek.putLandOnTable(plains);
+        marek.putCreatureOnTable(kitkin);
+        assertEquals(1, marek.getCreatureIdsOnTable(new int[0]));
+        assertEquals(0, marek.getCreatureIdsInHand(new int[0]));
+    }
+
     private void putEverythingUntappedOnTable() {
         marek.putLandOnTable(plains);
         marek.putLandOnTable(swamp);
@@ -196,7 +315,7 @@ public class PlayerImplTest {
                         ManaType.BLUE,
                         ManaType.BLACK
                 }, 1, 1);
-        Player eva = new PlayerImpl("Eva");
+        Player eva = createPlayer("Eva");
         eva.initCards(new Card[] {
                 landsAllColors[0], landsAllColors[1], landsAllColors[2],
                 landsAllColors[3], landsAllColors[4], hybrid
@@ -218,7 +337,7 @@ public class PlayerImplTest {
     @Test
     public void testUntappedLandsCalculation() {
         int[] lands = { 0, 0, 0, 0, 0, };
-        Player chris = new PlayerImpl("Chris");
+        Player chris = createPlayer("Chris");
         chris.initCards(landsAllColors);
 
         assertArrayEquals(lands, chris.calculateUntappedLands());
@@ -235,6 +354,40 @@ public class PlayerImplTest {
 
     }
 
+    @Test
+    public void untappedLandsAreWrittenIntoBuffer() {
+        Player chris = createPlayer("Chris");
+        chris.initCards(landsAllColors);
+        chris.putLandOnTable(landsAllColors[1]);
+        chris.putLandOnTable(landsAllColors[4]);
+        int[] lands = {7, 7, 7, 7, 7, 7};
+
+        assertEquals(2, chris.calculateUntappedLands(lands));
+        assertArrayEquals(new int[]{0, 1, 0, 0, 1, 7}, lands);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void untappedLandsDoNotFitIntoShortBuffer() {
+        marek.calculateUntappedLands(new int[ManaType.values().length - 1]);
+    }
+
+    @Test
+    public void untappedManaFollowsTapping() {
+        Player chris = createPlayer("Chris");
+        chris.initCards(landsAllColors);
+        chris.putLandOnTable(landsAllColors[0]);
+        chris.putLandOnTable(landsAllColors[4]);
+        landsAllColors[1].tap();
+        chris.putLandOnTable(landsAllColors[1]);
+        assertEquals(PackedMana.pack(new int[]{1, 0, 0, 0, 1}), chris.calculateUntappedMana());
+
+        landsAllColors[4].tap();
+        assertEquals(PackedMana.pack(new int[]{1, 0, 0, 0, 0}), chris.calculateUntappedMana());
+
+        chris.untapAllCards();
+        assertEquals(PackedMana.pack(new int[]{1, 1, 0, 0, 1}), chris.calculateUntappedMana());
+    }
+
     @Test
     public void testTappedManaForCreature() {
         marek.putLandOnTable(plains);
@@ -245,6 +398,39 @@ public class PlayerImplTest {
     }
 
 
+    @Test
+    public void tapManaOnlyForCost() {
+        LandCardImpl secondPlains = new LandCardImpl(LandCardType.PLAINS);
+        CreatureCardImpl secondKitkin = new CreatureCardImpl("Kitkin", new ManaType[]{ManaType.WHITE}, 2, 1);
+        Player eva = createPlayer("Eva");
+        eva.initCards(new Card[]{plains, secondPlains, swamp, kitkin, secondKitkin});
+        eva.putLandOnTable(plains);
+        eva.putLandOnTable(secondPlains);
+        eva.putLandOnTable(swamp);
+
+        assertTrue(eva.putCreatureOnTable(kitkin));
+        assertEquals(PackedMana.pack(new int[]{1, 0, 0, 0, 1}), eva.calculateUntappedMana());
+        assertTrue(eva.putCreatureOnTable(secondKitkin));
+        assertEquals(PackedMana.of(ManaType.BLACK), eva.calculateUntappedMana());
+        assertFalse(swamp.isTapped());
+    }
+
+    @Test
+    public void planCreaturePurchase() {
+        CreatureCard cheap = new CreatureCardImpl("Cheap", new ManaType[]{ManaType.WHITE}, 3, 3);
+        CreatureCard expensive = new CreatureCardImpl("Expensive",
+                new ManaType[]{ManaType.WHITE, ManaType.BLACK}, 4, 4);
+        CreatureCard black = new CreatureCardImpl("Black", new ManaType[]{ManaType.BLACK}, 2, 2);
+        Player eva = createPlayer("Eva");
+        eva.initCards(new Card[]{plains, swamp, expensive, cheap, black});
+        assertArrayEquals(new CreatureCard[]{}, eva.planCreaturePurchase(CreatureCard::getTotalCost));
+
+        eva.putLandOnTable(plains);
+        eva.putLandOnTable(swamp);
+        assertArrayEquals(new CreatureCard[]{cheap, black}, eva.planCreaturePurchase(CreatureCard::getTotalCost));
+        assertArrayEquals(new CreatureCard[]{expensive}, eva.planCreaturePurchase(c -> c.getPower() * c.getPower()));
+    }
+
     @Test
     public void creatureIsDestroyed() {
         marek.putLandOnTable(plains);
@@ -254,6 +440,190 @@ public class PlayerImplTest {
         assertEquals(0, marek.getCreaturesOnTable().length);
     }
 
+    @Test
+    public void cardPutOnTableDirectlyChangesZone() {
+        plains.putOnTable();
+        assertEquals(1, marek.getLandsOnTable().length);
+        assertEquals(1, marek.getLandsInHand().length);
+        assertFalse(marek.putLandOnTable(plains));
+    }
+
+    @Test
+    public void cardsOnTableStayOnTableAfterInit() {
+        plains.putOnTable();
+        Player eva = createPlayer("Eva");
+        eva.initCards(new Card[]{plains, swamp});
+        assertArrayEquals(new Card[]{plains}, eva.getCardsOnTable());
+        assertArrayEquals(new Card[]{swamp}, eva.getCardsInHand());
+    }
+
+    @Test
+    public void testCreaturesOnTable() {
+        CreatureCard stranger = new CreatureCardImpl("Stranger", new ManaType[]{}, 1, 1);
+        stranger.putOnTable();
+        assertTrue(marek.hasCreaturesOnTable(new CreatureCard[]{}));
+        assertFalse(marek.hasCreaturesOnTable(new CreatureCard[]{kitkin}));
+
+        marek.putLandOnTable(plains);
+        marek.putCreatureOnTable(kitkin);
+        assertTrue(marek.hasCreaturesOnTable(new CreatureCard[]{null, kitkin}));
+        assertFalse(marek.hasCreaturesOnTable(new CreatureCard[]{kitkin, stranger}));
+
+        marek.destroyCreature(kitkin);
+        assertFalse(marek.hasCreaturesOnTable(new CreatureCard[]{kitkin}));
+    }
+
+    @Test
+    public void restoreUndoesChanges() {
+        Card[] hand = marek.getCardsInHand();
+        PlayerSnapshot snapshot = marek.snapshot();
+
+        putEverythingUntappedOnTable();
+        swamp.tap();
+        marek.destroyCreature(kitkin);
+        marek.subtractLives(5);
+        marek.restore(snapshot);
+
+        assertArrayEquals(hand, marek.getCardsInHand());
+        assertEquals(0, marek.getCardsOnTable().length);
+        assertEquals(Player.INIT_LIVES, marek.getLife());
+        assertFalse(swamp.isTapped() || swamp.isOnTable());
+        assertFalse(kitkin.hasSummoningSickness());
+        assertEquals(PackedMana.EMPTY, marek.calculateUntappedMana());
+
+        marek.putLandOnTable(plains);
+        marek.restore(snapshot);
+        assertArrayEquals(hand, marek.getCardsInHand());
+    }
+
+    @Test
+    public void restoreReturnsDestroyedCreature() {
+        putEverythingUntappedOnTable();
+        marek.prepareAllCreatures();
+        long mana = marek.calculateUntappedMana();
+        PlayerSnapshot snapshot = marek.snapshot();
+
+        kitkin.tap();
+        plains.tap();
+        marek.destroyCreature(kitkin);
+        marek.restore(snapshot);
+
+        assertTrue(marek.hasCreaturesOnTable(new CreatureCard[]{kitkin}));
+        assertArrayEquals(new CreatureCard[]{kitkin}, marek.getCreaturesOnTable());
+        assertFalse(kitkin.isTapped() || kitkin.hasSummoningSickness());
+        assertEquals(mana, marek.calculateUntappedMana());
+        plains.tap();
+        assertEquals(PackedMana.of(ManaType.BLACK), marek.calculateUntappedMana());
+    }
+
+    @Test
+    public void restoreAlternatesBetweenSnapshots() {
+        marek.putLandOnTable(plains);
+        PlayerSnapshot landed = marek.snapshot();
+        marek.putCreatureOnTable(kitkin);
+        PlayerSnapshot bought = marek.snapshot();
+
+        kitkin.unsetSummoningSickness();
+        marek.restore(landed);
+        assertFalse(plains.isTapped() || kitkin.isOnTable() || kitkin.hasSummoningSickness());
+
+        swamp.tap();
+        marek.restore(bought);
+        assertTrue(plains.isTapped() && kitkin.isOnTable() && kitkin.hasSummoningSickness());
+        assertFalse(swamp.isTapped());
+
+        marek.putLandOnTable(swamp);
+        marek.restore(bought);
+        marek.restore(landed);
+        assertArrayEquals(new Card[]{plains}, marek.getCardsOnTable());
+        assertFalse(plains.isTapped() || swamp.isOnTable() || kitkin.isOnTable());
+        assertEquals(PackedMana.of(ManaType.WHITE), marek.calculateUntappedMana());
+    }
+
+    @Test
+    public void restoreAnySnapshotOfLongChain() {
+        marek.putLandOnTable(swamp);
+        PlayerSnapshot[] snapshots = new PlayerSnapshot[40];
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = marek.snapshot();
+            if (i % 3 == 0) {
+                swamp.tap();
+            } else {
+                swamp.untap();
+            }
+            marek.subtractLives(1);
+        }
+
+        for (int i : new int[]{39, 0, 17, 33, 1, 16, 38, 38, 2}) {
+            marek.restore(snapshots[i]);
+            assertEquals(i > 0 && (i - 1) % 3 == 0, swamp.isTapped());
+            assertEquals(Player.INIT_LIVES - i, marek.getLife());
+            assertArrayEquals(new Card[]{swamp}, marek.getCardsOnTable());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreSnapshotOfOtherPlayer() {
+        Player eva = createPlayer("Eva");
+        eva.initCards(new Card[]{new LandCardImpl(LandCardType.FOREST)});
+        marek.restore(eva.snapshot());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreSnapshotOfOldCards() {
+        PlayerSnapshot snapshot = marek.snapshot();
+        marek.initCards(new Card[]{new LandCardImpl(LandCardType.FOREST)});
+        marek.restore(snapshot);
+    }
+
+    @Test
+    public void cardsKnowTheirSlots() {
+        assertEquals(0, swamp.getSlot());
+        assertEquals(1, plains.getSlot());
+        assertEquals(2, kitkin.getSlot());
+    }
+
+    @Test
+    public void zobristHashFollowsChanges() {
+        long initial = marek.getZobristHash();
+        PlayerSnapshot snapshot = marek.snapshot();
+
+        putEverythingUntappedOnTable();
+        long onTable = marek.getZobristHash();
+        kitkin.tap();
+        assertNotEquals(onTable, marek.getZobristHash());
+        kitkin.untap();
+        assertEquals(onTable, marek.getZobristHash());
+        marek.prepareAllCreatures();
+        assertNotEquals(onTable, marek.getZobristHash());
+        marek.destroyCreature(kitkin);
+        marek.subtractLives(3);
+        assertNotEquals(onTable, marek.getZobristHash());
+
+        marek.restore(snapshot);
+        assertEquals(initial, marek.getZobristHash());
+    }
+
+    @Test
+    public void zobristHashDependsOnlyOnState() {
+        Player eva = new PlayerImpl("Eva");
+        LandCardImpl evaSwamp = new LandCardImpl(LandCardType.SWAMP);
+        LandCardImpl evaPlains = new LandCardImpl(LandCardType.PLAINS);
+        CreatureCardImpl evaKitkin = new CreatureCardImpl("Kitkin", new ManaType[]{ManaType.WHITE}, 2, 1);
+        eva.initCards(new Card[]{evaSwamp, evaPlains, evaKitkin});
+
+        marek.putLandOnTable(plains);
+        marek.putLandOnTable(swamp);
+        marek.putCreatureOnTable(kitkin);
+        eva.putLandOnTable(evaSwamp);
+        eva.putLandOnTable(evaPlains);
+        evaPlains.tap();
+        evaKitkin.putOnTable();
+        evaKitkin.setSummoningSickness();
+
+        assertEquals(marek.getZobristHash(), eva.getZobristHash());
+    }
+
     @Test
     public void testStringMessage() {
         assertEquals("Marek(20)", marek.toString());
@@ -0,0 +1,155 @@
+package magicthegathering.journal;
+
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.ai.RandomStrategy;
+import magicthegathering.game.Card;
+import magicthegathering.game.Game;
+import magicthegathering.game.GameSnapshot;
+import magicthegathering.game.GameStateCodec;
+import magicthegathering.game.LandCardType;
+import magicthegathering.game.Player;
+import magicthegathering.game.PlayerSnapshot;
+import magicthegathering.impl.LandCardImpl;
+import magicthegathering.impl.PlayerImpl;
+import magicthegathering.simulation.GameRunner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Marek Sabo
+ */
+public class JournaledGameTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayRebuildsAllGames() throws IOException {
+        Path file = folder.newFile().toPath();
+        List<byte[]> states = new ArrayList<>();
+        List<String> currentPlayers = new ArrayList<>();
+        try (GameJournal journal = new GameJournal(file)) {
+            for (int i = 0; i < 5; i++) {
+                Game game = new JournaledGame(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"), journal);
+                game.initGame(i);
+                GameRunner.play(game, new GreedyStrategy(), new RandomStrategy(i), 30 + i);
+                states.add(GameStateCodec.encode(game));
+                currentPlayers.add(game.getCurrentPlayer().getName());
+            }
+        }
+
+        List<Game> games = JournalReplayer.replay(file);
+
+        assertEquals(states.size(), games.size());
+        for (int i = 0; i < games.size(); i++) {
+            assertArrayEquals(states.get(i), GameStateCodec.encode(games.get(i)));
+            assertEquals(currentPlayers.get(i), games.get(i).getCurrentPlayer().getName());
+        }
+    }
+
+    @Test
+    public void restoreDropsRecordsOfUndoneCalls() throws IOException {
+        Path file = folder.newFile().toPath();
+        byte[] state;
+        try (GameJournal journal = new GameJournal(file)) {
+            Game game = new JournaledGame(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"), journal);
+            game.initGame(7);
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            int length = journal.length();
+            GameSnapshot snapshot = game.snapshot();
+            game.changePlayer();
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            game.restore(snapshot);
+
+            assertEquals(length, journal.length());
+            state = GameStateCodec.encode(game);
+        }
+
+        assertArrayEquals(state, GameStateCodec.encode(JournalReplayer.replay(file).get(0)));
+    }
+
+    @Test
+    public void journalGrowsBeyondMappedChunk() throws IOException {
+        Path file = folder.newFile().toPath();
+        try (GameJournal journal = new GameJournal(file)) {
+            Game game = new JournaledGame(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"), journal);
+            game.initGame(1);
+            for (int i = 0; i < GameJournal.CHUNK + 1; i++) {
+                game.changePlayer();
+            }
+        }
+
+        assertEquals("Zuzka", JournalReplayer.replay(file).get(0).getCurrentPlayer().getName());
+    }
+
+    @Test(expected = IOException.class)
+    public void fileWhichIsNotJournal() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[] {1, 2, 3});
+        JournalReplayer.replay(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void recordWithoutGame() throws IOException {
+        Path file = folder.newFile().toPath();
+        try (GameJournal journal = new GameJournal(file)) {
+            journal.begin(GameJournal.CHANGE_PLAYER, 0);
+            journal.commit();
+        }
+        JournalReplayer.replay(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreForgetsSnapshotsOfDroppedRecords() throws IOException {
+        try (GameJournal journal = new GameJournal(folder.newFile().toPath())) {
+            Game game = new JournaledGame(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"), journal);
+            game.initGame(7);
+            GameSnapshot first = game.snapshot();
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            GameSnapshot second = game.snapshot();
+            game.restore(first);
+            GameRunner.playTurn(game, new RandomStrategy(1), new RandomStrategy(2));
+            game.restore(second);
+        }
+    }
+
+    @Test
+    public void playerCallsAreReplayed() throws IOException {
+        Path file = folder.newFile().toPath();
+        byte[] state;
+        try (GameJournal journal = new GameJournal(file)) {
+            Game game = new JournaledGame(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"), journal);
+            game.initGame(5);
+            Player marek = game.getCurrentPlayer();
+            PlayerSnapshot snapshot = marek.snapshot();
+            GameRunner.playTurn(game, new GreedyStrategy(), new GreedyStrategy());
+            marek.restore(snapshot);
+            Player zuzka = game.getSecondPlayer();
+            zuzka.initCards(Arrays.copyOf(zuzka.getCardsInHand(), 3));
+            state = GameStateCodec.encode(game);
+        }
+
+        assertArrayEquals(state, GameStateCodec.encode(JournalReplayer.replay(file).get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dealtCardsMustBelongToGame() throws IOException {
+        try (GameJournal journal = new GameJournal(folder.newFile().toPath())) {
+            Game game = new JournaledGame(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"), journal);
+            game.initGame(5);
+            game.getCurrentPlayer().initCards(new Card[] {new LandCardImpl(LandCardType.FOREST)});
+        }
+    }
+
+}
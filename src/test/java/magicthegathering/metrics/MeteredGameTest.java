@@ -0,0 +1,127 @@
+package magicthegathering.metrics;
+
+import magicthegathering.ai.MctsStrategy;
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.game.Game;
+import magicthegathering.game.Player;
+import magicthegathering.game.Strategy;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PackedPlayerImpl;
+import magicthegathering.impl.PlayerImpl;
+import magicthegathering.simulation.GameRunner;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class MeteredGameTest {
+
+    private static final int MAX_TURNS = 200;
+
+    private final EngineMetrics metrics = new EngineMetrics();
+
+    @Test
+    public void countsCreaturesOfFinishedGame() {
+        Player first = new PlayerImpl("Marek");
+        Player second = new PackedPlayerImpl("Zuzka");
+        Game game = new MeteredGame(new GameImpl(first, second), metrics);
+        game.initGame(3);
+        int creatures = first.getCreaturesInHand().length + second.getCreaturesInHand().length;
+
+        GameRunner.play(game, new GreedyStrategy(), new GreedyStrategy(), MAX_TURNS);
+
+        int inHand = first.getCreaturesInHand().length + second.getCreaturesInHand().length;
+        int onTable = first.getCreaturesOnTable().length + second.getCreaturesOnTable().length;
+        assertEquals(1, metrics.getGamesStarted());
+        assertEquals(1, metrics.getGamesFinished());
+        assertEquals(creatures - inHand, metrics.getCreaturesSummoned());
+        assertEquals(creatures - inHand - onTable, metrics.getCreaturesDestroyed());
+        assertTrue(metrics.getPrepareTurnCount() >= metrics.getAttackCount());
+        assertEquals(metrics.getAttackValidationsPassed(), metrics.getAttackCount());
+        assertEquals(metrics.getAttackCount(), metrics.getBlockAndDamageCount());
+        assertTrue(metrics.getBlockAndDamageP50Nanos() <= metrics.getBlockAndDamageMaxNanos());
+    }
+
+    @Test
+    public void playoutsAreNotCounted() {
+        Game game = new MeteredGame(new GameImpl(new PlayerImpl("Marek"), new PlayerImpl("Zuzka")), metrics);
+        game.initGame(5);
+        Strategy search = new MctsStrategy(5, 60_000, 30);
+        Strategy greedy = new GreedyStrategy();
+        Player first = game.getCurrentPlayer();
+        int turns = 0;
+        for (; turns < MAX_TURNS && !game.getCurrentPlayer().isDead(); turns++) {
+            assertEquals(0, metrics.getGamesFinished());
+            boolean searching = game.getCurrentPlayer() == first;
+            GameRunner.playTurn(game, searching ? search : greedy, searching ? greedy : search);
+            game.changePlayer();
+        }
+
+        assertTrue(game.getCurrentPlayer().isDead());
+        assertEquals(1, metrics.getGamesStarted());
+        assertEquals(1, metrics.getGamesFinished());
+        assertEquals(turns, metrics.getPrepareTurnCount());
+        assertEquals(metrics.getAttackValidationsPassed(), metrics.getAttackCount());
+        assertTrue(metrics.getCreaturesDestroyed() <= metrics.getCreaturesSummoned());
+    }
+
+    @Test
+    public void countsValidations() {
+        Game game = new MeteredGame(new GameImpl(new PlayerImpl("Marek"), new PlayerImpl("Zuzka")), metrics);
+        game.initGame(1);
+        int[] unknown = {Integer.MAX_VALUE};
+
+        assertTrue(game.isCreaturesAttackValid(new int[0]));
+        assertFalse(game.isCreaturesAttackValid(unknown));
+        assertFalse(game.isCreaturesBlockValid(unknown, new int[0]));
+
+        assertEquals(1, metrics.getAttackValidationsPassed());
+        assertEquals(1, metrics.getAttackValidationsFailed());
+        assertEquals(0, metrics.getBlockValidationsPassed());
+        assertEquals(1, metrics.getBlockValidationsFailed());
+    }
+
+    @Test
+    public void parallelGamesShareMetrics() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 100; i++) {
+            long seed = i;
+            executor.execute(() -> {
+                Game game = new MeteredGame(new GameImpl(new PlayerImpl("A"), new PlayerImpl("B")), metrics);
+                game.initGame(seed);
+                GameRunner.play(game, new GreedyStrategy(), new GreedyStrategy(), MAX_TURNS);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(100, metrics.getGamesStarted());
+        assertEquals(metrics.getPrepareTurnCount(), metrics.getPrepareTurnLatency().getCount());
+    }
+
+    @Test
+    public void metricsAreRegisteredAsMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register("test");
+        try {
+            metrics.gameStarted();
+            assertEquals(1L, server.getAttribute(name, "GamesStarted"));
+            assertEquals(0L, server.getAttribute(name, "BlockAndDamageP99Nanos"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+}
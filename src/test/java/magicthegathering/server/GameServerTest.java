@@ -0,0 +1,242 @@
+package magicthegathering.server;
+
+import magicthegathering.CommandReader;
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.game.CreatureCard;
+import magicthegathering.game.Game;
+import magicthegathering.game.LandCard;
+import magicthegathering.metrics.EngineMetrics;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class GameServerTest {
+
+    private static final int CLIENTS = 200;
+    private static final int MAX_LINES = 10_000;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    public void passiveClientLosesTheGame() {
+        GameSession session = new GameSession(1, 42, new GreedyStrategy(), new EngineMetrics());
+        String answer = session.start();
+        assertTrue(answer.startsWith("SESSION 1\nTURN Player 20 Bot 20\n"));
+        for (int i = 0; i < MAX_LINES && session.getOutcome() == null; i++) {
+            answer = handle(session, "");
+        }
+        assertEquals(GameSession.LOSE, session.getOutcome());
+        assertTrue(answer.endsWith("END LOSE\n"));
+    }
+
+    @Test
+    public void invalidLineKeepsThePhase() {
+        GameSession session = new GameSession(1, 42, new GreedyStrategy(), new EngineMetrics());
+        session.start();
+        assertEquals("ERR invalid index 99\n? LAND\n", handle(session, "99"));
+        assertEquals("ERR not a number x\n? LAND\n", handle(session, "x"));
+        assertEquals("ERR only one land per turn\n? LAND\n", handle(session, "0 1"));
+        assertTrue(handle(session, " state ").startsWith("LIFE 20 20\nHAND "));
+        assertTrue(handle(session, "0").startsWith("LAND "));
+        assertTrue(handle(session, "").endsWith("? ATTACK\n"));
+        assertNull(session.getOutcome());
+    }
+
+    @Test
+    public void attackOfTheClientIsValidatedOnce() {
+        EngineMetrics metrics = new EngineMetrics();
+        GameSession session = new GameSession(1, 42, new PassiveStrategy(), metrics);
+        String answer = session.start();
+        for (int i = 0; i < MAX_LINES && metrics.getAttackCount() == 0; i++) {
+            answer = handle(session, answer.endsWith("? LAND\n") || answer.contains("\n0: ") ? "0" : "");
+        }
+        assertEquals(1, metrics.getAttackCount());
+        assertEquals(1, metrics.getAttackValidationsPassed());
+    }
+
+    @Test
+    public void skipLineSkipsAttackAndBlock() {
+        GameSession session = new GameSession(1, 42, new GreedyStrategy(), new EngineMetrics());
+        String answer = session.start();
+        boolean attackSkipped = false;
+        boolean blockSkipped = false;
+        for (int i = 0; i < MAX_LINES && session.getOutcome() == null && !(attackSkipped && blockSkipped); i++) {
+            if (answer.endsWith("? ATTACK\n") && answer.contains("\n0: ")) {
+                answer = handle(session, "0 -42");
+                assertFalse(answer, answer.startsWith("ERR") || answer.contains("BLOCK "));
+                attackSkipped = true;
+            } else if (answer.endsWith("? BLOCK\n") && answer.contains("\n0: ")) {
+                answer = handle(session, "-42");
+                assertTrue(answer, answer.startsWith("BLOCK ") && answer.contains(" -> PLAYER\n"));
+                blockSkipped = true;
+            } else {
+                boolean buying = answer.endsWith("? LAND\n") || answer.endsWith("? BUY\n");
+                answer = handle(session, buying && !answer.startsWith("ERR") ? "0" : "");
+            }
+        }
+        assertTrue(attackSkipped);
+        assertTrue(blockSkipped);
+    }
+
+    @Test
+    public void quitEndsTheGame() {
+        GameSession session = new GameSession(1, 42, new GreedyStrategy(), new EngineMetrics());
+        session.start();
+        assertEquals("END QUIT\n", handle(session, "QUIT"));
+        assertEquals("ERR game is over\n", handle(session, ""));
+        assertEquals(GameSession.QUIT, session.getOutcome());
+    }
+
+    @Test
+    public void serverPlaysConcurrentGames() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try (GameServer server = new GameServer(0, 7, seed -> new GreedyStrategy())) {
+            server.start();
+            List<Future<String>> outcomes = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                outcomes.add(clients.submit(() -> play(server.getPort(), false)));
+            }
+            for (Future<String> outcome : outcomes) {
+                assertEquals("END LOSE", outcome.get());
+            }
+            awaitClosedSessions(server);
+
+            assertEquals(CLIENTS, server.getOpenedSessions());
+            assertEquals(CLIENTS, server.getGamesLost());
+            assertEquals(0, server.getGamesWon());
+            assertTrue(server.getHandledLines() >= CLIENTS);
+            assertEquals(CLIENTS, server.getEngineMetrics().getGamesStarted());
+            assertEquals(CLIENTS, server.getEngineMetrics().getGamesFinished());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    public void disconnectedGameIsAbandoned() throws Exception {
+        try (GameServer server = new GameServer(0, 7, seed -> new GreedyStrategy())) {
+            server.start();
+            assertNotNull(play(server.getPort(), true));
+            play(server.getPort(), true);
+            awaitClosedSessions(server);
+
+            assertEquals(2, server.getGamesAbandoned());
+            assertEquals(0, server.getGamesLost());
+        }
+    }
+
+    @Test
+    public void failingSessionClosesOnlyItsConnection() throws Exception {
+        AtomicInteger bots = new AtomicInteger();
+        try (GameServer server = new GameServer(0, 7, seed -> bots.incrementAndGet() == 1 ? new FailingStrategy()
+                : new GreedyStrategy())) {
+            server.start();
+            try (Socket failing = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                assertNull(play(failing, false));
+            }
+            assertEquals("END LOSE", play(server.getPort(), false));
+            awaitClosedSessions(server);
+
+            assertEquals(1, server.getGamesAbandoned());
+            assertEquals(1, server.getGamesLost());
+        }
+    }
+
+    @Test
+    public void tooLongLineClosesTheConnection() throws Exception {
+        try (GameServer server = new GameServer(0, 7, seed -> new GreedyStrategy());
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            server.start();
+            assertEquals("? LAND", play(socket, true));
+            char[] line = new char[GameServer.MAX_LINE + 1];
+            Arrays.fill(line, '0');
+            socket.getOutputStream().write((new String(line) + "\n").getBytes(StandardCharsets.UTF_8));
+            awaitClosedSessions(server);
+
+            assertEquals(1, server.getGamesAbandoned());
+        }
+    }
+
+    private static String handle(GameSession session, String line) {
+        return session.handle(new CommandReader(new StringReader(line + "\n")));
+    }
+
+    private static String play(int port, boolean disconnect) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            return play(socket, disconnect);
+        }
+    }
+
+    private static String play(Socket socket, boolean disconnect) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        OutputStream writer = socket.getOutputStream();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("END ")) {
+                return line;
+            }
+            if (line.startsWith("? ")) {
+                if (disconnect) {
+                    return line;
+                }
+                writer.write('\n');
+                writer.flush();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Strategy of the bot failing on its first turn.
+     */
+    private static final class FailingStrategy extends GreedyStrategy {
+
+        @Override
+        public LandCard chooseLand(Game game) {
+            throw new IllegalStateException("bot failed");
+        }
+    }
+
+    /**
+     * Strategy of the bot which never attacks.
+     */
+    private static final class PassiveStrategy extends GreedyStrategy {
+
+        @Override
+        public CreatureCard[] chooseAttackers(Game game) {
+            return new CreatureCard[0];
+        }
+    }
+
+    private static void awaitClosedSessions(GameServer server) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (server.getActiveSessions() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getActiveSessions());
+    }
+
+}
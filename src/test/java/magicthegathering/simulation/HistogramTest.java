@@ -0,0 +1,79 @@
+package magicthegathering.simulation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class HistogramTest {
+
+    @Test
+    public void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 0; value < 50; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(50, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(49, histogram.getMax());
+        assertEquals(24, histogram.getValueAtPercentile(50));
+        assertEquals(24.5, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    public void bucketsCoverAllValues() {
+        assertEquals(0, Histogram.lowestValueOf(0));
+        for (int index = 1; index <= Histogram.indexOf(Integer.MAX_VALUE); index++) {
+            int lowest = Histogram.lowestValueOf(index);
+            assertEquals(index, Histogram.indexOf(lowest));
+            assertEquals(index - 1, Histogram.indexOf(lowest - 1));
+        }
+    }
+
+    @Test
+    public void percentilesHaveSmallRelativeError() {
+        SplittableRandom random = new SplittableRandom(1);
+        int[] values = new int[10_000];
+        Histogram first = new Histogram();
+        Histogram second = new Histogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(1_000_000);
+            (i % 2 == 0 ? first : second).record(values[i]);
+        }
+        Histogram merged = first.merge(second);
+        Arrays.sort(values);
+
+        assertEquals(values.length, merged.getCount());
+        for (double percentile : new double[]{1, 50, 90, 99, 100}) {
+            int exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            assertEquals(exact, merged.getValueAtPercentile(percentile), exact * 0.032);
+        }
+    }
+
+    @Test
+    public void valueIsRecordedManyTimes() {
+        Histogram histogram = new Histogram();
+        histogram.record(1000, 3);
+        histogram.record(7, 0);
+        histogram.record(10);
+
+        assertEquals(4, histogram.getCount());
+        assertEquals(10, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(752.5, histogram.getMean(), 0);
+        assertEquals(Histogram.lowestValueOf(Histogram.indexOf(1000)), histogram.getValueAtPercentile(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeValue() {
+        new Histogram().record(-1);
+    }
+
+}
@@ -0,0 +1,94 @@
+package magicthegathering.simulation;
+
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.ai.RandomStrategy;
+import magicthegathering.game.Game;
+import magicthegathering.game.Generator;
+import magicthegathering.impl.GameImpl;
+import magicthegathering.impl.PlayerImpl;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class SimulatorTest {
+
+    @Test
+    public void winnerIsAlive() {
+        Game game = new GameImpl(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"));
+        game.initGame();
+        GameOutcome outcome = GameRunner.play(game, new GreedyStrategy(), new RandomStrategy(1), 1000);
+
+        if (outcome.getWinner() == GameOutcome.DRAW) {
+            assertEquals(1000, outcome.getTurns());
+            return;
+        }
+        int loserLife = outcome.getWinner() == 0 ? outcome.getSecondLife() : outcome.getFirstLife();
+        int winnerLife = outcome.getWinner() == 0 ? outcome.getFirstLife() : outcome.getSecondLife();
+        assertTrue(loserLife <= 0);
+        assertTrue(winnerLife > 0);
+    }
+
+    @Test
+    public void turnLimitMeansDraw() {
+        Game game = new GameImpl(new PlayerImpl("Marek"), new PlayerImpl("Zuzka"));
+        game.initGame();
+        GameOutcome outcome = GameRunner.play(game, new GreedyStrategy(), new GreedyStrategy(), 1);
+
+        assertEquals(GameOutcome.DRAW, outcome.getWinner());
+        assertEquals(1, outcome.getTurns());
+    }
+
+    @Test
+    public void allGamesAreCounted() {
+        Simulator simulator = new Simulator(RandomStrategy::new, RandomStrategy::new,
+                Simulator.DEFAULT_MAX_TURNS, new ForkJoinPool(4));
+        SimulationResult result = simulator.run(1000, 42);
+
+        assertEquals(1000, result.getGames());
+        assertEquals(1000, result.getFirstWins() + result.getSecondWins() + result.getDraws());
+        assertTrue(result.getMinTurns() <= result.getMaxTurns());
+        assertTrue(result.getAverageTurns() >= result.getMinTurns());
+    }
+
+    @Test
+    public void resultDoesNotDependOnThreads() {
+        SimulationResult single = new Simulator(RandomStrategy::new, RandomStrategy::new,
+                Simulator.DEFAULT_MAX_TURNS, new ForkJoinPool(1)).run(2000, 7);
+        SimulationResult parallel = new Simulator(RandomStrategy::new, RandomStrategy::new,
+                Simulator.DEFAULT_MAX_TURNS, new ForkJoinPool(8)).run(2000, 7);
+
+        assertEquals(single.getFirstWins(), parallel.getFirstWins());
+        assertEquals(single.getSecondWins(), parallel.getSecondWins());
+        assertEquals(single.getAverageTurns(), parallel.getAverageTurns(), 0);
+        assertEquals(single.getMaxTurns(), parallel.getMaxTurns());
+        assertEquals(single.getTurns().getValueAtPercentile(90), parallel.getTurns().getValueAtPercentile(90));
+        assertEquals(single.getDestroyed().getMean(), parallel.getDestroyed().getMean(), 0);
+        assertEquals(single.getProfileWinRate(10), parallel.getProfileWinRate(10), 0);
+    }
+
+    @Test
+    public void playersAreRecordedWithoutStoringGames() {
+        SimulationResult result = new Simulator(s -> new GreedyStrategy(), RandomStrategy::new,
+                Simulator.DEFAULT_MAX_TURNS, new ForkJoinPool(4)).run(1000, 3);
+
+        assertEquals(2000, result.getSummoned().getCount());
+        assertEquals(result.getFirstWins() + result.getSecondWins(), result.getWinnerLife().getCount());
+        assertTrue(result.getDestroyed().getMean() <= result.getSummoned().getMean());
+        assertTrue(result.getSummoned().getMax() <= Game.CREATURE_COUNT);
+        long profileGames = 0;
+        double points = 0;
+        for (int profile = 0; profile < Generator.PROFILE_COUNT; profile++) {
+            profileGames += result.getProfileGames(profile);
+            points += result.getProfileWinRate(profile) * result.getProfileGames(profile);
+        }
+        assertEquals(2000, profileGames);
+        assertEquals(result.getFirstWins() + result.getSecondWins() + result.getDraws() / 2.0, points, 1e-6);
+    }
+
+}
@@ -0,0 +1,81 @@
+package magicthegathering.simulation;
+
+import magicthegathering.ai.GreedyStrategy;
+import magicthegathering.ai.RandomStrategy;
+import magicthegathering.game.Strategy;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Marek Sabo
+ */
+public class TournamentTest {
+
+    private static Map<String, LongFunction<Strategy>> entrants() {
+        Map<String, LongFunction<Strategy>> entrants = new LinkedHashMap<>();
+        entrants.put("Random", RandomStrategy::new);
+        entrants.put("Greedy", s -> new GreedyStrategy());
+        entrants.put("Random 2", RandomStrategy::new);
+        return entrants;
+    }
+
+    @Test
+    public void everyPairingPlaysAllGames() {
+        TournamentResult result = new Tournament(entrants(), 60, Simulator.DEFAULT_MAX_TURNS).run(3);
+
+        assertEquals(3, result.size());
+        assertEquals("Greedy", result.getName(1));
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(0, result.getGames(i, i));
+            for (int j = i + 1; j < result.size(); j++) {
+                assertEquals(60, result.getGames(i, j));
+                assertEquals(60, result.getPoints(i, j) + result.getPoints(j, i), 0);
+            }
+        }
+        double sum = 0;
+        for (int i = 0; i < result.size(); i++) {
+            sum += result.getRating(i);
+        }
+        assertEquals(3 * TournamentResult.AVERAGE_RATING, sum, 1e-6);
+    }
+
+    @Test
+    public void strongerEntrantHasHigherRating() {
+        TournamentResult result = new Tournament(entrants(), 100, Simulator.DEFAULT_MAX_TURNS).run(5);
+
+        assertTrue(result.getRating(1) - result.getConfidence(1) > result.getRating(0));
+        assertTrue(result.getRating(1) - result.getConfidence(1) > result.getRating(2));
+        assertTrue(result.getConfidence(0) > 0);
+    }
+
+    @Test
+    public void resultDoesNotDependOnThreads() {
+        TournamentResult single = new Tournament(entrants(), 50, Simulator.DEFAULT_MAX_TURNS,
+                new ForkJoinPool(1)).run(11);
+        TournamentResult parallel = new Tournament(entrants(), 50, Simulator.DEFAULT_MAX_TURNS,
+                new ForkJoinPool(8)).run(11);
+
+        for (int i = 0; i < single.size(); i++) {
+            for (int j = 0; j < single.size(); j++) {
+                assertEquals(single.getPoints(i, j), parallel.getPoints(i, j), 0);
+            }
+            assertEquals(single.getRating(i), parallel.getRating(i), 0);
+            assertEquals(single.getConfidence(i), parallel.getConfidence(i), 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tournamentNeedsTwoEntrants() {
+        Map<String, LongFunction<Strategy>> entrants = new LinkedHashMap<>();
+        entrants.put("Greedy", s -> new GreedyStrategy());
+        new Tournament(entrants, 10, Simulator.DEFAULT_MAX_TURNS);
+    }
+
+}